@@ -0,0 +1,24 @@
+package com.sinon.bluecommunity.common.dto;
+
+import lombok.Data;
+
+/**
+ * 分类话题数统计行DTO
+ */
+@Data
+public class CategoryTopicCountDTO {
+    /**
+     * 分类ID
+     */
+    private Long categoryId;
+
+    /**
+     * 话题状态
+     */
+    private Integer status;
+
+    /**
+     * 数量
+     */
+    private Long count;
+}
@@ -0,0 +1,96 @@
+package com.sinon.bluecommunity.common.dto;
+
+import com.sinon.bluecommunity.common.entity.Comment;
+import com.sinon.bluecommunity.common.enums.ResultCode;
+import com.sinon.bluecommunity.common.exception.BusinessException;
+import com.sinon.bluecommunity.common.vo.CommentVO;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 评论列表游标（键集分页）
+ * 记录上一页最后一条评论的 (创建时间, ID)，按时间倒序向后翻页，对客户端是不透明的字符串
+ */
+@Data
+public class CommentCursor {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * 评论ID，作为排序的最后一个字段保证唯一
+     */
+    private Long id;
+
+    /**
+     * 根据本页最后一条评论生成下一页游标
+     */
+    public static CommentCursor of(Comment last) {
+        return of(last.getCreatedAt(), last.getId());
+    }
+
+    /**
+     * 根据本页最后一条一级评论生成下一页游标
+     */
+    public static CommentCursor of(CommentVO last) {
+        return of(last.getCreatedAt(), last.getId());
+    }
+
+    /**
+     * 根据已返回的回复生成加载更多回复的游标
+     * 没有返回任何回复（例如回复预览条数配置为0）时为空串，解析后为第一页
+     */
+    public static String nextReplyCursor(List<Comment> replies) {
+        return replies.isEmpty() ? "" : of(replies.get(replies.size() - 1)).encode();
+    }
+
+    private static CommentCursor of(LocalDateTime createdAt, Long id) {
+        CommentCursor cursor = new CommentCursor();
+        cursor.setCreatedAt(createdAt);
+        cursor.setId(id);
+        return cursor;
+    }
+
+    /**
+     * 编码为URL安全的字符串
+     */
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标字符串
+     *
+     * @param value 游标字符串，为空表示第一页
+     * @return 游标对象，第一页返回null
+     */
+    public static CommentCursor decode(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 2) {
+                throw new BusinessException(ResultCode.PARAM_ERROR, "无效的分页游标");
+            }
+            CommentCursor cursor = new CommentCursor();
+            cursor.setCreatedAt(LocalDateTime.parse(parts[0]));
+            cursor.setId(Long.valueOf(parts[1]));
+            return cursor;
+        } catch (BusinessException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new BusinessException(ResultCode.PARAM_ERROR, "无效的分页游标");
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.sinon.bluecommunity.common.dto;
+
+import lombok.Data;
+
+/**
+ * 一级评论回复数统计行DTO
+ */
+@Data
+public class CommentReplyCountDTO {
+    /**
+     * 一级评论ID
+     */
+    private Long parentId;
+
+    /**
+     * 回复数
+     */
+    private Long count;
+}
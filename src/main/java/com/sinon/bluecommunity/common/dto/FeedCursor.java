@@ -0,0 +1,92 @@
+package com.sinon.bluecommunity.common.dto;
+
+import com.sinon.bluecommunity.common.entity.Topic;
+import com.sinon.bluecommunity.common.enums.ResultCode;
+import com.sinon.bluecommunity.common.exception.BusinessException;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * 关注流游标（键集分页）
+ * 记录上一页最后一条话题的 (发布时间, ID)，按发布时间倒序向后翻页，对客户端是不透明的字符串
+ */
+@Data
+public class FeedCursor {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * 发布时间
+     */
+    private LocalDateTime publishedAt;
+
+    /**
+     * 话题ID，作为排序的最后一个字段保证唯一
+     */
+    private Long id;
+
+    /**
+     * 根据本页最后一条话题生成下一页游标
+     */
+    public static FeedCursor of(Topic last) {
+        FeedCursor cursor = new FeedCursor();
+        cursor.setPublishedAt(last.getPublishedAt());
+        cursor.setId(last.getId());
+        return cursor;
+    }
+
+    /**
+     * 发布时间转换为收件箱中的分数（毫秒）
+     * 把本地时间按UTC换算，只用于排序，与数据库中按 DATETIME 比较的顺序一致，不受时区和夏令时影响
+     */
+    public static long toScore(LocalDateTime publishedAt) {
+        return publishedAt.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    /**
+     * 收件箱中的分数还原为发布时间，与 toScore 互逆
+     */
+    public static LocalDateTime fromScore(double score) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv((long) score, 1000L),
+                (int) Math.floorMod((long) score, 1000L) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * 编码为URL安全的字符串
+     */
+    public String encode() {
+        String raw = publishedAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标字符串
+     *
+     * @param value 游标字符串，为空表示第一页
+     * @return 游标对象，第一页返回null
+     */
+    public static FeedCursor decode(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 2) {
+                throw new BusinessException(ResultCode.PARAM_ERROR, "无效的分页游标");
+            }
+            FeedCursor cursor = new FeedCursor();
+            cursor.setPublishedAt(LocalDateTime.parse(parts[0]));
+            cursor.setId(Long.valueOf(parts[1]));
+            return cursor;
+        } catch (BusinessException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new BusinessException(ResultCode.PARAM_ERROR, "无效的分页游标");
+        }
+    }
+}
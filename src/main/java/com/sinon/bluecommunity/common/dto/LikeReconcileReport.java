@@ -0,0 +1,54 @@
+package com.sinon.bluecommunity.common.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 点赞数校对报告
+ */
+@Data
+public class LikeReconcileReport {
+    /**
+     * 开始时间
+     */
+    private LocalDateTime startedAt;
+
+    /**
+     * 耗时（毫秒）
+     */
+    private long durationMillis;
+
+    /**
+     * 是否校对了全部目标；等待落库锁超时时提前结束
+     */
+    private boolean completed;
+
+    /**
+     * 目标类型 -> 该类型的校对结果
+     */
+    private Map<String, TargetStats> targets = new LinkedHashMap<>();
+
+    /**
+     * 单个目标类型的校对结果
+     */
+    @Data
+    public static class TargetStats {
+        /**
+         * 检查的目标数
+         */
+        private long checked;
+
+        /**
+         * 修正的数据库点赞数字段数
+         */
+        private long columnRepaired;
+
+        /**
+         * 修正的Redis点赞计数数
+         */
+        private long counterRepaired;
+    }
+}
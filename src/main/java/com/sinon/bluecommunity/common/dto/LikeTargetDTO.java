@@ -0,0 +1,34 @@
+package com.sinon.bluecommunity.common.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 点赞目标DTO
+ * 同时用作按目标统计点赞数的查询结果行
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LikeTargetDTO {
+    /**
+     * 目标类型
+     */
+    private String targetType;
+
+    /**
+     * 目标ID
+     */
+    private Long targetId;
+
+    /**
+     * 点赞数（仅统计结果使用）
+     */
+    private Integer count;
+
+    public LikeTargetDTO(String targetType, Long targetId) {
+        this.targetType = targetType;
+        this.targetId = targetId;
+    }
+}
@@ -0,0 +1,138 @@
+package com.sinon.bluecommunity.common.dto;
+
+import com.sinon.bluecommunity.common.entity.Topic;
+import com.sinon.bluecommunity.common.enums.ResultCode;
+import com.sinon.bluecommunity.common.exception.BusinessException;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 话题列表游标（键集分页）
+ * 记录上一页最后一条话题的排序字段，对客户端是不透明的字符串
+ */
+@Data
+public class TopicCursor {
+
+    // 排序方式常量
+    public static final String ORDER_DEFAULT = "default";
+    public static final String ORDER_VIEWS = "views";
+    public static final String ORDER_LIKES = "likes";
+    public static final String ORDER_COMMENTS = "comments";
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * 排序方式：default(置顶+时间), views, likes, comments
+     */
+    private String orderBy;
+
+    /**
+     * 是否置顶（默认排序使用）
+     */
+    private Boolean isPinned;
+
+    /**
+     * 创建时间（默认排序使用）
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * 计数排序的值（浏览量/点赞数/评论数）
+     */
+    private Integer sortValue;
+
+    /**
+     * 话题ID，作为排序的最后一个字段保证唯一
+     */
+    private Long id;
+
+    /**
+     * 规范化排序方式，未知的排序方式按默认排序处理
+     */
+    public static String normalizeOrderBy(String orderBy) {
+        if (ORDER_VIEWS.equals(orderBy) || ORDER_LIKES.equals(orderBy) || ORDER_COMMENTS.equals(orderBy)) {
+            return orderBy;
+        }
+        return ORDER_DEFAULT;
+    }
+
+    /**
+     * 根据本页最后一条话题生成下一页游标
+     */
+    public static TopicCursor of(Topic last, String orderBy) {
+        TopicCursor cursor = new TopicCursor();
+        cursor.setOrderBy(normalizeOrderBy(orderBy));
+        cursor.setId(last.getId());
+        switch (cursor.getOrderBy()) {
+            case ORDER_VIEWS:
+                cursor.setSortValue(nullToZero(last.getViews()));
+                break;
+            case ORDER_LIKES:
+                cursor.setSortValue(nullToZero(last.getLikes()));
+                break;
+            case ORDER_COMMENTS:
+                cursor.setSortValue(nullToZero(last.getComments()));
+                break;
+            default:
+                cursor.setIsPinned(Boolean.TRUE.equals(last.getIsPinned()));
+                cursor.setCreatedAt(last.getCreatedAt());
+                break;
+        }
+        return cursor;
+    }
+
+    /**
+     * 编码为URL安全的字符串
+     */
+    public String encode() {
+        String raw = orderBy + SEPARATOR
+                + (isPinned == null ? "" : (isPinned ? "1" : "0")) + SEPARATOR
+                + (createdAt == null ? "" : createdAt.toString()) + SEPARATOR
+                + (sortValue == null ? "" : sortValue.toString()) + SEPARATOR
+                + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标字符串
+     *
+     * @param value   游标字符串，为空表示第一页
+     * @param orderBy 当前请求的排序方式，必须与游标生成时一致
+     * @return 游标对象，第一页返回null
+     */
+    public static TopicCursor decode(String value, String orderBy) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 5 || !parts[0].equals(normalizeOrderBy(orderBy))) {
+                throw new BusinessException(ResultCode.PARAM_ERROR, "无效的分页游标");
+            }
+            TopicCursor cursor = new TopicCursor();
+            cursor.setOrderBy(parts[0]);
+            cursor.setIsPinned(parts[1].isEmpty() ? null : "1".equals(parts[1]));
+            cursor.setCreatedAt(parts[2].isEmpty() ? null : LocalDateTime.parse(parts[2]));
+            cursor.setSortValue(parts[3].isEmpty() ? null : Integer.valueOf(parts[3]));
+            cursor.setId(Long.valueOf(parts[4]));
+            if (ORDER_DEFAULT.equals(cursor.getOrderBy())
+                    ? cursor.getIsPinned() == null || cursor.getCreatedAt() == null
+                    : cursor.getSortValue() == null) {
+                throw new BusinessException(ResultCode.PARAM_ERROR, "无效的分页游标");
+            }
+            return cursor;
+        } catch (BusinessException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new BusinessException(ResultCode.PARAM_ERROR, "无效的分页游标");
+        }
+    }
+
+    private static int nullToZero(Integer value) {
+        return value == null ? 0 : value;
+    }
+}
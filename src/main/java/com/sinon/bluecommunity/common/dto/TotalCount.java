@@ -0,0 +1,31 @@
+package com.sinon.bluecommunity.common.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 分页总数
+ * 总数可能来自缓存或表统计信息的估算值，approximate 为 true 时只能用于展示
+ */
+@Data
+@AllArgsConstructor
+public class TotalCount {
+
+    /**
+     * 总记录数
+     */
+    private long total;
+
+    /**
+     * 是否为估算值
+     */
+    private boolean approximate;
+
+    public static TotalCount exact(long total) {
+        return new TotalCount(total, false);
+    }
+
+    public static TotalCount approximate(long total) {
+        return new TotalCount(total, true);
+    }
+}
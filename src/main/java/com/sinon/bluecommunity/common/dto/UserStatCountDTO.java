@@ -0,0 +1,24 @@
+package com.sinon.bluecommunity.common.dto;
+
+import lombok.Data;
+
+/**
+ * 用户计数统计行DTO
+ */
+@Data
+public class UserStatCountDTO {
+    /**
+     * 计数类型（topic、activity、comment、like）
+     */
+    private String type;
+
+    /**
+     * 状态，不区分状态的计数为null
+     */
+    private Integer status;
+
+    /**
+     * 数量
+     */
+    private Long count;
+}
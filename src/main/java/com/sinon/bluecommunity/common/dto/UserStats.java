@@ -0,0 +1,68 @@
+package com.sinon.bluecommunity.common.dto;
+
+import lombok.Data;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 用户计数快照
+ * 话题和活动按状态分别计数，各种口径的统计都由这些计数相加得到
+ */
+@Data
+public class UserStats {
+    /**
+     * 话题状态 -> 数量
+     */
+    private Map<Integer, Long> topicCounts = new HashMap<>();
+
+    /**
+     * 活动状态 -> 数量
+     */
+    private Map<Integer, Long> activityCounts = new HashMap<>();
+
+    /**
+     * 评论数
+     */
+    private long commentCount;
+
+    /**
+     * 点赞数
+     */
+    private long likeCount;
+
+    /**
+     * 话题数，status为null时统计全部状态
+     */
+    public long topicCount(Integer status) {
+        return count(topicCounts, status);
+    }
+
+    /**
+     * 排除指定状态后的话题数
+     */
+    public long topicCountExcluding(int status) {
+        return count(topicCounts, null) - count(topicCounts, status);
+    }
+
+    /**
+     * 活动数，status为null时统计全部状态
+     */
+    public long activityCount(Integer status) {
+        return count(activityCounts, status);
+    }
+
+    /**
+     * 排除指定状态后的活动数
+     */
+    public long activityCountExcluding(int status) {
+        return count(activityCounts, null) - count(activityCounts, status);
+    }
+
+    private static long count(Map<Integer, Long> counts, Integer status) {
+        if (status == null) {
+            return counts.values().stream().mapToLong(Long::longValue).sum();
+        }
+        return counts.getOrDefault(status, 0L);
+    }
+}
@@ -48,6 +48,11 @@ public class Category {
      */
     private String iconUrl;
 
+    /**
+     * 正常状态的话题数（非数据库字段）
+     */
+    private Integer topicCount;
+
     // 状态常量
     public static final int STATUS_DISABLED = 0;
     public static final int STATUS_NORMAL = 1;
@@ -73,6 +73,16 @@ public class Comment {
      */
     private String replyNickname;
 
+    /**
+     * 点赞数
+     */
+    private Integer likeCount;
+
+    /**
+     * 当前用户是否已点赞
+     */
+    private Boolean liked;
+
     /**
      * 创建时间
      */
@@ -43,8 +43,10 @@ public class Tag {
      */
     private LocalDateTime updatedAt;
 
-
-
+    /**
+     * 关联对象ID（非数据库字段，批量查询标签时用于分组）
+     */
+    private Long targetId;
 
     // 状态常量
     public static final int STATUS_DISABLED = 0;
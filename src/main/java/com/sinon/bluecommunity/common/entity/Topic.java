@@ -37,6 +37,11 @@ public class Topic {
     @NotBlank(message = "内容不能为空")
     private String content;
 
+    /**
+     * 正文摘要（纯文本，写入时由正文生成）
+     */
+    private String excerpt;
+
     /**
      * 封面图片URL
      */
@@ -73,6 +78,11 @@ public class Topic {
      */
     private Integer status;
 
+    /**
+     * 发布时间（首次变为正常状态的时间，草稿为null）
+     */
+    private LocalDateTime publishedAt;
+
     /**
      * 创建时间
      */
@@ -64,4 +64,25 @@ public class HtmlUtils {
         }
         return Jsoup.parse(html).text();
     }
+
+    /**
+     * 生成纯文本摘要
+     * 去掉HTML标签并合并空白，超出长度的部分截断并追加省略号
+     *
+     * @param html HTML内容
+     * @param maxLength 摘要最大字符数
+     * @return 摘要，内容为空时返回 null
+     */
+    public static String excerpt(String html, int maxLength) {
+        String text = htmlToText(html);
+        if (StringUtils.isBlank(text)) {
+            return null;
+        }
+        text = text.replaceAll("\\s+", " ").trim();
+        if (text.codePointCount(0, text.length()) <= maxLength) {
+            return text;
+        }
+        // 按码点截断，避免切开代理对
+        return text.substring(0, text.offsetByCodePoints(0, maxLength)) + "…";
+    }
 }
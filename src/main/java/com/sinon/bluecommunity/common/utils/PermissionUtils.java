@@ -0,0 +1,54 @@
+package com.sinon.bluecommunity.common.utils;
+
+import com.sinon.bluecommunity.common.exception.BusinessException;
+import org.springframework.util.CollectionUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 批量权限校验工具类
+ */
+public class PermissionUtils {
+
+    /**
+     * 每次IN查询的最大ID数
+     */
+    private static final int BATCH_SIZE = 500;
+
+    private PermissionUtils() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * 校验所有对象都属于当前用户，按批次查询而不是逐个查询
+     * @param ids 对象ID列表，重复和空值会被忽略
+     * @param ownedIdLoader 查询其中属于当前用户的ID，例如 SELECT id FROM ... WHERE id IN (...) AND user_id = ?
+     * @param message 校验失败时的提示，后面会附上无权限的ID
+     */
+    public static void requireOwned(Collection<Long> ids, Function<List<Long>, Collection<Long>> ownedIdLoader,
+                                    String message) {
+        if (CollectionUtils.isEmpty(ids)) {
+            return;
+        }
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        distinctIds.removeIf(Objects::isNull);
+
+        Set<Long> owned = new HashSet<>();
+        for (int from = 0; from < distinctIds.size(); from += BATCH_SIZE) {
+            List<Long> batch = distinctIds.subList(from, Math.min(from + BATCH_SIZE, distinctIds.size()));
+            owned.addAll(ownedIdLoader.apply(batch));
+        }
+
+        List<Long> denied = distinctIds.stream().filter(id -> !owned.contains(id)).toList();
+        if (!denied.isEmpty()) {
+            throw new BusinessException(message + ": " + denied);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.sinon.bluecommunity.common.utils;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis分布式锁工具类
+ * 加锁时写入随机令牌，释放时比对令牌后再删除：持有者执行超过锁的过期时间、锁已被其他节点获取时，
+ * 不会误删别人的锁
+ */
+public class RedisLockUtils {
+
+    /**
+     * 令牌一致时删除锁
+     * KEYS: 锁；ARGV: 令牌
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end " +
+            "return 0", Long.class);
+
+    private RedisLockUtils() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * 尝试加锁
+     * @param redisTemplate Redis操作模板
+     * @param key 锁
+     * @param timeout 锁的过期时间
+     * @param unit 时间单位
+     * @return 加锁成功返回令牌，用于释放锁；锁已被持有时返回null
+     */
+    public static String tryLock(StringRedisTemplate redisTemplate, String key, long timeout, TimeUnit unit) {
+        String token = UUID.randomUUID().toString();
+        Boolean locked = redisTemplate.opsForValue().setIfAbsent(key, token, timeout, unit);
+        return Boolean.TRUE.equals(locked) ? token : null;
+    }
+
+    /**
+     * 释放锁，锁已过期或已被其他持有者获取时不做任何操作
+     * @param redisTemplate Redis操作模板
+     * @param key 锁
+     * @param token 加锁时返回的令牌
+     */
+    public static void unlock(StringRedisTemplate redisTemplate, String key, String token) {
+        if (token == null) {
+            return;
+        }
+        redisTemplate.execute(RELEASE_SCRIPT, Collections.singletonList(key), token);
+    }
+}
@@ -60,11 +60,31 @@ public class CommentVO {
      */
     private LocalDateTime updatedAt;
 
+    /**
+     * 点赞数
+     */
+    private Integer likeCount;
+
+    /**
+     * 当前用户是否已点赞
+     */
+    private Boolean liked;
+
     /**
      * 二级回复列表
      */
     private List<Comment> replies;
 
+    /**
+     * 二级回复总数
+     */
+    private Long replyCount;
+
+    /**
+     * 加载更多回复的游标，回复已全部返回时为null；没有回复预览时为空串，从第一条回复开始加载
+     */
+    private String nextReplyCursor;
+
     /**
      * 从 Comment 实体转换为 VO
      */
@@ -84,6 +104,8 @@ public class CommentVO {
         vo.setAvatarUrl(comment.getAvatarUrl());
         vo.setCreatedAt(comment.getCreatedAt());
         vo.setUpdatedAt(comment.getUpdatedAt());
+        vo.setLikeCount(comment.getLikeCount());
+        vo.setLiked(comment.getLiked());
         return vo;
     }
 }
@@ -0,0 +1,33 @@
+package com.sinon.bluecommunity.common.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 点赞状态展示对象
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LikeStatusVO {
+    /**
+     * 目标类型
+     */
+    private String targetType;
+
+    /**
+     * 目标ID
+     */
+    private Long targetId;
+
+    /**
+     * 当前用户是否已点赞
+     */
+    private Boolean liked;
+
+    /**
+     * 点赞数
+     */
+    private Integer count;
+}
@@ -1,5 +1,6 @@
 package com.sinon.bluecommunity.common.vo;
 
+import com.sinon.bluecommunity.common.dto.TotalCount;
 import lombok.Data;
 import java.util.List;
 
@@ -44,6 +45,11 @@ public class PageResult<T> {
      */
     private boolean isLast;
     
+    /**
+     * 总记录数是否为估算值
+     */
+    private boolean approximate;
+    
     public PageResult(List<T> list, int page, int size, long total) {
         this.list = list;
         this.page = page;
@@ -53,4 +59,9 @@ public class PageResult<T> {
         this.isFirst = page <= 1;
         this.isLast = page >= totalPages;
     }
+    
+    public PageResult(List<T> list, int page, int size, TotalCount total) {
+        this(list, page, size, total.getTotal());
+        this.approximate = total.isApproximate();
+    }
 }
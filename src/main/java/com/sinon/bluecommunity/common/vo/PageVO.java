@@ -1,5 +1,6 @@
 package com.sinon.bluecommunity.common.vo;
 
+import com.sinon.bluecommunity.common.dto.TotalCount;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -30,6 +31,16 @@ public class PageVO<T> {
      */
     private Boolean hasMore;
     
+    /**
+     * 下一页游标（游标分页模式下返回，没有更多数据时为null）
+     */
+    private String nextCursor;
+    
+    /**
+     * 总记录数是否为估算值（为null或false表示精确值）
+     */
+    private Boolean approximate;
+    
     public PageVO(List<T> records, Long total) {
         this.records = records;
         this.total = total;
@@ -44,4 +55,28 @@ public class PageVO<T> {
     public void setHasMore(int pageSize, int currentPage) {
         this.hasMore = (long) pageSize * currentPage < total;
     }
+    
+    /**
+     * 根据分页总数创建分页结果
+     * @param records 数据列表
+     * @param total 总数（可能为估算值）
+     */
+    public static <T> PageVO<T> of(List<T> records, TotalCount total) {
+        PageVO<T> pageVO = new PageVO<>(records, total.getTotal());
+        pageVO.setApproximate(total.isApproximate());
+        return pageVO;
+    }
+    
+    /**
+     * 创建游标分页结果
+     * 游标分页不统计总数，total 为 null
+     * @param records 数据列表
+     * @param nextCursor 下一页游标，为null表示没有更多数据
+     */
+    public static <T> PageVO<T> ofCursor(List<T> records, String nextCursor) {
+        PageVO<T> pageVO = new PageVO<>(records, null);
+        pageVO.setHasMore(nextCursor != null);
+        pageVO.setNextCursor(nextCursor);
+        return pageVO;
+    }
 }
@@ -0,0 +1,91 @@
+package com.sinon.bluecommunity.common.vo;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 话题摘要展示对象
+ * 用于列表页，只包含纯文本摘要，不包含话题正文
+ */
+@Data
+@NoArgsConstructor
+public class TopicSummaryVO {
+
+    /**
+     * 话题ID
+     */
+    private Long id;
+
+    /**
+     * 作者ID
+     */
+    private Long userId;
+
+    /**
+     * 作者名片
+     */
+    private UserCardVO author;
+
+    /**
+     * 标题
+     */
+    private String title;
+
+    /**
+     * 正文摘要（纯文本）
+     */
+    private String excerpt;
+
+    /**
+     * 封面图片URL
+     */
+    private String coverUrl;
+
+    /**
+     * 分类ID
+     */
+    private Long categoryId;
+
+    /**
+     * 浏览量
+     */
+    private Integer views;
+
+    /**
+     * 点赞数
+     */
+    private Integer likes;
+
+    /**
+     * 评论数
+     */
+    private Integer comments;
+
+    /**
+     * 是否置顶
+     */
+    private Boolean isPinned;
+
+    /**
+     * 状态(0:草稿,1:正常,2:已删除)
+     */
+    private Integer status;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updatedAt;
+
+    /**
+     * 标签列表
+     */
+    private List<TagVO> tags;
+}
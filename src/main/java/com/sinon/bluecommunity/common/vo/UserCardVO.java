@@ -0,0 +1,30 @@
+package com.sinon.bluecommunity.common.vo;
+
+import lombok.Data;
+
+/**
+ * 作者名片展示对象
+ * 列表页只展示头像和昵称，不返回完整的用户信息
+ */
+@Data
+public class UserCardVO {
+    /**
+     * 用户ID
+     */
+    private Long id;
+
+    /**
+     * 用户名
+     */
+    private String username;
+
+    /**
+     * 昵称
+     */
+    private String nickname;
+
+    /**
+     * 头像URL
+     */
+    private String avatarUrl;
+}
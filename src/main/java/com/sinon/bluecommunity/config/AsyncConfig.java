@@ -0,0 +1,52 @@
+package com.sinon.bluecommunity.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    /**
+     * 详情页并行查询使用的线程池
+     * 有界队列，队列满时由调用线程自己执行，退化为串行查询而不是拒绝请求
+     */
+    @Bean
+    public ThreadPoolTaskExecutor detailQueryExecutor(
+            @Value("${bluecommunity.detail-executor.core-size:8}") int coreSize,
+            @Value("${bluecommunity.detail-executor.max-size:16}") int maxSize,
+            @Value("${bluecommunity.detail-executor.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("detail-query-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 关注流写扩散使用的线程池
+     * 发帖请求只提交任务，推送到粉丝收件箱在后台完成；队列满时由调用线程执行，不丢推送
+     */
+    @Bean
+    public ThreadPoolTaskExecutor feedFanoutExecutor(
+            @Value("${bluecommunity.feed.fanout-core-size:2}") int coreSize,
+            @Value("${bluecommunity.feed.fanout-max-size:4}") int maxSize,
+            @Value("${bluecommunity.feed.fanout-queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("feed-fanout-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,5 +1,6 @@
 package com.sinon.bluecommunity.config;
 
+import com.sinon.bluecommunity.config.interceptors.ConditionalGetInterceptor;
 import com.sinon.bluecommunity.config.interceptors.LoginInterceptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
@@ -12,6 +13,9 @@ public class WebConfig implements WebMvcConfigurer {
     @Autowired
     private LoginInterceptor loginInterceptor;
 
+    @Autowired
+    private ConditionalGetInterceptor conditionalGetInterceptor;
+
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(loginInterceptor)
@@ -33,5 +37,13 @@ public class WebConfig implements WebMvcConfigurer {
                         "/swagger-ui/**",  // 放行swagger
                         "/v3/api-docs/**"  // 放行swagger配置
                 );
+        // 在登录校验之后注册，需要登录的接口不会绕过校验直接返回 304
+        registry.addInterceptor(conditionalGetInterceptor)
+                .addPathPatterns(
+                        "/api/topics/hot",
+                        "/api/topics/list",
+                        "/api/topics/detail",
+                        "/api/categories/list"
+                );
     }
 }
@@ -0,0 +1,170 @@
+package com.sinon.bluecommunity.config.interceptors;
+
+import com.sinon.bluecommunity.user.service.ContentVersionService;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 条件GET拦截器 - 为高频轮询的只读接口提供 ETag 和 Cache-Control
+ * ETag 由内容版本号计算，在调用服务之前就能判断 If-None-Match 并直接返回 304；
+ * 浏览量、点赞数等计数频繁变化，不逐次递增版本号，而是在 ETag 中加入时间窗口，计数最多滞后一个窗口
+ */
+@Component
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    /**
+     * 请求属性：本次响应的 ETag，由 {@link ConditionalGetResponseAdvice} 在成功响应时写入响应头
+     */
+    public static final String ETAG_ATTRIBUTE = ConditionalGetInterceptor.class.getName() + ".etag";
+
+    /**
+     * 请求属性：本次响应的 Cache-Control
+     */
+    public static final String CACHE_CONTROL_ATTRIBUTE = ConditionalGetInterceptor.class.getName() + ".cacheControl";
+
+    @Autowired
+    private ContentVersionService contentVersionService;
+
+    @Value("${bluecommunity.etag.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 计数类字段的时间窗口（秒）
+     */
+    @Value("${bluecommunity.etag.counter-window-seconds:30}")
+    private long counterWindowSeconds;
+
+    /**
+     * 热门话题的缓存时间（秒）
+     */
+    @Value("${bluecommunity.etag.hot-max-age-seconds:30}")
+    private long hotMaxAgeSeconds;
+
+    /**
+     * 分类列表的缓存时间（秒）
+     */
+    @Value("${bluecommunity.etag.category-max-age-seconds:300}")
+    private long categoryMaxAgeSeconds;
+
+    /**
+     * 接口路径 -> 缓存策略
+     */
+    private Map<String, Policy> policies;
+
+    /**
+     * 缓存策略
+     * @param scopes 从请求中解析版本范围，无法解析时返回 null，不做条件判断
+     * @param counterWindow 是否在 ETag 中加入计数时间窗口
+     * @param cacheControl Cache-Control 响应头
+     */
+    private record Policy(Function<HttpServletRequest, List<String>> scopes, boolean counterWindow,
+                          String cacheControl) {
+    }
+
+    @PostConstruct
+    public void init() {
+        policies = Map.of(
+                // 热门话题：允许客户端和代理缓存一小段时间
+                "/api/topics/hot", new Policy(request -> List.of(ContentVersionService.SCOPE_TOPICS), true,
+                        CacheControl.maxAge(hotMaxAgeSeconds, TimeUnit.SECONDS).cachePublic().getHeaderValue()),
+                // 话题列表：新话题要尽快出现，每次都要验证
+                "/api/topics/list", new Policy(request -> List.of(ContentVersionService.SCOPE_TOPICS), true,
+                        CacheControl.noCache().cachePublic().getHeaderValue()),
+                // 分类列表：不含计数，只随分类变更
+                "/api/categories/list", new Policy(request -> List.of(ContentVersionService.SCOPE_CATEGORIES), false,
+                        CacheControl.maxAge(categoryMaxAgeSeconds, TimeUnit.SECONDS).cachePublic().getHeaderValue()),
+                // 话题详情：需要登录，只允许客户端缓存，每次都要验证
+                "/api/topics/detail", new Policy(this::topicDetailScopes, true,
+                        CacheControl.noCache().cachePrivate().getHeaderValue())
+        );
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!enabled || !"GET".equals(request.getMethod())) {
+            return true;
+        }
+        Policy policy = policies.get(request.getRequestURI().substring(request.getContextPath().length()));
+        if (policy == null) {
+            return true;
+        }
+        List<String> scopes = policy.scopes().apply(request);
+        if (scopes == null) {
+            return true;
+        }
+        // 先读版本号再执行查询，查询期间的写操作只会让 ETag 比内容旧，下次请求会重新获取
+        List<Long> versions = contentVersionService.getVersions(scopes);
+        if (versions == null) {
+            return true;
+        }
+
+        String etag = buildETag(versions, policy.counterWindow());
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, policy.cacheControl());
+            return false;
+        }
+        request.setAttribute(ETAG_ATTRIBUTE, etag);
+        request.setAttribute(CACHE_CONTROL_ATTRIBUTE, policy.cacheControl());
+        return true;
+    }
+
+    private List<String> topicDetailScopes(HttpServletRequest request) {
+        try {
+            return List.of(ContentVersionService.topicScope(Long.valueOf(request.getParameter("topicId"))));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 生成弱 ETag：各范围的版本号，加上计数时间窗口的序号
+     */
+    private String buildETag(List<Long> versions, boolean counterWindow) {
+        StringBuilder tag = new StringBuilder("W/\"");
+        for (int i = 0; i < versions.size(); i++) {
+            if (i > 0) {
+                tag.append('.');
+            }
+            tag.append(versions.get(i));
+        }
+        if (counterWindow && counterWindowSeconds > 0) {
+            tag.append('-').append(System.currentTimeMillis() / 1000 / counterWindowSeconds);
+        }
+        return tag.append('"').toString();
+    }
+
+    /**
+     * 按弱比较判断 If-None-Match 是否命中
+     */
+    private boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        String opaque = stripWeak(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if ("*".equals(candidate) || opaque.equals(stripWeak(candidate))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
@@ -0,0 +1,42 @@
+package com.sinon.bluecommunity.config.interceptors;
+
+import com.sinon.bluecommunity.common.vo.Result;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * 为条件GET接口的成功响应写入 ETag 和 Cache-Control
+ * 失败响应（业务异常等）不带 ETag，避免客户端把错误结果当作有效缓存
+ */
+@RestControllerAdvice
+public class ConditionalGetResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)
+                || !(body instanceof Result<?> result) || result.getCode() != 200) {
+            return body;
+        }
+        Object etag = servletRequest.getServletRequest().getAttribute(ConditionalGetInterceptor.ETAG_ATTRIBUTE);
+        if (etag != null) {
+            response.getHeaders().set(HttpHeaders.ETAG, etag.toString());
+            response.getHeaders().set(HttpHeaders.CACHE_CONTROL, servletRequest.getServletRequest()
+                    .getAttribute(ConditionalGetInterceptor.CACHE_CONTROL_ATTRIBUTE).toString());
+        }
+        return body;
+    }
+}
@@ -0,0 +1,226 @@
+package com.sinon.bluecommunity.user.assembler;
+
+import com.sinon.bluecommunity.common.entity.Like;
+import com.sinon.bluecommunity.common.entity.Tag;
+import com.sinon.bluecommunity.common.entity.Topic;
+import com.sinon.bluecommunity.common.entity.User;
+import com.sinon.bluecommunity.common.vo.TagVO;
+import com.sinon.bluecommunity.common.vo.TopicSummaryVO;
+import com.sinon.bluecommunity.common.vo.TopicVO;
+import com.sinon.bluecommunity.common.vo.UserCardVO;
+import com.sinon.bluecommunity.user.mapper.TagMapper;
+import com.sinon.bluecommunity.user.mapper.UserMapper;
+import com.sinon.bluecommunity.user.service.LikeService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.CollectionUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 话题VO组装器
+ * 批量加载作者、标签和点赞数，避免列表页逐条查询数据库；列表页只组装摘要和作者名片
+ */
+@Slf4j
+@Component
+public class TopicAssembler {
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private TagMapper tagMapper;
+
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    @Qualifier("detailQueryExecutor")
+    private ThreadPoolTaskExecutor detailQueryExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 详情查询各分支耗时的指标名，用 branch 标签区分
+     */
+    public static final String DETAIL_TIMER = "topic.detail.branch";
+
+    /**
+     * 组装话题详情
+     * 作者和标签在线程池中并行查询，耗时取两者中较长的一个而不是相加；
+     * 作者不存在时 author 为 null，由调用方决定如何处理
+     */
+    public TopicVO toDetailVO(Topic topic) {
+        if (topic == null) {
+            return null;
+        }
+        CompletableFuture<User> authorFuture = topic.getUserId() == null
+                ? CompletableFuture.completedFuture(null)
+                : CompletableFuture.supplyAsync(
+                        () -> timed("author", () -> userMapper.selectById(topic.getUserId())), detailQueryExecutor);
+        CompletableFuture<List<Tag>> tagsFuture = CompletableFuture.supplyAsync(
+                () -> timed("tags", () -> tagMapper.selectByTopicId(topic.getId())), detailQueryExecutor);
+
+        try {
+            TopicVO vo = copy(topic);
+            vo.setAuthor(authorFuture.join());
+            vo.setTags(toTagVOs(tagsFuture.join()));
+            return vo;
+        } catch (CompletionException e) {
+            // 抛出原始异常，保持与串行查询一致
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 记录一个查询分支的耗时
+     * @param branch 分支名称，作为指标的 branch 标签
+     * @param query 查询
+     */
+    public <T> T timed(String branch, Supplier<T> query) {
+        Timer timer = Timer.builder(DETAIL_TIMER)
+                .description("话题详情各查询分支的耗时")
+                .tag("branch", branch)
+                .register(meterRegistry);
+        return timer.record(query);
+    }
+
+    /**
+     * 批量组装话题摘要列表
+     * 作者名片和标签各用一条SQL查询，点赞数批量从Redis读取，结果保持传入顺序
+     */
+    public List<TopicSummaryVO> toSummaryList(List<Topic> topics) {
+        if (CollectionUtils.isEmpty(topics)) {
+            return new ArrayList<>();
+        }
+
+        List<Long> topicIds = topics.stream()
+            .map(Topic::getId)
+            .distinct()
+            .collect(Collectors.toList());
+        List<Long> userIds = topics.stream()
+            .map(Topic::getUserId)
+            .distinct()
+            .collect(Collectors.toList());
+
+        Map<Long, UserCardVO> authorMap = loadAuthorCards(userIds);
+        Map<Long, List<TagVO>> tagMap = loadTags(topicIds);
+        Map<Long, Integer> likeMap = loadLikeCounts(topicIds);
+
+        return topics.stream().map(topic -> {
+            TopicSummaryVO vo = new TopicSummaryVO();
+            BeanUtils.copyProperties(topic, vo);
+            UserCardVO author = authorMap.get(topic.getUserId());
+            vo.setAuthor(author != null ? author : unknownAuthor(topic.getUserId()));
+            vo.setTags(tagMap.getOrDefault(topic.getId(), new ArrayList<>()));
+            vo.setLikes(likeMap.getOrDefault(topic.getId(), topic.getLikes()));
+            return vo;
+        }).collect(Collectors.toList());
+    }
+
+    /**
+     * 批量查询作者名片
+     * 查询失败只记录日志，不影响整个列表的返回
+     */
+    private Map<Long, UserCardVO> loadAuthorCards(List<Long> userIds) {
+        if (CollectionUtils.isEmpty(userIds)) {
+            return Collections.emptyMap();
+        }
+        try {
+            List<UserCardVO> cards = userMapper.selectCardsByIds(userIds);
+            if (CollectionUtils.isEmpty(cards)) {
+                return Collections.emptyMap();
+            }
+            return cards.stream()
+                .collect(Collectors.toMap(
+                    UserCardVO::getId,
+                    card -> card,
+                    (existing, replacement) -> existing,  // 如果有重复的key，保留第一个
+                    HashMap::new
+                ));
+        } catch (Exception e) {
+            log.error("批量查询作者信息失败", e);
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * 批量读取点赞数，比话题表中异步落库的点赞数更新
+     * 读取失败时使用话题表中的点赞数
+     */
+    private Map<Long, Integer> loadLikeCounts(List<Long> topicIds) {
+        try {
+            return likeService.getLikeCounts(topicIds, Like.TARGET_TYPE_TOPIC);
+        } catch (Exception e) {
+            log.error("批量读取点赞数失败", e);
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * 批量查询标签，并按话题ID分组
+     */
+    private Map<Long, List<TagVO>> loadTags(List<Long> topicIds) {
+        if (CollectionUtils.isEmpty(topicIds)) {
+            return Collections.emptyMap();
+        }
+        List<Tag> tags = tagMapper.selectByTopicIds(topicIds);
+        if (CollectionUtils.isEmpty(tags)) {
+            return Collections.emptyMap();
+        }
+        return tags.stream()
+            .collect(Collectors.groupingBy(
+                Tag::getTargetId,
+                HashMap::new,
+                Collectors.mapping(this::toTagVO, Collectors.toList())
+            ));
+    }
+
+    private TopicVO copy(Topic topic) {
+        TopicVO vo = new TopicVO();
+        BeanUtils.copyProperties(topic, vo);
+        return vo;
+    }
+
+    private List<TagVO> toTagVOs(List<Tag> tags) {
+        if (CollectionUtils.isEmpty(tags)) {
+            return new ArrayList<>();
+        }
+        return tags.stream().map(this::toTagVO).collect(Collectors.toList());
+    }
+
+    private TagVO toTagVO(Tag tag) {
+        TagVO tagVO = new TagVO();
+        BeanUtils.copyProperties(tag, tagVO);
+        return tagVO;
+    }
+
+    /**
+     * 作者信息缺失时的占位名片
+     */
+    private UserCardVO unknownAuthor(Long userId) {
+        UserCardVO unknownAuthor = new UserCardVO();
+        unknownAuthor.setId(userId);
+        unknownAuthor.setUsername("unknown");
+        unknownAuthor.setNickname("未知用户");
+        return unknownAuthor;
+    }
+}
@@ -254,13 +254,17 @@ public class ActivityController {
     @Operation(summary = "点赞活动")
     @PostMapping("/like")
     public Result<Boolean> likeActivity(@RequestParam Long id) {
-        return Result.success(activityService.likeActivity(id));
+        Map<String, Object> claims = ThreadLocalUtil.get();
+        Long userId = Long.valueOf(claims.get("userId").toString());
+        return Result.success(activityService.likeActivity(id, userId));
     }
 
     @Operation(summary = "取消点赞活动")
     @PostMapping("/unlike")
     public Result<Boolean> unlikeActivity(@RequestParam Long id) {
-        return Result.success(activityService.unlikeActivity(id));
+        Map<String, Object> claims = ThreadLocalUtil.get();
+        Long userId = Long.valueOf(claims.get("userId").toString());
+        return Result.success(activityService.unlikeActivity(id, userId));
     }
 
     @Operation(summary = "检查用户是否已参与活动")
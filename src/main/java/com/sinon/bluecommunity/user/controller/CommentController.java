@@ -3,6 +3,7 @@ package com.sinon.bluecommunity.user.controller;
 import com.sinon.bluecommunity.common.entity.Comment;
 import com.sinon.bluecommunity.common.utils.ThreadLocalUtil;
 import com.sinon.bluecommunity.common.vo.CommentVO;
+import com.sinon.bluecommunity.common.vo.PageVO;
 import com.sinon.bluecommunity.common.vo.Result;
 import com.sinon.bluecommunity.user.service.CommentService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -92,6 +93,27 @@ public class CommentController {
         return Result.success(comments);
     }
 
+    /**
+     * 游标分页获取评论列表（包含回复），按时间倒序
+     * @param targetId 目标ID
+     * @param targetType 目标类型
+     * @param cursor 游标，第一页传空
+     * @param size 每页大小，默认10，最大50
+     * @return 评论列表（包含回复）和下一页游标
+     */
+    @GetMapping("/list/cursor")
+    public Result<PageVO<CommentVO>> getCommentListByCursor(
+            @RequestParam Long targetId,
+            @RequestParam String targetType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "10") Integer size) {
+        Map<String, Object> claims = ThreadLocalUtil.get();
+        Long userId = claims != null ? Long.valueOf(claims.get("userId").toString()) : null;
+
+        PageVO<CommentVO> comments = commentService.getCommentListByCursor(targetId, targetType, userId, cursor, size);
+        return Result.success(comments);
+    }
+
     /**
      * 删除评论
      */
@@ -132,6 +154,23 @@ public class CommentController {
         return Result.success(comments);
     }
 
+    /**
+     * 游标分页获取用户的评论列表，按时间倒序
+     * @param cursor 游标，第一页传空
+     * @param size 每页大小，默认10，最大50
+     * @return 评论列表和下一页游标
+     */
+    @GetMapping("/user/list/cursor")
+    public Result<PageVO<Comment>> getUserCommentsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "10") Integer size) {
+        Map<String, Object> claims = ThreadLocalUtil.get();
+        Long userId = Long.valueOf(claims.get("userId").toString());
+
+        PageVO<Comment> comments = commentService.getUserCommentsByCursor(userId, cursor, size);
+        return Result.success(comments);
+    }
+
     /**
      * 批量删除评论
      */
@@ -190,4 +229,23 @@ public class CommentController {
         List<Comment> replies = commentService.getReplyList(parentId, page, size, offset);
         return Result.success(replies);
     }
+
+    /**
+     * 游标分页获取二级回复列表（加载更多回复）
+     * @param parentId 父评论ID
+     * @param cursor 游标，第一页传空；从评论列表的 nextReplyCursor 开始可接着已返回的回复继续加载
+     * @param size 每页大小，默认10，最大50
+     * @return 二级回复列表和下一页游标
+     */
+    @GetMapping("/replies/cursor")
+    public Result<PageVO<Comment>> getReplyListByCursor(
+            @RequestParam Long parentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "10") Integer size) {
+        Map<String, Object> claims = ThreadLocalUtil.get();
+        Long userId = claims != null ? Long.valueOf(claims.get("userId").toString()) : null;
+
+        PageVO<Comment> replies = commentService.getReplyListByCursor(parentId, userId, cursor, size);
+        return Result.success(replies);
+    }
 }
@@ -0,0 +1,36 @@
+package com.sinon.bluecommunity.user.controller;
+
+import com.sinon.bluecommunity.common.utils.ThreadLocalUtil;
+import com.sinon.bluecommunity.common.vo.PageVO;
+import com.sinon.bluecommunity.common.vo.Result;
+import com.sinon.bluecommunity.common.vo.TopicSummaryVO;
+import com.sinon.bluecommunity.user.service.FeedService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * 关注流控制器
+ */
+@Tag(name = "关注流", description = "关注的人发布的话题")
+@RestController
+@RequestMapping("/api/feed")
+public class FeedController {
+
+    @Autowired
+    private FeedService feedService;
+
+    @Operation(summary = "获取关注流", description = "游标分页，第一页不传cursor，之后传上一页返回的nextCursor")
+    @GetMapping
+    public Result<PageVO<TopicSummaryVO>> getFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size
+    ) {
+        Map<String, Object> claims = ThreadLocalUtil.get();
+        Long userId = Long.valueOf(claims.get("userId").toString());
+        return Result.success(feedService.getFeed(userId, cursor, size));
+    }
+}
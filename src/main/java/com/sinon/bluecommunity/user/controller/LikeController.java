@@ -1,7 +1,9 @@
 package com.sinon.bluecommunity.user.controller;
 
+import com.sinon.bluecommunity.common.dto.LikeTargetDTO;
 import com.sinon.bluecommunity.common.entity.Like;
 import com.sinon.bluecommunity.common.utils.ThreadLocalUtil;
+import com.sinon.bluecommunity.common.vo.LikeStatusVO;
 import com.sinon.bluecommunity.common.vo.Result;
 import com.sinon.bluecommunity.user.service.LikeService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -50,6 +52,18 @@ public class LikeController {
         return Result.success();
     }
 
+    @Operation(summary = "切换点赞状态")
+    @PostMapping("/toggle")
+    public Result<LikeStatusVO> toggle(
+            @Parameter(description = "目标ID", required = true)
+            @RequestParam Long targetId,
+            @Parameter(description = "目标类型", required = true)
+            @RequestParam String targetType) {
+        Map<String, Object> claims = ThreadLocalUtil.get();
+        Long userId = Long.valueOf(claims.get("userId").toString());
+        return Result.success(likeService.toggle(userId, targetId, targetType));
+    }
+
     @Operation(summary = "检查是否已点赞")
     @GetMapping("/check")
     public Result<Boolean> checkLikeStatus(
@@ -74,6 +88,17 @@ public class LikeController {
         return Result.success(count);
     }
 
+    @Operation(summary = "批量获取点赞状态和点赞数")
+    @PostMapping("/batch")
+    public Result<List<LikeStatusVO>> getLikeStatuses(
+            @Parameter(description = "目标列表(targetType, targetId)，最多200个", required = true)
+            @RequestBody List<LikeTargetDTO> targets) {
+        Map<String, Object> claims = ThreadLocalUtil.get();
+        Long userId = claims != null ? Long.valueOf(claims.get("userId").toString()) : null;
+        List<LikeStatusVO> statuses = likeService.getLikeStatuses(userId, targets);
+        return Result.success(statuses);
+    }
+
     @Operation(summary = "获取用户的点赞列表")
     @GetMapping("/user")
     public Result<List<Like>> getUserLikes(
@@ -5,6 +5,7 @@ import com.sinon.bluecommunity.common.entity.Topic;
 import com.sinon.bluecommunity.common.utils.ThreadLocalUtil;
 import com.sinon.bluecommunity.common.vo.PageVO;
 import com.sinon.bluecommunity.common.vo.Result;
+import com.sinon.bluecommunity.common.vo.TopicSummaryVO;
 import com.sinon.bluecommunity.common.vo.TopicVO;
 import com.sinon.bluecommunity.user.service.TopicService;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -78,17 +79,22 @@ public class TopicController {
 
     /**
      * 分页获取话题列表
+     * 传入 cursor 参数（第一页传空字符串）时使用游标分页，返回 nextCursor 且不统计总数
      */
     @GetMapping("/list")
-    public Result<PageVO<TopicVO>> getTopicList(
+    public Result<PageVO<TopicSummaryVO>> getTopicList(
             @RequestParam(required = false) Long userId,
             @RequestParam(required = false) Long categoryId,
             @RequestParam(required = false) Integer status,
             @RequestParam(required = false) String keyword,
             @RequestParam(required = false) String orderBy,
             @RequestParam(defaultValue = "1") Integer page,
-            @RequestParam(defaultValue = "10") Integer size) {
-        PageVO<TopicVO> topics = topicService.getTopicList(userId, categoryId, status, keyword, orderBy, page, size);
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String cursor) {
+        if (cursor != null) {
+            return Result.success(topicService.getTopicListByCursor(userId, categoryId, status, keyword, orderBy, cursor, size));
+        }
+        PageVO<TopicSummaryVO> topics = topicService.getTopicList(userId, categoryId, status, keyword, orderBy, page, size);
         return Result.success(topics);
     }
 
@@ -167,7 +173,7 @@ public class TopicController {
      * 支持按分类筛选，按时间范围筛选，以及不同的热度计算方式
      */
     @GetMapping("/hot")
-    public Result<PageVO<TopicVO>> getHotTopics(
+    public Result<PageVO<TopicSummaryVO>> getHotTopics(
             @Parameter(description = "分类ID", required = false)
             @RequestParam(required = false) Long categoryId,
             @Parameter(description = "时间范围,最近 n 天", required = false)
@@ -178,7 +184,7 @@ public class TopicController {
             @RequestParam(defaultValue = "1") Integer page,
             @Parameter(description = "每页大小", required = false)
             @RequestParam(defaultValue = "10") Integer size) {
-        PageVO<TopicVO> topics = topicService.getHotTopics(categoryId, days, hotType, page, size);
+        PageVO<TopicSummaryVO> topics = topicService.getHotTopics(categoryId, days, hotType, page, size);
         return Result.success(topics);
     }
 }
@@ -1,5 +1,6 @@
 package com.sinon.bluecommunity.user.mapper;
 
+import com.sinon.bluecommunity.common.dto.LikeTargetDTO;
 import com.sinon.bluecommunity.common.entity.Activity;
 import com.sinon.bluecommunity.common.entity.ActivityParticipant;
 import org.apache.ibatis.annotations.*;
@@ -110,16 +111,30 @@ public interface ActivityMapper {
     int incrementViews(Long id);
 
     /**
-     * 增加点赞数
+     * 批量累加浏览次数（一条多行UPDATE，SQL见XML）
+     * @param deltas 活动ID -> 浏览次数增量
      */
-    @Update("UPDATE activities SET likes = likes + 1 WHERE id = #{id}")
-    int incrementLikes(Long id);
+    int batchIncrementViews(@Param("deltas") Map<Long, Long> deltas);
 
     /**
-     * 减少点赞数
+     * 更新点赞数
+     * @param increment 增量，可以为负数，点赞数不会小于0
      */
-    @Update("UPDATE activities SET likes = likes - 1 WHERE id = #{id} AND likes > 0")
-    int decrementLikes(Long id);
+    @Update("UPDATE activities SET likes = GREATEST(likes + #{increment}, 0) WHERE id = #{id}")
+    int updateLikes(@Param("id") Long id, @Param("increment") Integer increment);
+
+    /**
+     * 按ID顺序分批读取活动的点赞数，用于点赞数校对
+     */
+    @Select("SELECT 'activity' AS target_type, id AS target_id, likes AS count FROM activities WHERE id > #{lastId} ORDER BY id LIMIT #{limit}")
+    List<LikeTargetDTO> selectLikesAfterId(@Param("lastId") long lastId, @Param("limit") int limit);
+
+    /**
+     * 校对时修正点赞数，点赞数已被其他请求修改时不更新
+     * @param expected 读取时的点赞数
+     */
+    @Update("UPDATE activities SET likes = #{likes} WHERE id = #{id} AND likes = #{expected}")
+    int setLikes(@Param("id") Long id, @Param("likes") Integer likes, @Param("expected") Integer expected);
 
     /**
      * 获取用户参与的活动列表
@@ -1,5 +1,6 @@
 package com.sinon.bluecommunity.user.mapper;
 
+import com.sinon.bluecommunity.common.dto.CategoryTopicCountDTO;
 import com.sinon.bluecommunity.common.entity.Category;
 import org.apache.ibatis.annotations.*;
 
@@ -89,4 +90,11 @@ public interface CategoryMapper {
      */
     @Select("SELECT COUNT(*) FROM topics WHERE category_id = #{categoryId} AND status = 1")
     int getTopicCount(Long categoryId);
+
+    /**
+     * 按分类和状态统计话题数，一次扫描得到所有分类的计数
+     */
+    @Select("SELECT category_id, status, COUNT(*) AS count FROM topics " +
+            "WHERE category_id IS NOT NULL GROUP BY category_id, status")
+    List<CategoryTopicCountDTO> countTopicsByCategoryAndStatus();
 }
@@ -1,5 +1,8 @@
 package com.sinon.bluecommunity.user.mapper;
 
+import com.sinon.bluecommunity.common.dto.CommentCursor;
+import com.sinon.bluecommunity.common.dto.CommentReplyCountDTO;
+import com.sinon.bluecommunity.common.dto.LikeTargetDTO;
 import com.sinon.bluecommunity.common.entity.Comment;
 import org.apache.ibatis.annotations.*;
 
@@ -66,6 +69,47 @@ public interface CommentMapper {
                                @Param("size") Integer size,
                                @Param("offset") Integer offset);
 
+    /**
+     * 按游标获取评论列表（动态SQL在XML中实现）
+     * @param targetId 目标ID
+     * @param targetType 目标类型
+     * @param userId 评论用户ID
+     * @param level 评论层级
+     * @param cursor 上一页最后一条评论，为空表示第一页
+     * @param limit 返回条数
+     * @return 评论列表，按时间倒序
+     */
+    List<Comment> selectListByCursor(@Param("targetId") Long targetId,
+                                     @Param("targetType") String targetType,
+                                     @Param("userId") Long userId,
+                                     @Param("level") Integer level,
+                                     @Param("cursor") CommentCursor cursor,
+                                     @Param("limit") int limit);
+
+    /**
+     * 批量获取多条一级评论各自最新的N条回复（动态SQL在XML中实现）
+     * @param parentIds 一级评论ID列表
+     * @param limit 每条一级评论返回的回复数
+     * @return 回复列表，按一级评论分组、组内按时间倒序
+     */
+    List<Comment> selectTopReplies(@Param("parentIds") List<Long> parentIds, @Param("limit") int limit);
+
+    /**
+     * 批量统计一级评论的回复数（动态SQL在XML中实现），没有回复的一级评论不返回
+     */
+    List<CommentReplyCountDTO> countRepliesByParents(@Param("parentIds") List<Long> parentIds);
+
+    /**
+     * 按游标获取回复列表（动态SQL在XML中实现）
+     * @param parentId 一级评论ID
+     * @param cursor 上一页最后一条回复，为空表示第一页
+     * @param limit 返回条数
+     * @return 回复列表，按时间倒序
+     */
+    List<Comment> selectRepliesByCursor(@Param("parentId") Long parentId,
+                                        @Param("cursor") CommentCursor cursor,
+                                        @Param("limit") int limit);
+
     /**
      * 统计评论数量（动态SQL在XML中实现）
      */
@@ -73,6 +117,26 @@ public interface CommentMapper {
                      @Param("targetType") String targetType,
                      @Param("userId") Long userId);
 
+    /**
+     * 更新点赞数
+     * @param increment 增量，可以为负数，点赞数不会小于0
+     */
+    @Update("UPDATE comment SET like_count = GREATEST(like_count + #{increment}, 0) WHERE id = #{id}")
+    int updateLikes(@Param("id") Long id, @Param("increment") Integer increment);
+
+    /**
+     * 按ID顺序分批读取评论的点赞数，用于点赞数校对
+     */
+    @Select("SELECT 'comment' AS target_type, id AS target_id, like_count AS count FROM comment WHERE id > #{lastId} ORDER BY id LIMIT #{limit}")
+    List<LikeTargetDTO> selectLikesAfterId(@Param("lastId") long lastId, @Param("limit") int limit);
+
+    /**
+     * 校对时修正点赞数，点赞数已被其他请求修改时不更新
+     * @param expected 读取时的点赞数
+     */
+    @Update("UPDATE comment SET like_count = #{likes} WHERE id = #{id} AND like_count = #{expected}")
+    int setLikes(@Param("id") Long id, @Param("likes") Integer likes, @Param("expected") Integer expected);
+
     /**
      * 获取用户的评论数量
      */
@@ -96,6 +160,11 @@ public interface CommentMapper {
      */
     int batchDelete(@Param("ids") List<Long> ids);
 
+    /**
+     * 批量获取评论的目标和层级，用于删除后更新缓存（动态SQL在XML中实现）
+     */
+    List<Comment> selectByIds(@Param("ids") List<Long> ids);
+
     /**
      * 检查评论是否存在
      */
@@ -108,6 +177,11 @@ public interface CommentMapper {
     @Select("SELECT COUNT(*) > 0 FROM comment WHERE id = #{commentId} AND user_id = #{userId}")
     boolean isCommentAuthor(@Param("commentId") Long commentId, @Param("userId") Long userId);
 
+    /**
+     * 查询其中属于指定用户的评论ID（动态SQL在XML中实现）
+     */
+    List<Long> selectOwnedIds(@Param("ids") List<Long> ids, @Param("userId") Long userId);
+
     /**
      * 获取最新的N条评论
      */
@@ -3,6 +3,7 @@ package com.sinon.bluecommunity.user.mapper;
 import com.sinon.bluecommunity.common.entity.Follow;
 import org.apache.ibatis.annotations.*;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -118,4 +119,35 @@ public interface FollowMapper {
                                      @Param("userIdB") Long userIdB,
                                      @Param("offset") int offset,
                                      @Param("limit") int limit);
+
+    /**
+     * 按粉丝ID顺序分批获取粉丝ID
+     * @param followeeId 被关注者ID
+     * @param lastFollowerId 上一批最后一个粉丝ID，第一批传0
+     * @param limit 每批数量
+     * @return 粉丝ID列表
+     */
+    @Select("SELECT follower_id FROM follow " +
+            "WHERE followee_id = #{followeeId} AND follower_id > #{lastFollowerId} " +
+            "ORDER BY follower_id LIMIT #{limit}")
+    List<Long> selectFollowerIds(@Param("followeeId") Long followeeId,
+                                 @Param("lastFollowerId") Long lastFollowerId,
+                                 @Param("limit") int limit);
+
+    /**
+     * 获取用户关注的所有用户ID
+     * @param followerId 关注者ID
+     * @return 被关注者ID列表
+     */
+    @Select("SELECT followee_id FROM follow WHERE follower_id = #{followerId}")
+    List<Long> selectFolloweeIds(@Param("followerId") Long followerId);
+
+    /**
+     * 从候选用户中筛选出已关注的用户ID（动态SQL在XML中实现）
+     * @param followerId 关注者ID
+     * @param followeeIds 候选被关注者ID列表
+     * @return 已关注的用户ID列表
+     */
+    List<Long> selectFolloweeIdsIn(@Param("followerId") Long followerId,
+                                   @Param("followeeIds") Collection<Long> followeeIds);
 }
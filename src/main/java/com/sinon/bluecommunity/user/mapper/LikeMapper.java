@@ -1,9 +1,14 @@
 package com.sinon.bluecommunity.user.mapper;
 
+import com.sinon.bluecommunity.common.dto.LikeTargetDTO;
+import com.sinon.bluecommunity.common.entity.Like;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * 点赞数据访问接口
  */
@@ -56,6 +61,14 @@ public interface LikeMapper {
     int countByTarget(@Param("targetId") Long targetId,
                      @Param("targetType") String targetType);
     
+    /**
+     * 批量统计多个目标的点赞数，没有点赞的目标不返回
+     *
+     * @param targets 目标类型 -> 目标ID列表
+     * @return 每个目标的点赞数
+     */
+    List<LikeTargetDTO> countByTargets(@Param("targets") Map<String, List<Long>> targets);
+
     /**
      * 获取用户的点赞数
      *
@@ -71,6 +84,36 @@ public interface LikeMapper {
      */
     @Select("SELECT COUNT(*) FROM likes WHERE user_id = #{userId}")
     Integer countByUserId(@Param("userId") Long userId);
+
+    /**
+     * 获取点赞过目标的用户ID列表
+     */
+    @Select("SELECT user_id FROM likes WHERE target_id = #{targetId} AND target_type = #{targetType}")
+    List<Long> selectUserIdsByTarget(@Param("targetId") Long targetId, @Param("targetType") String targetType);
+    
+    /**
+     * 获取用户点赞过的目标
+     */
+    @Select("SELECT target_id, target_type FROM likes WHERE user_id = #{userId}")
+    List<Like> selectByUser(@Param("userId") Long userId);
+
+    /**
+     * 批量添加同一目标的点赞记录，已存在的记录忽略
+     *
+     * @return 实际新增的行数
+     */
+    int batchInsertIgnore(@Param("targetId") Long targetId,
+                          @Param("targetType") String targetType,
+                          @Param("userIds") List<Long> userIds);
+
+    /**
+     * 批量删除同一目标下指定用户的点赞记录
+     *
+     * @return 实际删除的行数
+     */
+    int deleteByTargetAndUsers(@Param("targetId") Long targetId,
+                               @Param("targetType") String targetType,
+                               @Param("userIds") List<Long> userIds);
     
     /**
      * 批量删除指定目标的点赞记录
@@ -1,10 +1,12 @@
 package com.sinon.bluecommunity.user.mapper;
 
+import com.sinon.bluecommunity.common.dto.LikeTargetDTO;
 import com.sinon.bluecommunity.common.dto.ResourceTypeCountDTO;
 import com.sinon.bluecommunity.common.entity.Resource;
 import org.apache.ibatis.annotations.*;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * 资源数据访问层接口
@@ -50,16 +52,30 @@ public interface ResourceMapper {
     int incrementViews(Long id);
 
     /**
-     * 增加点赞数
+     * 批量累加浏览次数（一条多行UPDATE，SQL见XML）
+     * @param deltas 资源ID -> 浏览次数增量
      */
-    @Update("UPDATE resources SET likes = likes + 1 WHERE id = #{id}")
-    int incrementLikes(Long id);
+    int batchIncrementViews(@Param("deltas") Map<Long, Long> deltas);
 
     /**
-     * 减少点赞数
+     * 更新点赞数
+     * @param increment 增量，可以为负数，点赞数不会小于0
      */
-    @Update("UPDATE resources SET likes = likes - 1 WHERE id = #{id} AND likes > 0")
-    int decrementLikes(Long id);
+    @Update("UPDATE resources SET likes = GREATEST(likes + #{increment}, 0) WHERE id = #{id}")
+    int updateLikes(@Param("id") Long id, @Param("increment") Integer increment);
+
+    /**
+     * 按ID顺序分批读取资源的点赞数，用于点赞数校对
+     */
+    @Select("SELECT 'resource' AS target_type, id AS target_id, likes AS count FROM resources WHERE id > #{lastId} ORDER BY id LIMIT #{limit}")
+    List<LikeTargetDTO> selectLikesAfterId(@Param("lastId") long lastId, @Param("limit") int limit);
+
+    /**
+     * 校对时修正点赞数，点赞数已被其他请求修改时不更新
+     * @param expected 读取时的点赞数
+     */
+    @Update("UPDATE resources SET likes = #{likes} WHERE id = #{id} AND likes = #{expected}")
+    int setLikes(@Param("id") Long id, @Param("likes") Integer likes, @Param("expected") Integer expected);
 
     /**
      * 获取热门资源
@@ -89,4 +89,25 @@ public interface TagMapper {
             "AND t.status = 1 " +
             "ORDER BY t.usage_count DESC")
     List<Tag> selectByTopicId(Long topicId);
+
+    /**
+     * 根据话题ID列表批量查询标签（动态SQL在XML中实现）
+     * 返回的每个标签都带有 targetId，用于按话题分组
+     */
+    List<Tag> selectByTopicIds(@Param("topicIds") List<Long> topicIds);
+
+    /**
+     * 根据名称列表批量查询标签（动态SQL在XML中实现）
+     */
+    List<Tag> selectByNames(@Param("names") List<String> names);
+
+    /**
+     * 批量插入标签，已存在的同名标签被忽略（依赖 tags.name 唯一索引）
+     */
+    int batchInsertIgnore(@Param("names") List<String> names);
+
+    /**
+     * 批量增加使用次数
+     */
+    int batchIncrementUsageCount(@Param("ids") List<Long> ids);
 }
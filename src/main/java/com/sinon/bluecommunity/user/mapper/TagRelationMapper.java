@@ -58,4 +58,10 @@ public interface TagRelationMapper {
      */
     @Select("SELECT COUNT(*) FROM tag_relations WHERE tag_id = #{tagId}")
     int countTagUsage(Long tagId);
+
+    /**
+     * 批量插入同一对象的标签关联（动态SQL在XML中实现）
+     */
+    int batchInsert(@Param("tagIds") List<Long> tagIds, @Param("targetId") Long targetId,
+                    @Param("targetType") String targetType);
 }
@@ -1,11 +1,17 @@
 package com.sinon.bluecommunity.user.mapper;
 
+import com.sinon.bluecommunity.common.dto.FeedCursor;
+import com.sinon.bluecommunity.common.dto.LikeTargetDTO;
+import com.sinon.bluecommunity.common.dto.TopicCursor;
 import com.sinon.bluecommunity.common.entity.Topic;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 @Mapper
 public interface TopicMapper {
@@ -33,7 +39,7 @@ public interface TopicMapper {
      * @param keyword 搜索关键词
      * @param offset 偏移量
      * @param size 每页大小
-     * @param orderBy 排序方式：views(浏览量), likes(点赞数), comments(评论数)
+     * @param orderBy 排序方式：views(浏览量), likes(点赞数), comments(评论数), relevance(相关度，需要关键词)
      */
     List<Topic> selectList(@Param("userId") Long userId,
                           @Param("categoryId") Long categoryId,
@@ -43,6 +49,25 @@ public interface TopicMapper {
                           @Param("size") Integer size,
                           @Param("orderBy") String orderBy);
     
+    /**
+     * 游标（键集）分页查询话题列表
+     * 根据上一页最后一条记录的排序字段定位，深分页时不再扫描并丢弃前面的行
+     * @param userId 用户ID
+     * @param categoryId 分类ID
+     * @param status 状态
+     * @param keyword 搜索关键词
+     * @param orderBy 排序方式：default(置顶+时间), views, likes, comments
+     * @param cursor 上一页游标，为null时查询第一页
+     * @param size 查询条数
+     */
+    List<Topic> selectListByCursor(@Param("userId") Long userId,
+                                  @Param("categoryId") Long categoryId,
+                                  @Param("status") Integer status,
+                                  @Param("keyword") String keyword,
+                                  @Param("orderBy") String orderBy,
+                                  @Param("cursor") TopicCursor cursor,
+                                  @Param("size") Integer size);
+    
     /**
      * 更新话题状态
      */
@@ -58,11 +83,42 @@ public interface TopicMapper {
      */
     int incrementViews(@Param("id") Long id);
     
+    /**
+     * 批量累加浏览量（一条多行UPDATE）
+     * @param deltas 话题ID -> 浏览量增量
+     */
+    int batchIncrementViews(@Param("deltas") Map<Long, Long> deltas);
+    
     /**
      * 更新点赞数
      * @param increment 增量，可以为负数
      */
     int updateLikes(@Param("id") Long id, @Param("increment") Integer increment);
+
+    /**
+     * 按ID顺序分批读取话题的点赞数，用于点赞数校对
+     */
+    @Select("SELECT 'topic' AS target_type, id AS target_id, likes AS count FROM topics WHERE id > #{lastId} ORDER BY id LIMIT #{limit}")
+    List<LikeTargetDTO> selectLikesAfterId(@Param("lastId") long lastId, @Param("limit") int limit);
+
+    /**
+     * 校对时修正点赞数，点赞数已被其他请求修改时不更新
+     * @param expected 读取时的点赞数
+     */
+    @Update("UPDATE topics SET likes = #{likes} WHERE id = #{id} AND likes = #{expected}")
+    int setLikes(@Param("id") Long id, @Param("likes") Integer likes, @Param("expected") Integer expected);
+
+    /**
+     * 按ID顺序分批读取摘要为空的历史话题，用于回填摘要
+     */
+    @Select("SELECT id, content FROM topics WHERE excerpt IS NULL AND id > #{lastId} ORDER BY id LIMIT #{limit}")
+    List<Topic> selectMissingExcerptAfterId(@Param("lastId") long lastId, @Param("limit") int limit);
+
+    /**
+     * 回填摘要，摘要已被编辑话题时写入的不更新
+     */
+    @Update("UPDATE topics SET excerpt = #{excerpt} WHERE id = #{id} AND excerpt IS NULL")
+    int fillExcerpt(@Param("id") Long id, @Param("excerpt") String excerpt);
     
     /**
      * 更新评论数
@@ -74,6 +130,37 @@ public interface TopicMapper {
      * 批量查询话题
      */
     List<Topic> selectByIds(@Param("ids") List<Long> ids);
+
+    /**
+     * 批量查询话题摘要，不读取正文
+     */
+    List<Topic> selectSummariesByIds(@Param("ids") List<Long> ids);
+
+    /**
+     * 批量查询话题的浏览量，只返回ID和浏览量（动态SQL在XML中实现）
+     */
+    List<Topic> selectViewsByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 查询其中属于指定用户的话题ID（动态SQL在XML中实现）
+     */
+    List<Long> selectOwnedIds(@Param("ids") List<Long> ids, @Param("userId") Long userId);
+
+    /**
+     * 按 (发布时间, ID) 倒序获取指定作者的正常话题，只包含ID和发布时间，用于关注流（动态SQL在XML中实现）
+     * @param userIds 作者ID列表
+     * @param cursor 上一页最后一条话题（不包含），为null时从最新开始
+     * @param limit 数量
+     */
+    List<Topic> selectFeedEntries(@Param("userIds") Collection<Long> userIds,
+                                  @Param("cursor") FeedCursor cursor,
+                                  @Param("limit") int limit);
+
+    /**
+     * 查询话题的作者、状态和发布时间，用于推送到关注流
+     */
+    @Select("SELECT id, user_id, status, published_at FROM topics WHERE id = #{id}")
+    Topic selectFeedEntry(@Param("id") Long id);
     
     /**
      * 统计用户的话题数
@@ -115,6 +202,7 @@ public interface TopicMapper {
      * @param categoryId 可选的分类ID
      * @param days 统计的时间范围，如近7天、30天
      * @param hotType 热门类型: "comprehensive"(综合), "views"(浏览量), "likes"(点赞), "comments"(评论)
+     * @param halfLifeHours 综合热度的半衰期（小时），为空或小于等于0表示不衰减
      * @param offset 分页偏移量
      * @param size 分页大小
      * @return 热门帖子列表
@@ -123,6 +211,7 @@ public interface TopicMapper {
         @Param("categoryId") Long categoryId,
         @Param("days") Integer days,
         @Param("hotType") String hotType,
+        @Param("halfLifeHours") Double halfLifeHours,
         @Param("offset") Integer offset,
         @Param("size") Integer size);
         
@@ -137,6 +226,19 @@ public interface TopicMapper {
         @Param("categoryId") Long categoryId,
         @Param("days") Integer days);
     
+    /**
+     * 按ID顺序分批读取热度排行所需的字段（用于重建Redis热榜）
+     * 
+     * @param days 统计的时间范围
+     * @param lastId 上一批最后一条记录的ID，第一批传0
+     * @param limit 每批条数
+     * @return 话题列表（只包含ID、分类、计数器和创建时间）
+     */
+    List<Topic> selectRankingSource(
+        @Param("days") Integer days,
+        @Param("lastId") Long lastId,
+        @Param("limit") Integer limit);
+    
     /**
      * 根据标签查询话题列表
      * 
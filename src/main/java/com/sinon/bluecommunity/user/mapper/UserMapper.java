@@ -1,6 +1,7 @@
 package com.sinon.bluecommunity.user.mapper;
 
 import com.sinon.bluecommunity.common.entity.User;
+import com.sinon.bluecommunity.common.vo.UserCardVO;
 import org.apache.ibatis.annotations.*;
 
 import java.util.List;
@@ -123,6 +124,13 @@ public interface UserMapper {
      */
     List<User> selectByIds(@Param("ids") List<Long> ids);
 
+    /**
+     * 批量查询作者名片
+     * @param ids 用户ID列表
+     * @return 名片列表
+     */
+    List<UserCardVO> selectCardsByIds(@Param("ids") List<Long> ids);
+
     /**
      * 更新用户最后登录时间
      */
@@ -0,0 +1,27 @@
+package com.sinon.bluecommunity.user.mapper;
+
+import com.sinon.bluecommunity.common.dto.UserStatCountDTO;
+import org.apache.ibatis.annotations.*;
+
+import java.util.List;
+
+/**
+ * 用户计数统计Mapper接口
+ */
+@Mapper
+public interface UserStatsMapper {
+
+    /**
+     * 一次查询统计用户的话题、活动（按状态分组）、评论和点赞数
+     * @param userId 用户ID
+     * @return 统计行，没有数据的状态不返回
+     */
+    @Select("SELECT 'topic' AS type, status, COUNT(*) AS count FROM topics WHERE user_id = #{userId} GROUP BY status " +
+            "UNION ALL " +
+            "SELECT 'activity', status, COUNT(*) FROM activities WHERE user_id = #{userId} GROUP BY status " +
+            "UNION ALL " +
+            "SELECT 'comment', NULL, COUNT(*) FROM comment WHERE user_id = #{userId} " +
+            "UNION ALL " +
+            "SELECT 'like', NULL, COUNT(*) FROM likes WHERE user_id = #{userId}")
+    List<UserStatCountDTO> countByUser(@Param("userId") Long userId);
+}
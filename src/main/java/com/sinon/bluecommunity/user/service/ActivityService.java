@@ -117,14 +117,14 @@ public interface ActivityService {
     void incrementViews(Long id);
 
     /**
-     * 点赞活动
+     * 点赞活动，每个用户只能点赞一次
      */
-    boolean likeActivity(Long id);
+    boolean likeActivity(Long id, Long userId);
 
     /**
      * 取消点赞活动
      */
-    boolean unlikeActivity(Long id);
+    boolean unlikeActivity(Long id, Long userId);
 
     /**
      * 检查用户是否已参与活动
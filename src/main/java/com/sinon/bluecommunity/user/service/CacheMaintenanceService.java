@@ -0,0 +1,19 @@
+package com.sinon.bluecommunity.user.service;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 缓存维护服务接口
+ * 遍历大集合使用 SSCAN 分批读取，不使用会阻塞Redis的 SMEMBERS
+ */
+public interface CacheMaintenanceService {
+
+    /**
+     * 用 SSCAN 分批遍历集合成员
+     *
+     * @param setKey 集合key
+     * @param consumer 每批成员的处理方法
+     */
+    void scanMembers(String setKey, Consumer<List<String>> consumer);
+}
@@ -0,0 +1,40 @@
+package com.sinon.bluecommunity.user.service;
+
+import java.util.Map;
+
+/**
+ * 分类话题计数服务接口
+ * 按分类、话题状态维护话题数，话题写操作增量更新，定时全量重算纠正偏差
+ */
+public interface CategoryCounterService {
+
+    /**
+     * 获取所有分类的话题计数
+     *
+     * @return 分类ID -> (话题状态 -> 数量)
+     */
+    Map<Long, Map<Integer, Long>> getAllCounts();
+
+    /**
+     * 获取单个分类的话题计数
+     *
+     * @param categoryId 分类ID
+     * @return 话题状态 -> 数量
+     */
+    Map<Integer, Long> getCounts(Long categoryId);
+
+    /**
+     * 记录话题的分类或状态变化，在事务提交后生效
+     *
+     * @param fromCategoryId 原分类ID，新建时为null
+     * @param fromStatus     原状态，新建时为null
+     * @param toCategoryId   新分类ID
+     * @param toStatus       新状态
+     */
+    void onTopicChanged(Long fromCategoryId, Integer fromStatus, Long toCategoryId, Integer toStatus);
+
+    /**
+     * 从数据库全量重算计数
+     */
+    void recount();
+}
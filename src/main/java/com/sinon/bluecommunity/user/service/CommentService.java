@@ -2,6 +2,7 @@ package com.sinon.bluecommunity.user.service;
 
 import com.sinon.bluecommunity.common.entity.Comment;
 import com.sinon.bluecommunity.common.vo.CommentVO;
+import com.sinon.bluecommunity.common.vo.PageVO;
 
 import java.util.List;
 
@@ -40,6 +41,14 @@ public interface CommentService {
      */
     List<Comment> getReplyList(Long parentId, Integer page, Integer size, Integer offset);
 
+    /**
+     * 游标分页获取二级回复列表，用于加载更多回复
+     *
+     * @param userId 当前用户ID，未登录时为空
+     * @param cursor 游标，第一页传空
+     */
+    PageVO<Comment> getReplyListByCursor(Long parentId, Long userId, String cursor, Integer size);
+
     /**
      * 获取评论数量
      */
@@ -55,6 +64,13 @@ public interface CommentService {
      */
     List<Comment> getUserComments(Long userId, Integer page, Integer size);
 
+    /**
+     * 游标分页获取用户的评论列表
+     *
+     * @param cursor 游标，第一页传空
+     */
+    PageVO<Comment> getUserCommentsByCursor(Long userId, String cursor, Integer size);
+
     /**
      * 获取最新评论
      */
@@ -77,7 +93,19 @@ public interface CommentService {
 
     /**
      * 获取评论列表（包含回复）
+     * 每条评论附带最新的若干条回复、回复总数和加载更多回复的游标；
+     * 回复、回复数、评论和回复的点赞信息都按整页批量读取
+     *
+     * @param userId 当前用户ID，未登录时为空
      */
     List<CommentVO> getCommentListWithReplies(Long targetId, String targetType, Long userId, String orderBy,
                                               Integer page, Integer size, Integer offset);
+
+    /**
+     * 游标分页获取评论列表（包含回复），按时间倒序
+     *
+     * @param userId 当前用户ID，未登录时为空
+     * @param cursor 游标，第一页传空
+     */
+    PageVO<CommentVO> getCommentListByCursor(Long targetId, String targetType, Long userId, String cursor, Integer size);
 }
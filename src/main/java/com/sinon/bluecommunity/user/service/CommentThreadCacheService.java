@@ -0,0 +1,51 @@
+package com.sinon.bluecommunity.user.service;
+
+import com.sinon.bluecommunity.common.entity.Comment;
+import com.sinon.bluecommunity.common.vo.CommentVO;
+
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * 评论区首页缓存服务接口
+ * 在进程内缓存每个评论区按时间倒序的前若干条一级评论（包含回复预览和回复数），
+ * 发布、修改、删除评论时按变更增量更新，变更在事务提交后通过Redis发布订阅通知所有节点
+ */
+public interface CommentThreadCacheService {
+
+    /**
+     * 读取评论区按时间倒序的一段一级评论
+     * 返回的是副本，调用方可以修改（例如填充当前用户的点赞状态）
+     * @param targetType 目标类型
+     * @param targetId 目标ID
+     * @param offset 起始位置
+     * @param size 条数
+     * @param loader 未命中时加载最新的N条一级评论（包含回复预览和回复数）
+     * @return 一级评论列表，请求的范围超出缓存时返回null
+     */
+    List<CommentVO> getRoots(String targetType, Long targetId, int offset, int size,
+                             IntFunction<List<CommentVO>> loader);
+
+    /**
+     * 发布一级评论或回复后调用
+     * @param commentId 评论ID
+     */
+    void onAdded(Long commentId);
+
+    /**
+     * 修改评论内容后调用
+     * @param commentId 评论ID
+     */
+    void onUpdated(Long commentId);
+
+    /**
+     * 删除评论后调用
+     * @param comments 删除前读取的评论，需要包含目标、父评论和层级
+     */
+    void onRemoved(List<Comment> comments);
+
+    /**
+     * 清空所有节点的评论区缓存，用于无法逐条更新的批量删除
+     */
+    void invalidateAll();
+}
@@ -0,0 +1,45 @@
+package com.sinon.bluecommunity.user.service;
+
+import java.util.List;
+
+/**
+ * 内容版本号服务接口
+ * 按范围维护递增的版本号，内容有写操作时递增，用于生成 ETag，不需要序列化响应体再计算摘要
+ */
+public interface ContentVersionService {
+
+    /**
+     * 话题列表（包括热门话题）
+     */
+    String SCOPE_TOPICS = "topics";
+
+    /**
+     * 分类列表
+     */
+    String SCOPE_CATEGORIES = "categories";
+
+    /**
+     * 单个话题详情的版本范围
+     *
+     * @param topicId 话题ID
+     * @return 范围名称
+     */
+    static String topicScope(Long topicId) {
+        return "topic:" + topicId;
+    }
+
+    /**
+     * 批量读取版本号，一次Redis往返
+     *
+     * @param scopes 范围列表
+     * @return 与 scopes 顺序一致的版本号，从未变更过的范围为 0；Redis不可用时返回 null
+     */
+    List<Long> getVersions(List<String> scopes);
+
+    /**
+     * 递增版本号，在当前事务提交后生效
+     *
+     * @param scopes 范围列表
+     */
+    void bump(String... scopes);
+}
@@ -0,0 +1,46 @@
+package com.sinon.bluecommunity.user.service;
+
+import com.sinon.bluecommunity.common.vo.PageVO;
+import com.sinon.bluecommunity.common.vo.TopicSummaryVO;
+
+/**
+ * 关注流服务接口
+ * 普通作者发帖时写扩散到粉丝收件箱；粉丝数超过阈值的作者不推送，读取时从数据库拉取后合并
+ */
+public interface FeedService {
+
+    /**
+     * 发布话题到关注流，在事务提交后异步推送
+     * 只应对正常状态的话题调用
+     *
+     * @param topicId  话题ID
+     * @param authorId 作者ID
+     */
+    void publish(Long topicId, Long authorId);
+
+    /**
+     * 关注后把被关注者最近的话题补进关注者的收件箱，在事务提交后生效
+     *
+     * @param followerId 关注者ID
+     * @param followeeId 被关注者ID
+     */
+    void onFollow(Long followerId, Long followeeId);
+
+    /**
+     * 取消关注后从收件箱移除被关注者的话题，在事务提交后生效
+     *
+     * @param followerId 关注者ID
+     * @param followeeId 被关注者ID
+     */
+    void onUnfollow(Long followerId, Long followeeId);
+
+    /**
+     * 游标分页获取关注流
+     *
+     * @param userId 用户ID
+     * @param cursor 游标（上一页返回的下一页游标），第一页传空
+     * @param size   每页数量
+     * @return 话题列表及下一页游标
+     */
+    PageVO<TopicSummaryVO> getFeed(Long userId, String cursor, Integer size);
+}
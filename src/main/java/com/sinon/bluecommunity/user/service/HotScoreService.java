@@ -0,0 +1,45 @@
+package com.sinon.bluecommunity.user.service;
+
+import com.sinon.bluecommunity.common.entity.Topic;
+
+import java.util.List;
+
+/**
+ * 话题热度计算服务接口
+ * 负责各热度类型的计分规则，热榜的存储和更新由 HotTopicService 负责
+ */
+public interface HotScoreService {
+
+    /**
+     * 支持的热度类型，第一个为默认类型
+     * @return 热度类型列表
+     */
+    List<String> getHotTypes();
+
+    /**
+     * 计算话题在指定热度类型下的分数
+     * @param hotType 热度类型
+     * @param topic 话题（需要包含浏览量、点赞数、评论数和创建时间）
+     * @param referenceTime 计分基准时间（epoch秒），同一批分数必须使用相同的基准时间
+     * @return 热度分数
+     */
+    double score(String hotType, Topic topic, long referenceTime);
+
+    /**
+     * 计算计数变化对指定热度类型分数的增量
+     * @param hotType 热度类型
+     * @param counter 发生变化的计数: "views", "likes", "comments"
+     * @param delta 计数变化量
+     * @param createdAt 话题创建时间（epoch秒）
+     * @param referenceTime 计分基准时间（epoch秒），与现有分数的基准时间一致
+     * @return 分数增量，与该热度类型无关时返回0
+     */
+    double increment(String hotType, String counter, int delta, long createdAt, long referenceTime);
+
+    /**
+     * 综合热度的半衰期（小时），小于等于0表示不衰减
+     * 数据库回退查询使用相同的衰减规则排序
+     * @return 半衰期
+     */
+    double getHalfLifeHours();
+}
@@ -0,0 +1,68 @@
+package com.sinon.bluecommunity.user.service;
+
+import java.util.List;
+
+/**
+ * 热门话题排行服务接口
+ * 在Redis有序集合中维护全站和各分类的热榜，由浏览、点赞、评论增量更新
+ */
+public interface HotTopicService {
+
+    /**
+     * 是否可以由热榜提供该时间范围的数据
+     * 热榜只维护配置的时间窗口，其他时间范围需要回退到数据库查询
+     * @param days 时间范围（天）
+     * @return true: 可以从热榜读取
+     */
+    boolean supports(Integer days);
+
+    /**
+     * 分页获取热门话题ID（按热度倒序）
+     * @param categoryId 分类ID（可选）
+     * @param hotType 热门类型: "comprehensive"(综合), "views"(浏览量), "likes"(点赞), "comments"(评论)
+     * @param offset 偏移量
+     * @param size 每页大小
+     * @return 话题ID列表
+     */
+    List<Long> getHotTopicIds(Long categoryId, String hotType, int offset, int size);
+
+    /**
+     * 统计热榜中的话题数
+     * @param categoryId 分类ID（可选）
+     * @return 话题数
+     */
+    long countHotTopics(Long categoryId);
+
+    /**
+     * 话题浏览量增加，由浏览量计数服务写回数据库后批量调用
+     * @param topicId 话题ID
+     * @param delta 本次写回的浏览量
+     */
+    void onView(Long topicId, int delta);
+
+    /**
+     * 话题点赞数变化
+     * @param topicId 话题ID
+     * @param delta 变化量，取消点赞为负数
+     */
+    void onLike(Long topicId, int delta);
+
+    /**
+     * 话题评论数变化
+     * @param topicId 话题ID
+     * @param delta 变化量，删除评论为负数
+     */
+    void onComment(Long topicId, int delta);
+
+    /**
+     * 按数据库中的最新状态同步话题在热榜中的位置
+     * 用于话题新建、修改分类、状态变化等场景，非正常状态的话题会被移出热榜
+     * @param topicIds 话题ID列表
+     */
+    void refresh(List<Long> topicIds);
+
+    /**
+     * 从数据库重建全部热榜
+     */
+    void rebuild();
+}
@@ -0,0 +1,62 @@
+package com.sinon.bluecommunity.user.service;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 点赞用户索引服务接口
+ * 每个目标的点赞用户ID保存为一个 Roaring 压缩位图，在本地内存中判断"是否已点赞"，
+ * 位图从Redis点赞集合加载，之后由点赞变更通知增量更新
+ */
+public interface LikeIndexService {
+
+    /**
+     * 点赞变更通知频道，由点赞脚本在变更点赞集合的同时发布，通知的顺序与变更的顺序一致；
+     * 消息格式与落库队列的记录相同："类型:目标ID:用户ID:状态(1/0)"
+     */
+    String CHANGE_CHANNEL = "like:index:changed";
+
+    /**
+     * 位图按无符号32位整数保存用户ID，超出范围的用户不能使用索引
+     *
+     * @param userId 用户ID
+     * @return 是否可以使用索引
+     */
+    static boolean supports(Long userId) {
+        return userId != null && userId >= 0 && userId <= 0xFFFFFFFFL;
+    }
+
+    /**
+     * 判断用户是否点赞过目标
+     *
+     * @param targetType 目标类型
+     * @param targetId   目标ID
+     * @param userId     用户ID
+     * @param loader     本地没有位图时加载目标的全部点赞用户ID，应包含尚未落库的变更
+     * @return true: 已点赞
+     */
+    boolean contains(String targetType, Long targetId, Long userId, Function<Long, Collection<Long>> loader);
+
+    /**
+     * 批量判断用户点赞过哪些目标
+     *
+     * @param targetType 目标类型
+     * @param targetIds  目标ID列表
+     * @param userId     用户ID
+     * @param loader     本地没有位图时加载目标的全部点赞用户ID，应包含尚未落库的变更
+     * @return 用户点赞过的目标ID
+     */
+    Set<Long> filterLiked(String targetType, Collection<Long> targetIds, Long userId,
+                          Function<Long, Collection<Long>> loader);
+
+    /**
+     * 记录本节点的点赞状态变化，立即更新本地索引；其他节点由点赞脚本发布的变更通知更新
+     *
+     * @param targetType 目标类型
+     * @param targetId   目标ID
+     * @param userId     用户ID
+     * @param liked      变化后是否为点赞状态
+     */
+    void onChanged(String targetType, Long targetId, Long userId, boolean liked);
+}
@@ -0,0 +1,17 @@
+package com.sinon.bluecommunity.user.service;
+
+import com.sinon.bluecommunity.common.dto.LikeReconcileReport;
+
+/**
+ * 点赞数校对服务接口
+ * 定期按点赞记录重新统计点赞数，修正数据库中的冗余点赞数和Redis中的点赞计数
+ */
+public interface LikeReconcileService {
+
+    /**
+     * 执行一次全量校对
+     *
+     * @return 校对报告
+     */
+    LikeReconcileReport reconcile();
+}
@@ -1,10 +1,17 @@
 package com.sinon.bluecommunity.user.service;
 
+import com.sinon.bluecommunity.common.dto.LikeTargetDTO;
 import com.sinon.bluecommunity.common.entity.Like;
+import com.sinon.bluecommunity.common.vo.LikeStatusVO;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * 点赞服务接口
+ * 点赞状态以Redis为准，likes 表由后台任务异步批量写入
  */
 public interface LikeService {
     
@@ -15,6 +22,7 @@ public interface LikeService {
      * @param targetId 目标ID
      * @param targetType 目标类型
      * @throws IllegalArgumentException 如果目标类型无效
+     * @throws com.sinon.bluecommunity.common.exception.BusinessException 如果已经点赞过
      */
     void like(Long userId, Long targetId, String targetType);
     
@@ -24,9 +32,21 @@ public interface LikeService {
      * @param userId 用户ID
      * @param targetId 目标ID
      * @param targetType 目标类型
+     * @return true: 已取消 false: 原本就没有点赞
      */
-    void unlike(Long userId, Long targetId, String targetType);
+    boolean unlike(Long userId, Long targetId, String targetType);
     
+    /**
+     * 切换点赞状态：未点赞时点赞，已点赞时取消
+     * 检查、变更和计数在Redis中一次原子完成，并发的重复请求不会重复计数
+     *
+     * @param userId 用户ID
+     * @param targetId 目标ID
+     * @param targetType 目标类型
+     * @return 切换后的点赞状态和点赞数
+     */
+    LikeStatusVO toggle(Long userId, Long targetId, String targetType);
+
     /**
      * 检查是否已点赞
      *
@@ -45,7 +65,46 @@ public interface LikeService {
      * @return 点赞数
      */
     int getLikeCount(Long targetId, String targetType);
+
+    /**
+     * 批量获取同一类型目标的点赞数
+     *
+     * @param targetIds 目标ID列表
+     * @param targetType 目标类型
+     * @return 目标ID -> 点赞数，包含所有传入的目标
+     */
+    Map<Long, Integer> getLikeCounts(Collection<Long> targetIds, String targetType);
+
+    /**
+     * 批量检查用户点赞过哪些同一类型的目标
+     *
+     * @param userId 用户ID
+     * @param targetIds 目标ID列表
+     * @param targetType 目标类型
+     * @return 已点赞的目标ID
+     */
+    Set<Long> filterLiked(Long userId, Collection<Long> targetIds, String targetType);
+
+    /**
+     * 批量获取多个目标的点赞状态和点赞数，目标类型可以混合
+     * 点赞数用一次Redis调用读取，未缓存的目标用一条SQL统计
+     *
+     * @param userId 用户ID，为空时点赞状态均为 false
+     * @param targets 目标列表
+     * @return 点赞状态，与传入顺序一致
+     */
+    List<LikeStatusVO> getLikeStatuses(Long userId, List<LikeTargetDTO> targets);
     
+    /**
+     * 校对Redis中的点赞计数
+     * 点赞集合存在时以集合大小为准，否则以 likes 表的统计为准；只修正已缓存且不一致的计数
+     *
+     * @param targetType 目标类型
+     * @param persistedCounts 目标ID -> likes 表中的点赞数
+     * @return 修正的计数个数
+     */
+    int repairCounts(String targetType, Map<Long, Integer> persistedCounts);
+
     /**
      * 获取用户的点赞列表
      *
@@ -59,6 +118,7 @@ public interface LikeService {
     
     /**
      * 批量删除指定目标的点赞记录
+     * 逐个取消点赞，记录由落库任务删除；点赞集合保留为空集合，落库前的读取不会从旧记录重新回填
      *
      * @param targetId 目标ID
      * @param targetType 目标类型
@@ -68,6 +128,7 @@ public interface LikeService {
     
     /**
      * 批量删除指定用户的点赞记录
+     * 先把待落库的变更写入数据库，再按 likes 表逐个取消点赞，记录由落库任务删除
      *
      * @param userId 用户ID
      * @return 删除的记录数
@@ -0,0 +1,38 @@
+package com.sinon.bluecommunity.user.service;
+
+/**
+ * 点赞落库服务接口
+ * 点赞状态先在Redis中原子变更，同时把变更记录追加到队列，由这里定时批量写入 likes 表；
+ * 写入按 (用户, 目标) 的最终状态执行 INSERT IGNORE / DELETE，重放同一批记录不会重复计数
+ */
+public interface LikeSyncService {
+
+    /**
+     * 待落库的点赞变更队列
+     */
+    String QUEUE_KEY = "like:queue";
+
+    /**
+     * 落库任务的分布式锁，持有期间 likes 表不会被落库任务修改
+     */
+    String LOCK_KEY = "like:queue:lock";
+
+    /**
+     * 编码一条变更记录中状态之前的部分
+     * 完整的记录为 "类型:目标ID:用户ID:状态(1/0)"，状态由点赞脚本在确定变更后的状态后补全
+     *
+     * @param targetType 目标类型
+     * @param targetId   目标ID
+     * @param userId     用户ID
+     * @return 记录前缀
+     */
+    static String entryPrefix(String targetType, Long targetId, Long userId) {
+        return targetType + ":" + targetId + ":" + userId + ":";
+    }
+
+    /**
+     * 把队列中的变更批量写入数据库
+     * 先重放上次未确认的批次，再处理新的记录
+     */
+    void flush();
+}
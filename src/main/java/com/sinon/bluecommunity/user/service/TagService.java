@@ -0,0 +1,22 @@
+package com.sinon.bluecommunity.user.service;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 标签服务接口
+ */
+public interface TagService {
+
+    /**
+     * 为对象批量绑定标签
+     * 标签名去空白、去重后一次性解析，缺失的标签批量创建，
+     * 关联关系与使用次数均以单条语句批量写入
+     *
+     * @param targetId   对象ID
+     * @param targetType 对象类型（topic、resource等）
+     * @param tagNames   标签名列表
+     * @return 实际绑定的标签ID列表
+     */
+    List<Long> attachTags(Long targetId, String targetType, Collection<String> tagNames);
+}
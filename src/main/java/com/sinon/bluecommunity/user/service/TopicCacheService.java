@@ -0,0 +1,28 @@
+package com.sinon.bluecommunity.user.service;
+
+import com.sinon.bluecommunity.common.vo.TopicVO;
+
+import java.util.function.Function;
+
+/**
+ * 话题详情缓存服务接口
+ * 一级缓存在进程内，二级缓存在Redis，失效消息通过Redis发布订阅通知所有节点
+ */
+public interface TopicCacheService {
+
+    /**
+     * 读取话题详情，两级缓存都未命中时调用 loader 加载并回填
+     * 返回的对象是缓存中的共享实例，调用方不能修改
+     * @param topicId 话题ID
+     * @param loader 从数据库加载话题详情
+     * @return 话题详情
+     */
+    TopicVO get(Long topicId, Function<Long, TopicVO> loader);
+
+    /**
+     * 使话题详情缓存失效
+     * 在当前事务提交后删除Redis中的缓存，并通知所有节点清除本地缓存
+     * @param topicId 话题ID
+     */
+    void evict(Long topicId);
+}
@@ -2,6 +2,7 @@ package com.sinon.bluecommunity.user.service;
 
 import com.sinon.bluecommunity.common.entity.Topic;
 import com.sinon.bluecommunity.common.vo.PageVO;
+import com.sinon.bluecommunity.common.vo.TopicSummaryVO;
 import com.sinon.bluecommunity.common.vo.TopicVO;
 
 import java.util.List;
@@ -36,14 +37,30 @@ public interface TopicService {
      * @param userId 用户ID（可选）
      * @param categoryId 分类ID（可选）
      * @param status 状态（可选）
+     * @param keyword 搜索关键词（可选），使用全文索引匹配标题和内容
+     * @param orderBy 排序方式（可选）：views(浏览量), likes(点赞数), comments(评论数), relevance(相关度)；
+     *                带关键词且未指定排序时按相关度排序
+     * @param page 页码
+     * @param size 每页大小
+     * @return 分页数据，列表项只包含摘要，不包含正文
+     */
+    PageVO<TopicSummaryVO> getTopicList(Long userId, Long categoryId, Integer status,
+                                       String keyword, String orderBy, Integer page, Integer size);
+
+    /**
+     * 游标分页获取话题列表（适用于无限滚动）
+     * 不统计总数，返回的 nextCursor 用于获取下一页
+     * @param userId 用户ID（可选）
+     * @param categoryId 分类ID（可选）
+     * @param status 状态（可选）
      * @param keyword 搜索关键词（可选）
      * @param orderBy 排序方式（可选）：views(浏览量), likes(点赞数), comments(评论数)
-     * @param page 页码
+     * @param cursor 上一页返回的游标，为空时获取第一页
      * @param size 每页大小
      * @return 分页数据
      */
-    PageVO<TopicVO> getTopicList(Long userId, Long categoryId, Integer status,
-                                String keyword, String orderBy, Integer page, Integer size);
+    PageVO<TopicSummaryVO> getTopicListByCursor(Long userId, Long categoryId, Integer status,
+                                               String keyword, String orderBy, String cursor, Integer size);
 
     /**
      * 删除话题（逻辑删除）
@@ -119,5 +136,10 @@ public interface TopicService {
      * @param size 每页大小
      * @return 分页数据
      */
-    PageVO<TopicVO> getHotTopics(Long categoryId, Integer days, String hotType, Integer page, Integer size);
+    PageVO<TopicSummaryVO> getHotTopics(Long categoryId, Integer days, String hotType, Integer page, Integer size);
+
+    /**
+     * 回填历史话题的摘要（excerpt 为空的话题），回填完成后列表查询不再读取正文
+     */
+    void backfillExcerpts();
 }
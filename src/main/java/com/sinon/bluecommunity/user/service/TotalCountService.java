@@ -0,0 +1,35 @@
+package com.sinon.bluecommunity.user.service;
+
+import com.sinon.bluecommunity.common.dto.TotalCount;
+
+import java.util.function.Supplier;
+
+/**
+ * 分页总数服务接口
+ * 按对象类型和筛选条件缓存 COUNT 结果，对象有写操作时失效
+ */
+public interface TotalCountService {
+
+    String TYPE_TOPIC = "topic";
+    String TYPE_RESOURCE = "resource";
+    String TYPE_ACTIVITY = "activity";
+    String TYPE_USER = "user";
+
+    /**
+     * 获取分页总数
+     * 优先读取缓存，未命中时执行 counter 并缓存结果；
+     * 开启估算时，没有任何筛选条件的大表直接使用表统计信息的估算值
+     * @param entityType 对象类型
+     * @param counter 实际的 COUNT 查询
+     * @param filters 筛选条件，按固定顺序传入，null 和空字符串表示不筛选
+     * @return 总数
+     */
+    TotalCount count(String entityType, Supplier<Long> counter, Object... filters);
+
+    /**
+     * 使该对象类型的所有缓存总数失效
+     * 在当前事务提交后生效
+     * @param entityType 对象类型
+     */
+    void invalidate(String entityType);
+}
@@ -0,0 +1,59 @@
+package com.sinon.bluecommunity.user.service;
+
+import com.sinon.bluecommunity.common.dto.UserStats;
+
+import java.util.Collection;
+
+/**
+ * 用户计数服务接口
+ * 维护每个用户的话题、活动、评论和点赞数，个人主页和统计接口直接读取计数，不再逐项COUNT
+ */
+public interface UserStatsService {
+
+    /**
+     * 计数类型
+     */
+    String TYPE_TOPIC = "topic";
+    String TYPE_ACTIVITY = "activity";
+    String TYPE_COMMENT = "comment";
+    String TYPE_LIKE = "like";
+
+    /**
+     * 获取用户计数，缓存不存在时从数据库回填
+     *
+     * @param userId 用户ID
+     * @return 用户计数
+     */
+    UserStats getStats(Long userId);
+
+    /**
+     * 调整不区分状态的计数（评论、点赞），在事务提交后生效
+     *
+     * @param userId 用户ID
+     * @param type   计数类型
+     * @param delta  增量，可以为负数
+     */
+    void increment(Long userId, String type, long delta);
+
+    /**
+     * 记录按状态计数的对象（话题、活动）的状态变化，在事务提交后生效
+     *
+     * @param userId     用户ID
+     * @param type       计数类型
+     * @param fromStatus 原状态，新建时为null
+     * @param toStatus   新状态，物理删除时为null
+     */
+    void changeStatus(Long userId, String type, Integer fromStatus, Integer toStatus);
+
+    /**
+     * 无法确定增量时使计数失效，下次读取时从数据库回填，在事务提交后生效
+     *
+     * @param userIds 用户ID列表
+     */
+    void invalidate(Collection<Long> userIds);
+
+    /**
+     * 用数据库重新校准待核对用户的计数
+     */
+    void reconcile();
+}
@@ -0,0 +1,43 @@
+package com.sinon.bluecommunity.user.service;
+
+/**
+ * 浏览量计数服务接口
+ * 浏览量先在内存中累加，定时批量写回数据库，避免每次浏览都更新热点行
+ */
+public interface ViewCounterService {
+
+    String TYPE_TOPIC = "topic";
+    String TYPE_RESOURCE = "resource";
+    String TYPE_ACTIVITY = "activity";
+
+    /**
+     * 记录一次浏览
+     * @param entityType 对象类型: topic, resource, activity
+     * @param id 对象ID
+     */
+    void increment(String entityType, Long id);
+
+    /**
+     * 获取尚未写回数据库的浏览量
+     * 详情接口返回的浏览量需要加上这部分，数字才是实时的
+     * @param entityType 对象类型
+     * @param id 对象ID
+     * @return 未写回的浏览量
+     */
+    long getPending(String entityType, Long id);
+
+    /**
+     * 获取实时浏览量，用于详情缓存中的浏览量已过时的对象
+     * 取本地缓存的数据库浏览量加上未写回的浏览量，本节点写回后会重新读取数据库浏览量
+     * @param entityType 对象类型
+     * @param id 对象ID
+     * @param fallback 不支持该对象类型或读取数据库失败时使用的浏览量（例如缓存中的浏览量）
+     * @return 浏览量
+     */
+    long getViews(String entityType, Long id, long fallback);
+
+    /**
+     * 将内存中的浏览量批量写回数据库
+     */
+    void flush();
+}
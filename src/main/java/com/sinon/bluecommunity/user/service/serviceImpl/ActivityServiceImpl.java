@@ -2,15 +2,21 @@ package com.sinon.bluecommunity.user.service.serviceImpl;
 
 import com.sinon.bluecommunity.common.entity.Activity;
 import com.sinon.bluecommunity.common.entity.ActivityParticipant;
+import com.sinon.bluecommunity.common.entity.Like;
 import com.sinon.bluecommunity.common.exception.BusinessException;
 import com.sinon.bluecommunity.user.mapper.ActivityMapper;
 import com.sinon.bluecommunity.user.service.ActivityService;
+import com.sinon.bluecommunity.user.service.LikeService;
+import com.sinon.bluecommunity.user.service.TotalCountService;
+import com.sinon.bluecommunity.user.service.UserStatsService;
+import com.sinon.bluecommunity.user.service.ViewCounterService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -23,6 +29,18 @@ public class ActivityServiceImpl implements ActivityService {
     @Autowired
     private ActivityMapper activityMapper;
 
+    @Autowired
+    private ViewCounterService viewCounterService;
+
+    @Autowired
+    private TotalCountService totalCountService;
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Autowired
+    private LikeService likeService;
+
     @Override
     @Transactional
     public Activity createActivity(Activity activity) {
@@ -53,6 +71,8 @@ public class ActivityServiceImpl implements ActivityService {
         if (rows != 1) {
             throw new BusinessException("创建活动失败");
         }
+        totalCountService.invalidate(TotalCountService.TYPE_ACTIVITY);
+        userStatsService.changeStatus(activity.getUserId(), UserStatsService.TYPE_ACTIVITY, null, activity.getStatus());
 
         return activity;
     }
@@ -81,6 +101,7 @@ public class ActivityServiceImpl implements ActivityService {
         if (rows != 1) {
             throw new BusinessException("更新活动失败");
         }
+        totalCountService.invalidate(TotalCountService.TYPE_ACTIVITY);
 
         return activityMapper.selectById(activity.getId());
     }
@@ -105,13 +126,24 @@ public class ActivityServiceImpl implements ActivityService {
             throw new BusinessException("该活动已有人报名，无法删除");
         }
 
-        return activityMapper.deleteById(id, userId) == 1;
+        boolean deleted = activityMapper.deleteById(id, userId) == 1;
+        totalCountService.invalidate(TotalCountService.TYPE_ACTIVITY);
+        if (deleted) {
+            userStatsService.changeStatus(userId, UserStatsService.TYPE_ACTIVITY, existing.getStatus(), null);
+        }
+        return deleted;
     }
 
     @Override
     public Activity getActivityById(Long id) {
         Assert.notNull(id, "活动ID不能为空");
-        return activityMapper.selectById(id);
+        Activity activity = activityMapper.selectById(id);
+        if (activity != null) {
+            // 加上尚未写回数据库的浏览量
+            long pendingViews = viewCounterService.getPending(ViewCounterService.TYPE_ACTIVITY, id);
+            activity.setViews((int) ((activity.getViews() == null ? 0 : activity.getViews()) + pendingViews));
+        }
+        return activity;
     }
 
     @Override
@@ -134,8 +166,11 @@ public class ActivityServiceImpl implements ActivityService {
                              LocalDateTime startTimeBegin, LocalDateTime startTimeEnd,
                              LocalDateTime endTimeBegin, LocalDateTime endTimeEnd,
                              String locationType) {
-        return activityMapper.countActivities(userId, status, type, keyword,
-                startTimeBegin, startTimeEnd, endTimeBegin, endTimeEnd, locationType);
+        return (int) totalCountService.count(TotalCountService.TYPE_ACTIVITY,
+                () -> (long) activityMapper.countActivities(userId, status, type, keyword,
+                        startTimeBegin, startTimeEnd, endTimeBegin, endTimeEnd, locationType),
+                userId, status, type, keyword,
+                startTimeBegin, startTimeEnd, endTimeBegin, endTimeEnd, locationType).getTotal();
     }
 
     @Override
@@ -149,7 +184,13 @@ public class ActivityServiceImpl implements ActivityService {
             throw new BusinessException("活动不存在");
         }
 
-        return activityMapper.updateStatus(id, status) == 1;
+        boolean updated = activityMapper.updateStatus(id, status) == 1;
+        totalCountService.invalidate(TotalCountService.TYPE_ACTIVITY);
+        if (updated) {
+            userStatsService.changeStatus(existing.getUserId(), UserStatsService.TYPE_ACTIVITY,
+                    existing.getStatus(), status);
+        }
+        return updated;
     }
 
     @Override
@@ -159,7 +200,11 @@ public class ActivityServiceImpl implements ActivityService {
         Assert.notNull(status, "状态不能为空");
         Assert.notNull(userId, "用户ID不能为空");
 
-        return activityMapper.batchUpdateStatus(ids, status, userId) > 0;
+        boolean updated = activityMapper.batchUpdateStatus(ids, status, userId) > 0;
+        totalCountService.invalidate(TotalCountService.TYPE_ACTIVITY);
+        // 各活动原状态未知，让计数重新回填
+        userStatsService.invalidate(Collections.singletonList(userId));
+        return updated;
     }
 
     @Override
@@ -301,33 +346,38 @@ public class ActivityServiceImpl implements ActivityService {
     @Override
     public void incrementViews(Long id) {
         Assert.notNull(id, "活动ID不能为空");
-        activityMapper.incrementViews(id);
+        viewCounterService.increment(ViewCounterService.TYPE_ACTIVITY, id);
     }
 
     @Override
-    @Transactional
-    public boolean likeActivity(Long id) {
+    public boolean likeActivity(Long id, Long userId) {
         Assert.notNull(id, "活动ID不能为空");
+        Assert.notNull(userId, "用户ID不能为空");
 
         Activity activity = activityMapper.selectById(id);
         if (activity == null) {
             throw new BusinessException("活动不存在");
         }
 
-        return activityMapper.incrementLikes(id) == 1;
+        // 每个用户只能点赞一次，点赞记录和活动点赞数由点赞服务维护
+        likeService.like(userId, id, Like.TARGET_TYPE_ACTIVITY);
+        return true;
     }
 
     @Override
-    @Transactional
-    public boolean unlikeActivity(Long id) {
+    public boolean unlikeActivity(Long id, Long userId) {
         Assert.notNull(id, "活动ID不能为空");
+        Assert.notNull(userId, "用户ID不能为空");
 
         Activity activity = activityMapper.selectById(id);
         if (activity == null) {
             throw new BusinessException("活动不存在");
         }
 
-        return activityMapper.decrementLikes(id) == 1;
+        if (!likeService.unlike(userId, id, Like.TARGET_TYPE_ACTIVITY)) {
+            throw new BusinessException("还没有点赞过");
+        }
+        return true;
     }
 
     @Override
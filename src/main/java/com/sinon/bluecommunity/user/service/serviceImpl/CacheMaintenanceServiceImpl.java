@@ -0,0 +1,48 @@
+package com.sinon.bluecommunity.user.service.serviceImpl;
+
+import com.sinon.bluecommunity.user.service.CacheMaintenanceService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 缓存维护服务实现类
+ * 遍历按批进行，每批一次Redis调用，单次调用的耗时与批大小成正比，不会长时间阻塞其他客户端
+ */
+@Service
+public class CacheMaintenanceServiceImpl implements CacheMaintenanceService {
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    /**
+     * SSCAN 每次遍历的数量提示，同时也是每批交给处理方法的成员数
+     */
+    @Value("${bluecommunity.cache-maintenance.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public void scanMembers(String setKey, Consumer<List<String>> consumer) {
+        ScanOptions options = ScanOptions.scanOptions().count(batchSize).build();
+        List<String> batch = new ArrayList<>(batchSize);
+        try (Cursor<String> cursor = redisTemplate.opsForSet().scan(setKey, options)) {
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() >= batchSize) {
+                    consumer.accept(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            consumer.accept(batch);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.sinon.bluecommunity.user.service.serviceImpl;
+
+import com.sinon.bluecommunity.common.dto.CategoryTopicCountDTO;
+import com.sinon.bluecommunity.common.utils.TransactionUtils;
+import com.sinon.bluecommunity.user.mapper.CategoryMapper;
+import com.sinon.bluecommunity.user.service.CategoryCounterService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * 分类话题计数服务实现类
+ * 计数保存在一个Redis hash中，field为"分类ID:话题状态"；
+ * 增量只在hash已存在时生效，不存在时由读取或定时任务整体重算
+ */
+@Slf4j
+@Service
+public class CategoryCounterServiceImpl implements CategoryCounterService {
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private CategoryMapper categoryMapper;
+
+    // Redis key
+    private static final String COUNT_KEY = "category:topic:count";
+
+    /**
+     * 重算标记字段，保证没有任何话题时也有缓存
+     */
+    private static final String LOADED_FIELD = "loaded";
+
+    /**
+     * 只在hash已存在时累加，参数为 field1, delta1, field2, delta2 ...
+     */
+    private static final RedisScript<Long> INCREMENT_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end " +
+            "for i = 1, #ARGV, 2 do redis.call('HINCRBY', KEYS[1], ARGV[i], ARGV[i + 1]) end " +
+            "return 1", Long.class);
+
+    @Override
+    public Map<Long, Map<Integer, Long>> getAllCounts() {
+        try {
+            Map<Object, Object> entries = redisTemplate.opsForHash().entries(COUNT_KEY);
+            if (!entries.isEmpty()) {
+                return parse(entries);
+            }
+        } catch (Exception e) {
+            log.warn("读取分类话题计数失败，直接查询数据库", e);
+            return load();
+        }
+
+        Map<Long, Map<Integer, Long>> counts = load();
+        save(counts);
+        return counts;
+    }
+
+    @Override
+    public Map<Integer, Long> getCounts(Long categoryId) {
+        return getAllCounts().getOrDefault(categoryId, Collections.emptyMap());
+    }
+
+    @Override
+    public void onTopicChanged(Long fromCategoryId, Integer fromStatus, Long toCategoryId, Integer toStatus) {
+        if (Objects.equals(fromCategoryId, toCategoryId) && Objects.equals(fromStatus, toStatus)) {
+            return;
+        }
+        Map<String, Long> deltas = new LinkedHashMap<>();
+        if (fromCategoryId != null && fromStatus != null) {
+            deltas.merge(field(fromCategoryId, fromStatus), -1L, Long::sum);
+        }
+        if (toCategoryId != null && toStatus != null) {
+            deltas.merge(field(toCategoryId, toStatus), 1L, Long::sum);
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<String> args = new ArrayList<>(deltas.size() * 2);
+        deltas.forEach((field, delta) -> {
+            args.add(field);
+            args.add(String.valueOf(delta));
+        });
+        TransactionUtils.afterCommit(() -> {
+            try {
+                redisTemplate.execute(INCREMENT_SCRIPT, Collections.singletonList(COUNT_KEY), args.toArray());
+            } catch (Exception e) {
+                log.warn("更新分类话题计数失败: deltas={}", deltas, e);
+            }
+        });
+    }
+
+    /**
+     * 定时全量重算：增量在Redis故障或与重算交错时可能丢失，这里用一次分组查询整体覆盖
+     */
+    @Override
+    @Scheduled(initialDelayString = "${bluecommunity.category-counter.recount-initial-delay:60000}",
+            fixedDelayString = "${bluecommunity.category-counter.recount-interval:600000}")
+    public void recount() {
+        try {
+            save(load());
+        } catch (Exception e) {
+            log.error("重算分类话题计数失败", e);
+        }
+    }
+
+    private Map<Long, Map<Integer, Long>> load() {
+        Map<Long, Map<Integer, Long>> counts = new HashMap<>();
+        for (CategoryTopicCountDTO row : categoryMapper.countTopicsByCategoryAndStatus()) {
+            counts.computeIfAbsent(row.getCategoryId(), k -> new HashMap<>())
+                    .put(row.getStatus(), row.getCount() == null ? 0 : row.getCount());
+        }
+        return counts;
+    }
+
+    /**
+     * 写入临时key后整体RENAME，已经没有话题的分类不会残留旧计数
+     */
+    private void save(Map<Long, Map<Integer, Long>> counts) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put(LOADED_FIELD, "1");
+        counts.forEach((categoryId, statusCounts) -> statusCounts.forEach((status, count) ->
+                fields.put(field(categoryId, status), String.valueOf(count))));
+
+        String tmpKey = COUNT_KEY + ":tmp:" + UUID.randomUUID();
+        try {
+            redisTemplate.opsForHash().putAll(tmpKey, fields);
+            redisTemplate.rename(tmpKey, COUNT_KEY);
+        } catch (Exception e) {
+            log.warn("写入分类话题计数失败", e);
+        }
+    }
+
+    private Map<Long, Map<Integer, Long>> parse(Map<Object, Object> entries) {
+        Map<Long, Map<Integer, Long>> counts = new HashMap<>();
+        for (Map.Entry<Object, Object> entry : entries.entrySet()) {
+            String field = entry.getKey().toString();
+            int separator = field.indexOf(':');
+            if (separator < 0) {
+                continue;
+            }
+            Long categoryId = Long.valueOf(field.substring(0, separator));
+            Integer status = Integer.valueOf(field.substring(separator + 1));
+            // 增量与重算交错时可能短暂为负
+            long count = Math.max(0, Long.parseLong(entry.getValue().toString()));
+            counts.computeIfAbsent(categoryId, k -> new HashMap<>()).put(status, count);
+        }
+        return counts;
+    }
+
+    private String field(Long categoryId, Integer status) {
+        return categoryId + ":" + status;
+    }
+}
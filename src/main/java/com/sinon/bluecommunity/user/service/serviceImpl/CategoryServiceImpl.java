@@ -1,15 +1,23 @@
 package com.sinon.bluecommunity.user.service.serviceImpl;
 
 import com.sinon.bluecommunity.common.entity.Category;
+import com.sinon.bluecommunity.common.entity.Topic;
 import com.sinon.bluecommunity.common.exception.BusinessException;
+import com.sinon.bluecommunity.common.utils.TransactionUtils;
 import com.sinon.bluecommunity.user.mapper.CategoryMapper;
+import com.sinon.bluecommunity.user.service.CategoryCounterService;
+import com.sinon.bluecommunity.user.service.ContentVersionService;
 import com.sinon.bluecommunity.user.service.CategoryService;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class CategoryServiceImpl implements CategoryService {
@@ -17,6 +25,26 @@ public class CategoryServiceImpl implements CategoryService {
     @Autowired
     private CategoryMapper categoryMapper;
 
+    @Autowired
+    private CategoryCounterService categoryCounterService;
+
+    @Autowired
+    private ContentVersionService contentVersionService;
+
+    /**
+     * 分类列表快照有效期（秒）
+     */
+    @Value("${bluecommunity.category-counter.snapshot-ttl-seconds:30}")
+    private long snapshotTtlSeconds;
+
+    /**
+     * 带话题数的分类列表快照，分类变更时清空，其他节点的变更等快照过期后生效
+     */
+    private volatile CategorySnapshot snapshot;
+
+    private record CategorySnapshot(List<Category> categories, long expireAt) {
+    }
+
     @Override
     @Transactional
     public Category createCategory(Category category) {
@@ -36,6 +64,7 @@ public class CategoryServiceImpl implements CategoryService {
         }
 
         categoryMapper.insert(category);
+        invalidateSnapshot();
         return category;
     }
 
@@ -57,6 +86,7 @@ public class CategoryServiceImpl implements CategoryService {
         }
 
         categoryMapper.update(category);
+        invalidateSnapshot();
         return categoryMapper.selectById(category.getId());
     }
 
@@ -77,7 +107,9 @@ public class CategoryServiceImpl implements CategoryService {
             throw new BusinessException("该分类下还有" + topicCount + "个帖子，不能删除");
         }
         
-        return categoryMapper.deleteById(id) > 0;
+        boolean deleted = categoryMapper.deleteById(id) > 0;
+        invalidateSnapshot();
+        return deleted;
     }
 
     @Override
@@ -104,7 +136,12 @@ public class CategoryServiceImpl implements CategoryService {
 
     @Override
     public List<Category> getCategoriesWithTopicCount() {
-        return categoryMapper.listWithTopicCount();
+        CategorySnapshot current = snapshot;
+        if (current == null || current.expireAt() < System.currentTimeMillis()) {
+            current = refreshSnapshot();
+        }
+        // 返回副本，调用方修改不会影响快照
+        return current.categories().stream().map(this::copy).toList();
     }
 
     @Override
@@ -119,7 +156,9 @@ public class CategoryServiceImpl implements CategoryService {
             throw new BusinessException("分类不存在");
         }
 
-        return categoryMapper.updateSortOrder(id, sortOrder) > 0;
+        boolean updated = categoryMapper.updateSortOrder(id, sortOrder) > 0;
+        invalidateSnapshot();
+        return updated;
     }
 
     @Override
@@ -135,7 +174,9 @@ public class CategoryServiceImpl implements CategoryService {
             throw new BusinessException("分类不存在");
         }
 
-        return categoryMapper.updateStatus(id, status) > 0;
+        boolean updated = categoryMapper.updateStatus(id, status) > 0;
+        invalidateSnapshot();
+        return updated;
     }
 
     @Override
@@ -145,7 +186,9 @@ public class CategoryServiceImpl implements CategoryService {
         Assert.notNull(status, "状态不能为空");
         Assert.isTrue(status == 0 || status == 1, "状态值无效");
 
-        return categoryMapper.batchUpdateStatus(ids, status) > 0;
+        boolean updated = categoryMapper.batchUpdateStatus(ids, status) > 0;
+        invalidateSnapshot();
+        return updated;
     }
 
     @Override
@@ -159,7 +202,9 @@ public class CategoryServiceImpl implements CategoryService {
             Assert.notNull(category.getSortOrder(), "排序顺序不能为空");
         });
 
-        return categoryMapper.batchUpdateSortOrder(categories) > 0;
+        boolean updated = categoryMapper.batchUpdateSortOrder(categories) > 0;
+        invalidateSnapshot();
+        return updated;
     }
 
     @Override
@@ -167,4 +212,37 @@ public class CategoryServiceImpl implements CategoryService {
         Assert.hasText(name, "分类名称不能为空");
         return categoryMapper.checkNameExists(name, excludeId) > 0;
     }
+
+    /**
+     * 重建快照：正常状态的分类加上计数服务中的话题数，不再每次聚合话题表
+     * 并发请求只有一个重建，其余等待后直接使用新快照
+     */
+    private synchronized CategorySnapshot refreshSnapshot() {
+        CategorySnapshot current = snapshot;
+        if (current != null && current.expireAt() >= System.currentTimeMillis()) {
+            return current;
+        }
+        List<Category> categories = categoryMapper.listByStatus(Category.STATUS_NORMAL);
+        Map<Long, Map<Integer, Long>> counts = categoryCounterService.getAllCounts();
+        for (Category category : categories) {
+            long topicCount = counts.getOrDefault(category.getId(), Collections.emptyMap())
+                    .getOrDefault(Topic.STATUS_NORMAL, 0L);
+            category.setTopicCount((int) topicCount);
+        }
+        current = new CategorySnapshot(List.copyOf(categories),
+                System.currentTimeMillis() + snapshotTtlSeconds * 1000);
+        snapshot = current;
+        return current;
+    }
+
+    private void invalidateSnapshot() {
+        TransactionUtils.afterCommit(() -> snapshot = null);
+        contentVersionService.bump(ContentVersionService.SCOPE_CATEGORIES);
+    }
+
+    private Category copy(Category source) {
+        Category target = new Category();
+        BeanUtils.copyProperties(source, target);
+        return target;
+    }
 }
@@ -1,25 +1,46 @@
 package com.sinon.bluecommunity.user.service.serviceImpl;
 
+import com.sinon.bluecommunity.common.constant.CommonConstants;
+import com.sinon.bluecommunity.common.dto.CommentCursor;
+import com.sinon.bluecommunity.common.dto.CommentReplyCountDTO;
 import com.sinon.bluecommunity.common.entity.Comment;
+import com.sinon.bluecommunity.common.entity.Like;
 import com.sinon.bluecommunity.common.exception.BusinessException;
+import com.sinon.bluecommunity.common.utils.PermissionUtils;
 import com.sinon.bluecommunity.common.utils.RedisUtils;
 import com.sinon.bluecommunity.common.vo.CommentVO;
+import com.sinon.bluecommunity.common.vo.PageVO;
 import com.sinon.bluecommunity.user.mapper.CommentMapper;
 import com.sinon.bluecommunity.user.mapper.TopicMapper;
 import com.sinon.bluecommunity.user.service.CommentService;
+import com.sinon.bluecommunity.user.service.CommentThreadCacheService;
+import com.sinon.bluecommunity.user.service.HotTopicService;
+import com.sinon.bluecommunity.user.service.ContentVersionService;
+import com.sinon.bluecommunity.user.service.LikeService;
+import com.sinon.bluecommunity.user.service.TopicCacheService;
+import com.sinon.bluecommunity.user.service.UserStatsService;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * 评论服务实现类
  */
+@Slf4j
 @Service
 public class CommentServiceImpl implements CommentService {
 
@@ -29,12 +50,41 @@ public class CommentServiceImpl implements CommentService {
     @Autowired
     private TopicMapper topicMapper;
 
+    @Autowired
+    private HotTopicService hotTopicService;
+
+    @Autowired
+    private TopicCacheService topicCacheService;
+
+    @Autowired
+    private ContentVersionService contentVersionService;
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    private CommentThreadCacheService commentThreadCacheService;
+
     @Autowired
     private RedisUtils redisUtils;
 
     private static final String COMMENT_FREQUENCY_KEY = "comment:frequency:";
     private static final int MAX_COMMENTS_PER_MINUTE = 5;
     private static final int CONTENT_MAX_LENGTH = 1000;
+    private static final int MAX_CURSOR_PAGE_SIZE = 50;
+
+    // 评论列表排序方式
+    private static final String ORDER_TIME = "created_at";
+    private static final String ORDER_HOT = "hot";
+
+    /**
+     * 评论列表中每条一级评论附带的回复数
+     */
+    @Value("${bluecommunity.comment.reply-preview-size:50}")
+    private int replyPreviewSize;
     
     @Override
     @Transactional
@@ -62,9 +112,16 @@ public class CommentServiceImpl implements CommentService {
         comment.setLevel(1); // 设置为一级评论
 
         commentMapper.insert(comment);
+        userStatsService.increment(userId, UserStatsService.TYPE_COMMENT, 1);
+        commentThreadCacheService.onAdded(comment.getId());
 
         // 更新对应话题的评论数量
         topicMapper.updateComments(targetId, 1);
+        if ("topic".equals(targetType)) {
+            hotTopicService.onComment(targetId, 1);
+            topicCacheService.evict(targetId);
+            contentVersionService.bump(ContentVersionService.topicScope(targetId));
+        }
 
         return comment;
     }
@@ -110,6 +167,8 @@ public class CommentServiceImpl implements CommentService {
         comment.setLevel(2); // 设置为二级评论
 
         commentMapper.insert(comment);
+        userStatsService.increment(userId, UserStatsService.TYPE_COMMENT, 1);
+        commentThreadCacheService.onAdded(comment.getId());
         return comment;
     }
 
@@ -137,6 +196,7 @@ public class CommentServiceImpl implements CommentService {
         // 更新评论内容（直接存储原始内容）
         comment.setContent(content);
         commentMapper.update(comment);
+        commentThreadCacheService.onUpdated(commentId);
         return comment;
     }
 
@@ -150,7 +210,13 @@ public class CommentServiceImpl implements CommentService {
             throw new BusinessException("没有权限删除此评论");
         }
 
-        return commentMapper.deleteById(commentId) > 0;
+        Comment comment = commentMapper.getById(commentId);
+        int rows = commentMapper.deleteById(commentId);
+        userStatsService.increment(userId, UserStatsService.TYPE_COMMENT, -rows);
+        if (rows > 0 && comment != null) {
+            commentThreadCacheService.onRemoved(Collections.singletonList(comment));
+        }
+        return rows > 0;
     }
 
     @Override
@@ -176,6 +242,22 @@ public class CommentServiceImpl implements CommentService {
                                           "time", page, size, offset);
     }
 
+    /**
+     * 游标分页获取二级回复列表
+     * 多查一条用于判断是否还有下一页，不执行 COUNT 查询
+     */
+    @Override
+    public PageVO<Comment> getReplyListByCursor(Long parentId, Long userId, String cursor, Integer size) {
+        Assert.notNull(parentId, "父评论ID不能为空");
+        int limit = normalizeCursorPageSize(size);
+
+        // 解析游标（无效游标直接抛出参数错误）
+        List<Comment> replies = commentMapper.selectRepliesByCursor(parentId, CommentCursor.decode(cursor), limit + 1);
+        PageVO<Comment> result = toCursorPage(replies, limit);
+        fillLikes(Collections.emptyList(), result.getRecords(), userId);
+        return result;
+    }
+
     @Override
     public Long getCommentCount(Long targetId, String targetType, Long userId) {
         Assert.notNull(targetId, "目标ID不能为空");
@@ -190,13 +272,14 @@ public class CommentServiceImpl implements CommentService {
         Assert.notNull(userId, "用户ID不能为空");
 
         // 检查权限
-        for (Long commentId : commentIds) {
-            if (!hasCommentPermission(commentId, userId)) {
-                throw new BusinessException("没有权限删除评论ID: " + commentId);
-            }
-        }
-
-        return commentMapper.batchDelete(commentIds);
+        PermissionUtils.requireOwned(commentIds, batch -> commentMapper.selectOwnedIds(batch, userId),
+                "没有权限删除评论ID");
+
+        List<Comment> removed = commentMapper.selectByIds(commentIds);
+        int rows = commentMapper.batchDelete(commentIds);
+        userStatsService.increment(userId, UserStatsService.TYPE_COMMENT, -rows);
+        commentThreadCacheService.onRemoved(removed);
+        return rows;
     }
 
     @Override
@@ -213,6 +296,20 @@ public class CommentServiceImpl implements CommentService {
         return comments;
     }
 
+    /**
+     * 游标分页获取用户的评论列表，按时间倒序
+     */
+    @Override
+    public PageVO<Comment> getUserCommentsByCursor(Long userId, String cursor, Integer size) {
+        Assert.notNull(userId, "用户ID不能为空");
+        int limit = normalizeCursorPageSize(size);
+
+        // 解析游标（无效游标直接抛出参数错误）
+        List<Comment> comments = commentMapper.selectListByCursor(null, null, userId, null,
+                CommentCursor.decode(cursor), limit + 1);
+        return toCursorPage(comments, limit);
+    }
+
     @Override
     public List<Comment> getLatestComments(Integer limit) {
         Assert.notNull(limit, "限制数量不能为空");
@@ -232,6 +329,59 @@ public class CommentServiceImpl implements CommentService {
         return commentMapper.isCommentAuthor(commentId, userId);
     }
 
+    /**
+     * 多查一条的游标分页结果：多查出的一条说明还有下一页
+     */
+    private PageVO<Comment> toCursorPage(List<Comment> comments, int limit) {
+        String nextCursor = null;
+        if (comments.size() > limit) {
+            comments = new ArrayList<>(comments.subList(0, limit));
+            nextCursor = CommentCursor.of(comments.get(comments.size() - 1)).encode();
+        }
+        return PageVO.ofCursor(comments, nextCursor);
+    }
+
+    private int normalizeCursorPageSize(Integer size) {
+        return size == null || size < 1 ? CommonConstants.DEFAULT_PAGE_SIZE : Math.min(size, MAX_CURSOR_PAGE_SIZE);
+    }
+
+    /**
+     * 批量填充一级评论及其回复预览的点赞信息
+     */
+    private void fillLikes(List<CommentVO> roots, Long userId) {
+        List<Comment> replies = roots.stream()
+                .flatMap(vo -> vo.getReplies().stream())
+                .collect(Collectors.toList());
+        fillLikes(roots, replies, userId);
+    }
+
+    /**
+     * 批量填充点赞数和当前用户的点赞状态
+     * 读取失败时保留查询结果中的点赞数，不影响列表返回
+     */
+    private void fillLikes(List<CommentVO> roots, List<Comment> comments, Long userId) {
+        List<Long> ids = Stream.concat(roots.stream().map(CommentVO::getId), comments.stream().map(Comment::getId))
+                .distinct()
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return;
+        }
+        try {
+            Map<Long, Integer> counts = likeService.getLikeCounts(ids, Like.TARGET_TYPE_COMMENT);
+            Set<Long> liked = likeService.filterLiked(userId, ids, Like.TARGET_TYPE_COMMENT);
+            for (CommentVO vo : roots) {
+                vo.setLikeCount(counts.getOrDefault(vo.getId(), vo.getLikeCount()));
+                vo.setLiked(liked.contains(vo.getId()));
+            }
+            for (Comment comment : comments) {
+                comment.setLikeCount(counts.getOrDefault(comment.getId(), comment.getLikeCount()));
+                comment.setLiked(liked.contains(comment.getId()));
+            }
+        } catch (Exception e) {
+            log.warn("批量读取评论点赞信息失败", e);
+        }
+    }
+
     /**
      * 检查评论内容是否合法
      */
@@ -278,7 +428,11 @@ public class CommentServiceImpl implements CommentService {
     @Transactional
     public int cleanUserComments(Long userId) {
         Assert.notNull(userId, "用户ID不能为空");
-        return commentMapper.deleteByUserId(userId);
+        int rows = commentMapper.deleteByUserId(userId);
+        userStatsService.invalidate(Collections.singletonList(userId));
+        // 用户的评论分布在各个评论区，直接清空评论区缓存
+        commentThreadCacheService.invalidateAll();
+        return rows;
     }
 
     @Override
@@ -289,17 +443,84 @@ public class CommentServiceImpl implements CommentService {
         Assert.notNull(page, "页码不能为空");
         Assert.notNull(size, "每页大小不能为空");
 
-        // 获取一级评论列表
-        List<Comment> comments = commentMapper.getCommentList(targetId, targetType, userId, null, 1,
-                orderBy, page, size, offset);
+        // 按时间排序的前几页由评论区缓存返回
+        List<CommentVO> roots = ORDER_HOT.equals(orderBy) ? null
+                : commentThreadCacheService.getRoots(targetType, targetId, offset, size,
+                        limit -> loadLatestRoots(targetId, targetType, limit));
+        if (roots == null) {
+            // 获取一级评论列表，userId 是当前用户，不作为筛选条件
+            roots = withReplies(commentMapper.getCommentList(targetId, targetType, null, null, 1,
+                    orderBy, page, size, offset));
+        }
+        fillLikes(roots, userId);
+        return roots;
+    }
+
+    /**
+     * 游标分页获取评论列表（包含回复），按时间倒序
+     * 第一页由评论区缓存返回，多查一条用于判断是否还有下一页，不执行 COUNT 查询
+     */
+    @Override
+    public PageVO<CommentVO> getCommentListByCursor(Long targetId, String targetType, Long userId,
+                                                    String cursor, Integer size) {
+        Assert.notNull(targetId, "目标ID不能为空");
+        Assert.hasText(targetType, "目标类型不能为空");
+        int limit = normalizeCursorPageSize(size);
+
+        // 解析游标（无效游标直接抛出参数错误）
+        CommentCursor current = CommentCursor.decode(cursor);
+        List<CommentVO> roots = current != null ? null
+                : commentThreadCacheService.getRoots(targetType, targetId, 0, limit + 1,
+                        n -> loadLatestRoots(targetId, targetType, n));
+        if (roots == null) {
+            roots = withReplies(commentMapper.selectListByCursor(targetId, targetType, null, 1, current, limit + 1));
+        }
+
+        // 多查出的一条说明还有下一页
+        String nextCursor = null;
+        if (roots.size() > limit) {
+            roots = new ArrayList<>(roots.subList(0, limit));
+            nextCursor = CommentCursor.of(roots.get(roots.size() - 1)).encode();
+        }
+        fillLikes(roots, userId);
+        return PageVO.ofCursor(roots, nextCursor);
+    }
+
+    /**
+     * 读取评论区按时间倒序最新的若干条一级评论，用于加载评论区缓存
+     */
+    private List<CommentVO> loadLatestRoots(Long targetId, String targetType, int limit) {
+        return withReplies(commentMapper.getCommentList(targetId, targetType, null, null, 1,
+                ORDER_TIME, 1, limit, 0));
+    }
+
+    /**
+     * 为一级评论附带最新的回复、回复总数和加载更多回复的游标
+     * 整页一级评论的最新回复和回复数各用一条SQL批量读取
+     */
+    private List<CommentVO> withReplies(List<Comment> comments) {
+        if (comments.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> parentIds = comments.stream().map(Comment::getId).collect(Collectors.toList());
+        Map<Long, List<Comment>> repliesMap = new HashMap<>();
+        for (Comment reply : commentMapper.selectTopReplies(parentIds, replyPreviewSize)) {
+            repliesMap.computeIfAbsent(reply.getParentId(), key -> new ArrayList<>()).add(reply);
+        }
+        Map<Long, Long> replyCounts = new HashMap<>();
+        for (CommentReplyCountDTO row : commentMapper.countRepliesByParents(parentIds)) {
+            replyCounts.put(row.getParentId(), row.getCount());
+        }
 
-        // 转换为VO并获取每个评论的回复
         return comments.stream().map(comment -> {
+            List<Comment> replies = repliesMap.getOrDefault(comment.getId(), new ArrayList<>());
+            long replyCount = replyCounts.getOrDefault(comment.getId(), 0L);
             CommentVO vo = CommentVO.fromComment(comment);
-            // 获取该评论的所有二级回复
-            List<Comment> replies = commentMapper.getCommentList(targetId, targetType, null, comment.getId(), 2,
-                    "time", 1, 50, 0); // 默认获取50条回复
             vo.setReplies(replies);
+            vo.setReplyCount(replyCount);
+            if (replyCount > replies.size()) {
+                vo.setNextReplyCursor(CommentCursor.nextReplyCursor(replies));
+            }
             return vo;
         }).collect(Collectors.toList());
     }
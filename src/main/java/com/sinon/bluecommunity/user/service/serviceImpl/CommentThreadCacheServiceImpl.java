@@ -0,0 +1,411 @@
+package com.sinon.bluecommunity.user.service.serviceImpl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sinon.bluecommunity.common.dto.CommentCursor;
+import com.sinon.bluecommunity.common.entity.Comment;
+import com.sinon.bluecommunity.common.utils.TransactionUtils;
+import com.sinon.bluecommunity.common.vo.CommentVO;
+import com.sinon.bluecommunity.user.mapper.CommentMapper;
+import com.sinon.bluecommunity.user.service.CommentThreadCacheService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * 评论区首页缓存服务实现类
+ * 每个评论区缓存按 (创建时间, ID) 倒序的前N条一级评论，N 之内的分页直接由缓存返回。
+ * 变更先应用到本节点，再通过Redis发布给所有节点（也包括本节点），每种变更重复应用的结果相同；
+ * 无法确定增量结果的变更（例如删除预览之外的回复）直接清除该评论区，下次读取时重新加载
+ */
+@Slf4j
+@Service
+public class CommentThreadCacheServiceImpl implements CommentThreadCacheService, MessageListener {
+
+    @Autowired
+    private CommentMapper commentMapper;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 每个评论区缓存的一级评论数
+     */
+    @Value("${bluecommunity.comment-cache.window-size:50}")
+    private int windowSize;
+
+    /**
+     * 本地最多缓存的评论条数（一级评论加回复预览），评论区按其中的评论条数计入
+     */
+    @Value("${bluecommunity.comment-cache.max-comments:500000}")
+    private long maxComments;
+
+    /**
+     * 本地缓存过期时间（秒），兜底错过的变更通知
+     */
+    @Value("${bluecommunity.comment-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    /**
+     * 每条一级评论附带的回复数，与评论列表一致
+     */
+    @Value("${bluecommunity.comment.reply-preview-size:50}")
+    private int replyPreviewSize;
+
+    private static final String CHANGE_CHANNEL = "comment:thread:changed";
+
+    // 变更类型
+    private static final String ACTION_ADD = "add";
+    private static final String ACTION_UPDATE = "update";
+    private static final String ACTION_REMOVE = "remove";
+    private static final String ACTION_RESET = "reset";
+
+    /**
+     * 一级评论的排序：创建时间倒序，相同时ID倒序
+     */
+    private static final Comparator<CommentVO> NEWEST_FIRST = Comparator
+            .comparing(CommentVO::getCreatedAt)
+            .thenComparing(CommentVO::getId)
+            .reversed();
+
+    /**
+     * 评论区 -> 首页缓存；缓存对象本身不是线程安全的，读写时以缓存对象加锁
+     */
+    private Cache<String, ThreadPage> localCache;
+
+    /**
+     * 一个评论区的首页缓存
+     */
+    private static class ThreadPage {
+
+        /**
+         * 最新的一级评论，按时间倒序
+         */
+        private final List<CommentVO> roots;
+
+        /**
+         * 评论区的一级评论是否都在缓存中
+         */
+        private boolean complete;
+
+        ThreadPage(List<CommentVO> roots, boolean complete) {
+            this.roots = roots;
+            this.complete = complete;
+        }
+
+        /**
+         * 缓存的评论条数，至少为1；增量更新后由缓存的 computeIfPresent 重新计入
+         */
+        synchronized int weight() {
+            int weight = roots.size();
+            for (CommentVO root : roots) {
+                weight += root.getReplies().size();
+            }
+            return Math.max(weight, 1);
+        }
+    }
+
+    /**
+     * 评论变更消息
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class ChangeEvent {
+
+        /**
+         * 变更类型
+         */
+        private String action;
+
+        /**
+         * 变更的评论
+         */
+        private List<Comment> comments;
+    }
+
+    @PostConstruct
+    public void init() {
+        localCache = Caffeine.newBuilder()
+                .maximumWeight(maxComments)
+                .weigher((String key, ThreadPage page) -> page.weight())
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "comment.thread.cache");
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANGE_CHANNEL));
+    }
+
+    @Override
+    public List<CommentVO> getRoots(String targetType, Long targetId, int offset, int size,
+                                    IntFunction<List<CommentVO>> loader) {
+        String key = threadKey(targetType, targetId);
+        // 超出缓存范围的分页只使用已有的缓存（评论较少的评论区可能全部在缓存中），不为此加载
+        ThreadPage page = offset + size > windowSize
+                ? localCache.getIfPresent(key)
+                : localCache.get(key, k -> load(loader));
+        if (page == null) {
+            return null;
+        }
+        synchronized (page) {
+            if (offset + size > page.roots.size() && !page.complete) {
+                return null;
+            }
+            return page.roots.stream()
+                    .skip(offset)
+                    .limit(size)
+                    .map(this::copy)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    @Override
+    public void onAdded(Long commentId) {
+        publishAfterCommit(ACTION_ADD, commentId);
+    }
+
+    @Override
+    public void onUpdated(Long commentId) {
+        publishAfterCommit(ACTION_UPDATE, commentId);
+    }
+
+    @Override
+    public void onRemoved(List<Comment> comments) {
+        if (CollectionUtils.isEmpty(comments)) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> publish(new ChangeEvent(ACTION_REMOVE, comments)));
+    }
+
+    @Override
+    public void invalidateAll() {
+        TransactionUtils.afterCommit(() -> publish(new ChangeEvent(ACTION_RESET, new ArrayList<>())));
+    }
+
+    /**
+     * 收到其他节点（也包括本节点）的变更消息，更新本地缓存
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            apply(objectMapper.readValue(message.getBody(), ChangeEvent.class));
+        } catch (Exception e) {
+            log.warn("无效的评论区缓存变更消息: {}", message, e);
+        }
+    }
+
+    /**
+     * 事务提交后读取评论并发送变更
+     */
+    private void publishAfterCommit(String action, Long commentId) {
+        TransactionUtils.afterCommit(() -> {
+            try {
+                Comment comment = commentMapper.getById(commentId);
+                if (comment != null) {
+                    publish(new ChangeEvent(action, List.of(comment)));
+                }
+            } catch (Exception e) {
+                // 不知道评论所属的评论区，通知所有节点清空缓存，不能只清除本节点
+                log.warn("读取评论失败，清除所有节点的评论区缓存: {}", commentId, e);
+                publish(new ChangeEvent(ACTION_RESET, new ArrayList<>()));
+            }
+        });
+    }
+
+    /**
+     * 先应用到本节点，再通知所有节点
+     */
+    private void publish(ChangeEvent event) {
+        apply(event);
+        try {
+            redisTemplate.convertAndSend(CHANGE_CHANNEL, objectMapper.writeValueAsString(event));
+        } catch (Exception e) {
+            log.warn("发送评论区缓存变更通知失败: {}", event.getAction(), e);
+        }
+    }
+
+    private void apply(ChangeEvent event) {
+        if (ACTION_RESET.equals(event.getAction())) {
+            localCache.invalidateAll();
+            return;
+        }
+        for (Comment comment : event.getComments()) {
+            // 返回 false 时从缓存中移除该评论区
+            localCache.asMap().computeIfPresent(threadKey(comment.getTargetType(), comment.getTargetId()),
+                    (key, page) -> {
+                        synchronized (page) {
+                            return apply(page, event.getAction(), comment) ? page : null;
+                        }
+                    });
+        }
+    }
+
+    /**
+     * 把一条变更应用到评论区缓存
+     * @return 缓存是否仍然有效
+     */
+    private boolean apply(ThreadPage page, String action, Comment comment) {
+        boolean root = comment.getLevel() == null || comment.getLevel() == 1;
+        CommentVO parent = root ? null : findRoot(page, comment.getParentId());
+        if (!root && parent == null) {
+            // 回复所属的一级评论不在缓存中
+            return true;
+        }
+        switch (action) {
+            case ACTION_ADD:
+                return root ? addRoot(page, comment) : addReply(parent, comment);
+            case ACTION_UPDATE:
+                if (root) {
+                    CommentVO vo = findRoot(page, comment.getId());
+                    if (vo != null) {
+                        vo.setContent(comment.getContent());
+                        vo.setUpdatedAt(comment.getUpdatedAt());
+                    }
+                } else {
+                    Comment reply = findReply(parent, comment.getId());
+                    if (reply != null) {
+                        reply.setContent(comment.getContent());
+                        reply.setUpdatedAt(comment.getUpdatedAt());
+                    }
+                }
+                return true;
+            case ACTION_REMOVE:
+                if (root) {
+                    page.roots.removeIf(vo -> vo.getId().equals(comment.getId()));
+                    return true;
+                }
+                return removeReply(parent, comment);
+            default:
+                log.warn("未知的评论区缓存变更: {}", action);
+                return false;
+        }
+    }
+
+    /**
+     * 按时间顺序插入一级评论，超出缓存条数时去掉最旧的一条
+     */
+    private boolean addRoot(ThreadPage page, Comment comment) {
+        if (findRoot(page, comment.getId()) != null) {
+            return true;
+        }
+        CommentVO vo = CommentVO.fromComment(comment);
+        vo.setReplies(new ArrayList<>());
+        vo.setReplyCount(0L);
+        int index = 0;
+        while (index < page.roots.size() && NEWEST_FIRST.compare(page.roots.get(index), vo) < 0) {
+            index++;
+        }
+        if (index == page.roots.size() && !page.complete) {
+            // 比缓存中的评论都旧，不在缓存范围内
+            return true;
+        }
+        page.roots.add(index, vo);
+        if (page.roots.size() > windowSize) {
+            page.roots.remove(page.roots.size() - 1);
+            page.complete = false;
+        }
+        return true;
+    }
+
+    /**
+     * 新回复放在回复预览最前面，超出预览条数时去掉最旧的一条
+     */
+    private boolean addReply(CommentVO parent, Comment reply) {
+        if (findReply(parent, reply.getId()) != null) {
+            return true;
+        }
+        List<Comment> replies = parent.getReplies();
+        replies.add(0, reply);
+        parent.setReplyCount(parent.getReplyCount() + 1);
+        if (replies.size() > replyPreviewSize) {
+            replies.remove(replies.size() - 1);
+        }
+        parent.setNextReplyCursor(parent.getReplyCount() > replies.size()
+                ? CommentCursor.nextReplyCursor(replies)
+                : null);
+        return true;
+    }
+
+    /**
+     * 从回复预览中移除回复；预览之外还有回复时无法补齐预览，返回 false 使缓存失效
+     */
+    private boolean removeReply(CommentVO parent, Comment reply) {
+        List<Comment> replies = parent.getReplies();
+        boolean removed = replies.removeIf(item -> item.getId().equals(reply.getId()));
+        if (parent.getReplyCount() > replies.size() + (removed ? 1 : 0)) {
+            return false;
+        }
+        if (removed) {
+            parent.setReplyCount(parent.getReplyCount() - 1);
+        }
+        return true;
+    }
+
+    private ThreadPage load(IntFunction<List<CommentVO>> loader) {
+        // 多加载一条用于判断一级评论是否全部在缓存中
+        List<CommentVO> loaded = new ArrayList<>(loader.apply(windowSize + 1));
+        boolean complete = loaded.size() <= windowSize;
+        if (!complete) {
+            loaded = new ArrayList<>(loaded.subList(0, windowSize));
+        }
+        loaded.forEach(vo -> vo.setReplies(new ArrayList<>(vo.getReplies())));
+        return new ThreadPage(loaded, complete);
+    }
+
+    private CommentVO findRoot(ThreadPage page, Long id) {
+        return page.roots.stream().filter(vo -> vo.getId().equals(id)).findFirst().orElse(null);
+    }
+
+    private Comment findReply(CommentVO parent, Long id) {
+        return parent.getReplies().stream().filter(reply -> reply.getId().equals(id)).findFirst().orElse(null);
+    }
+
+    /**
+     * 复制一级评论和回复预览，调用方修改副本不影响缓存
+     */
+    private CommentVO copy(CommentVO source) {
+        CommentVO vo = new CommentVO();
+        BeanUtils.copyProperties(source, vo);
+        vo.setReplies(source.getReplies().stream().map(reply -> {
+            Comment copy = new Comment();
+            BeanUtils.copyProperties(reply, copy);
+            return copy;
+        }).collect(Collectors.toList()));
+        return vo;
+    }
+
+    private static String threadKey(String targetType, Long targetId) {
+        return targetType + ":" + targetId;
+    }
+}
@@ -0,0 +1,74 @@
+package com.sinon.bluecommunity.user.service.serviceImpl;
+
+import com.sinon.bluecommunity.common.utils.TransactionUtils;
+import com.sinon.bluecommunity.user.service.ContentVersionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 内容版本号服务实现类
+ * 版本号保存在Redis中，多个节点共享；单个话题的版本号设置过期时间，避免冷数据的key一直占用内存
+ */
+@Slf4j
+@Service
+public class ContentVersionServiceImpl implements ContentVersionService {
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    /**
+     * 单个话题版本号的保留时间（小时）
+     */
+    @Value("${bluecommunity.etag.topic-version-ttl-hours:168}")
+    private long topicVersionTtlHours;
+
+    // Redis key 前缀
+    private static final String VERSION_KEY_PREFIX = "content:version:";
+
+    @Override
+    public List<Long> getVersions(List<String> scopes) {
+        List<String> keys = scopes.stream().map(this::versionKey).toList();
+        try {
+            List<String> values = redisTemplate.opsForValue().multiGet(keys);
+            if (values == null) {
+                return null;
+            }
+            List<Long> versions = new ArrayList<>(values.size());
+            for (String value : values) {
+                versions.add(value == null ? 0L : Long.parseLong(value));
+            }
+            return versions;
+        } catch (Exception e) {
+            log.warn("读取内容版本号失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void bump(String... scopes) {
+        TransactionUtils.afterCommit(() -> {
+            for (String scope : scopes) {
+                try {
+                    String key = versionKey(scope);
+                    redisTemplate.opsForValue().increment(key);
+                    if (!SCOPE_TOPICS.equals(scope) && !SCOPE_CATEGORIES.equals(scope)) {
+                        redisTemplate.expire(key, Duration.ofHours(topicVersionTtlHours));
+                    }
+                } catch (Exception e) {
+                    log.warn("更新内容版本号失败: {}", scope, e);
+                }
+            }
+        });
+    }
+
+    private String versionKey(String scope) {
+        return VERSION_KEY_PREFIX + scope;
+    }
+}
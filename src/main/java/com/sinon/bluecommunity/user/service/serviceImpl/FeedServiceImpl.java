@@ -0,0 +1,402 @@
+package com.sinon.bluecommunity.user.service.serviceImpl;
+
+import com.sinon.bluecommunity.common.constant.CommonConstants;
+import com.sinon.bluecommunity.common.dto.FeedCursor;
+import com.sinon.bluecommunity.common.entity.Topic;
+import com.sinon.bluecommunity.common.exception.BusinessException;
+import com.sinon.bluecommunity.common.utils.TransactionUtils;
+import com.sinon.bluecommunity.common.vo.PageVO;
+import com.sinon.bluecommunity.common.vo.TopicSummaryVO;
+import com.sinon.bluecommunity.user.assembler.TopicAssembler;
+import com.sinon.bluecommunity.user.mapper.FollowMapper;
+import com.sinon.bluecommunity.user.mapper.TopicMapper;
+import com.sinon.bluecommunity.user.service.FeedService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 关注流服务实现类
+ * 收件箱是以发布时间（毫秒）为分数的ZSET，按 (发布时间, ID) 倒序排列，游标为上一页最后一条话题的 (发布时间, ID)；
+ * 草稿之后才发布的话题按发布时间进入关注流顶部，截断容量时不会被当作旧话题删除；
+ * 收件箱只在已存在时追加，不存在（新用户或长期未读过期）时读取前从数据库整体重建
+ */
+@Slf4j
+@Service
+public class FeedServiceImpl implements FeedService {
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private FollowMapper followMapper;
+
+    @Autowired
+    private TopicMapper topicMapper;
+
+    @Autowired
+    private TopicAssembler topicAssembler;
+
+    @Autowired
+    @Qualifier("feedFanoutExecutor")
+    private ThreadPoolTaskExecutor feedFanoutExecutor;
+
+    /**
+     * 每个收件箱保留的话题数
+     */
+    @Value("${bluecommunity.feed.inbox-size:500}")
+    private int inboxSize;
+
+    /**
+     * 粉丝数达到该值的作者不再写扩散，改为读取时拉取
+     */
+    @Value("${bluecommunity.feed.fanout-threshold:5000}")
+    private long fanoutThreshold;
+
+    /**
+     * 收件箱过期时间（天），每次读取时续期
+     */
+    @Value("${bluecommunity.feed.inbox-ttl-days:30}")
+    private long inboxTtlDays;
+
+    // Redis key；分数由话题ID改为发布时间后使用新的前缀，旧的收件箱不再读取，随过期时间清理
+    private static final String INBOX_KEY_PREFIX = "feed:inbox:v2:";
+    private static final String BIG_AUTHORS_KEY = "feed:big-authors";
+
+    /**
+     * 占位成员，分数为0，保证没有内容的收件箱也存在；读取时分数从1开始，不会读到它
+     */
+    private static final String PLACEHOLDER = "0";
+
+    /**
+     * 写扩散时每批处理的粉丝数
+     */
+    private static final int FANOUT_BATCH_SIZE = 500;
+
+    /**
+     * 按作者拉取话题时每条SQL包含的作者数，关注的人较多时分批查询后合并
+     */
+    private static final int PULL_AUTHOR_BATCH_SIZE = 500;
+
+    /**
+     * 一页内话题被删除或隐藏时，最多继续向后扫描的轮数
+     */
+    private static final int MAX_SCAN_ROUNDS = 3;
+
+    /**
+     * 关注流的排序：按 (发布时间, ID) 倒序
+     */
+    private static final Comparator<Topic> FEED_ORDER =
+            Comparator.comparing(Topic::getPublishedAt).thenComparing(Topic::getId).reversed();
+
+    /**
+     * 向已存在的收件箱追加话题并截断到容量上限，发布时间最早的话题先被截断
+     * KEYS 为收件箱，ARGV[1] 为容量，ARGV[2..] 为成对的 分数(发布时间), 话题ID
+     */
+    private static final RedisScript<Long> PUSH_SCRIPT = new DefaultRedisScript<>(
+            "local cap = tonumber(ARGV[1]) " +
+            "for _, key in ipairs(KEYS) do " +
+            "  if redis.call('EXISTS', key) == 1 then " +
+            "    for i = 2, #ARGV, 2 do redis.call('ZADD', key, ARGV[i], ARGV[i + 1]) end " +
+            "    redis.call('ZREMRANGEBYRANK', key, 0, -cap - 1) " +
+            "  end " +
+            "end " +
+            "return 0", Long.class);
+
+    @Override
+    public void publish(Long topicId, Long authorId) {
+        if (topicId == null || authorId == null) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> feedFanoutExecutor.execute(() -> fanout(topicId, authorId)));
+    }
+
+    @Override
+    public void onFollow(Long followerId, Long followeeId) {
+        TransactionUtils.afterCommit(() -> {
+            try {
+                if (isBigAuthor(followeeId)) {
+                    return;
+                }
+                List<Topic> entries = topicMapper.selectFeedEntries(
+                        Collections.singletonList(followeeId), null, inboxSize);
+                push(Collections.singletonList(followerId), entries);
+            } catch (Exception e) {
+                log.warn("关注后补充收件箱失败: followerId={}, followeeId={}", followerId, followeeId, e);
+            }
+        });
+    }
+
+    @Override
+    public void onUnfollow(Long followerId, Long followeeId) {
+        TransactionUtils.afterCommit(() -> {
+            try {
+                // 收件箱容量与查询数量一致，收件箱中该作者的话题一定在他最近的这些话题里
+                List<Topic> entries = topicMapper.selectFeedEntries(
+                        Collections.singletonList(followeeId), null, inboxSize);
+                if (!entries.isEmpty()) {
+                    redisTemplate.opsForZSet().remove(inboxKey(followerId),
+                            entries.stream().map(entry -> entry.getId().toString()).toArray());
+                }
+            } catch (Exception e) {
+                log.warn("取消关注后清理收件箱失败: followerId={}, followeeId={}", followerId, followeeId, e);
+            }
+        });
+    }
+
+    @Override
+    public PageVO<TopicSummaryVO> getFeed(Long userId, String cursor, Integer size) {
+        if (userId == null) {
+            throw new BusinessException("用户ID不能为空");
+        }
+        int pageSize = (size == null || size < 1) ? CommonConstants.DEFAULT_PAGE_SIZE
+                : Math.min(size, CommonConstants.MAX_PAGE_SIZE);
+        FeedCursor current = FeedCursor.decode(cursor);
+
+        // 大V的话题不在收件箱中，读取时从数据库拉取；Redis不可用时所有关注的人都走拉取
+        Set<Long> pullAuthors;
+        String inboxKey = null;
+        try {
+            pullAuthors = loadBigFollowees(userId);
+            inboxKey = ensureInbox(userId, pullAuthors);
+        } catch (Exception e) {
+            log.warn("读取收件箱失败，改为从数据库拉取关注流: userId={}", userId, e);
+            pullAuthors = new HashSet<>(followMapper.selectFolloweeIds(userId));
+        }
+
+        List<Topic> topics = new ArrayList<>();
+        Topic lastScanned = null;
+        boolean exhausted = false;
+        for (int round = 0; round < MAX_SCAN_ROUNDS && topics.size() < pageSize; round++) {
+            List<Topic> candidates = mergeCandidates(inboxKey, pullAuthors, current, pageSize);
+            Map<Long, Topic> visible = loadVisibleTopics(candidates);
+            for (Topic candidate : candidates) {
+                lastScanned = candidate;
+                Topic topic = visible.get(candidate.getId());
+                if (topic != null) {
+                    topics.add(topic);
+                    if (topics.size() == pageSize) {
+                        break;
+                    }
+                }
+            }
+            if (candidates.size() < pageSize) {
+                // 数据源已经没有更多话题，且这一轮的候选已全部扫描
+                exhausted = candidates.isEmpty() || lastScanned == candidates.get(candidates.size() - 1);
+                break;
+            }
+            current = FeedCursor.of(lastScanned);
+        }
+
+        String nextCursor = exhausted || lastScanned == null ? null : FeedCursor.of(lastScanned).encode();
+        return PageVO.ofCursor(topicAssembler.toSummaryList(topics), nextCursor);
+    }
+
+    /**
+     * 写扩散：分批读取粉丝，每批一次脚本调用推送到所有已存在的收件箱
+     */
+    private void fanout(Long topicId, Long authorId) {
+        try {
+            if (isBigAuthor(authorId)) {
+                return;
+            }
+            // 发布时间由数据库在状态变为正常时写入，提交后读取；推送前已被删除或改回草稿的不推送
+            Topic entry = topicMapper.selectFeedEntry(topicId);
+            if (entry == null || !entry.isNormal() || entry.getPublishedAt() == null) {
+                return;
+            }
+            if (followMapper.countFollowers(authorId) >= fanoutThreshold) {
+                // 一旦成为大V就一直走拉取，避免粉丝的收件箱中一部分话题推送、一部分拉取
+                redisTemplate.opsForSet().add(BIG_AUTHORS_KEY, authorId.toString());
+                return;
+            }
+            long lastFollowerId = 0;
+            int pushed = 0;
+            while (true) {
+                List<Long> followerIds = followMapper.selectFollowerIds(authorId, lastFollowerId, FANOUT_BATCH_SIZE);
+                if (CollectionUtils.isEmpty(followerIds)) {
+                    break;
+                }
+                push(followerIds, Collections.singletonList(entry));
+                pushed += followerIds.size();
+                lastFollowerId = followerIds.get(followerIds.size() - 1);
+                if (followerIds.size() < FANOUT_BATCH_SIZE) {
+                    break;
+                }
+            }
+            log.debug("话题推送到关注流: topicId={}, 粉丝数={}", topicId, pushed);
+        } catch (Exception e) {
+            log.error("话题推送到关注流失败: topicId={}, authorId={}", topicId, authorId, e);
+        }
+    }
+
+    private void push(List<Long> userIds, List<Topic> entries) {
+        if (CollectionUtils.isEmpty(userIds) || CollectionUtils.isEmpty(entries)) {
+            return;
+        }
+        List<String> keys = userIds.stream().map(this::inboxKey).collect(Collectors.toList());
+        List<String> args = new ArrayList<>(entries.size() * 2 + 1);
+        args.add(String.valueOf(inboxSize));
+        entries.forEach(entry -> {
+            args.add(String.valueOf(FeedCursor.toScore(entry.getPublishedAt())));
+            args.add(entry.getId().toString());
+        });
+        redisTemplate.execute(PUSH_SCRIPT, keys, args.toArray());
+    }
+
+    /**
+     * 确保收件箱存在并续期，不存在时用关注的普通作者的最近话题重建
+     */
+    private String ensureInbox(Long userId, Set<Long> bigFollowees) {
+        String key = inboxKey(userId);
+        if (Boolean.TRUE.equals(redisTemplate.expire(key, inboxTtlDays, TimeUnit.DAYS))) {
+            return key;
+        }
+
+        List<Long> pushAuthors = followMapper.selectFolloweeIds(userId).stream()
+                .filter(followeeId -> !bigFollowees.contains(followeeId))
+                .collect(Collectors.toList());
+        List<Topic> entries = selectFeedEntries(pushAuthors, null, inboxSize);
+
+        Set<ZSetOperations.TypedTuple<String>> members = new HashSet<>();
+        members.add(new DefaultTypedTuple<>(PLACEHOLDER, 0D));
+        entries.forEach(entry -> members.add(new DefaultTypedTuple<>(entry.getId().toString(),
+                (double) FeedCursor.toScore(entry.getPublishedAt()))));
+
+        String tmpKey = key + ":tmp:" + UUID.randomUUID();
+        redisTemplate.opsForZSet().add(tmpKey, members);
+        redisTemplate.expire(tmpKey, inboxTtlDays, TimeUnit.DAYS);
+        redisTemplate.rename(tmpKey, key);
+        return key;
+    }
+
+    /**
+     * 合并收件箱和拉取的话题，按 (发布时间, ID) 倒序取游标之后的前limit个
+     * 作者成为大V之前推送的话题同时在收件箱和拉取结果中，按ID去重
+     */
+    private List<Topic> mergeCandidates(String inboxKey, Set<Long> pullAuthors, FeedCursor cursor, int limit) {
+        Map<Long, Topic> merged = new HashMap<>();
+        if (inboxKey != null) {
+            readInbox(inboxKey, cursor, limit).forEach(entry -> merged.putIfAbsent(entry.getId(), entry));
+        }
+        selectFeedEntries(pullAuthors, cursor, limit).forEach(entry -> merged.putIfAbsent(entry.getId(), entry));
+        return merged.values().stream().sorted(FEED_ORDER).limit(limit).collect(Collectors.toList());
+    }
+
+    /**
+     * 读取收件箱中游标之后的前limit个话题，发布时间由分数还原
+     * 分数只到发布时间，与游标发布时间相同的话题要再按ID过滤，多取这些话题，保证过滤后仍有limit个
+     */
+    private List<Topic> readInbox(String inboxKey, FeedCursor cursor, int limit) {
+        double max = Double.POSITIVE_INFINITY;
+        long count = limit;
+        if (cursor != null) {
+            max = FeedCursor.toScore(cursor.getPublishedAt());
+            Long ties = redisTemplate.opsForZSet().count(inboxKey, max, max);
+            count += ties == null ? 0 : ties;
+        }
+        Set<ZSetOperations.TypedTuple<String>> tuples =
+                redisTemplate.opsForZSet().reverseRangeByScoreWithScores(inboxKey, 1, max, 0, count);
+        List<Topic> entries = new ArrayList<>();
+        if (tuples == null) {
+            return entries;
+        }
+        for (ZSetOperations.TypedTuple<String> tuple : tuples) {
+            Topic entry = new Topic();
+            entry.setId(Long.valueOf(tuple.getValue()));
+            entry.setPublishedAt(FeedCursor.fromScore(tuple.getScore()));
+            if (cursor == null || isAfter(entry, cursor)) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * 从数据库拉取一批作者在游标之后的最近话题，按 (发布时间, ID) 倒序取前limit个
+     * 作者按批拆分成多条SQL，避免关注的人很多时（例如Redis不可用时拉取全部关注）生成过长的IN列表
+     */
+    private List<Topic> selectFeedEntries(Collection<Long> authorIds, FeedCursor cursor, int limit) {
+        if (CollectionUtils.isEmpty(authorIds)) {
+            return Collections.emptyList();
+        }
+        List<Long> authors = new ArrayList<>(authorIds);
+        if (authors.size() <= PULL_AUTHOR_BATCH_SIZE) {
+            return topicMapper.selectFeedEntries(authors, cursor, limit);
+        }
+        List<Topic> merged = new ArrayList<>();
+        for (int from = 0; from < authors.size(); from += PULL_AUTHOR_BATCH_SIZE) {
+            List<Long> batch = authors.subList(from, Math.min(from + PULL_AUTHOR_BATCH_SIZE, authors.size()));
+            merged.addAll(topicMapper.selectFeedEntries(batch, cursor, limit));
+            merged.sort(FEED_ORDER);
+            if (merged.size() > limit) {
+                merged.subList(limit, merged.size()).clear();
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * 话题是否排在游标之后，即 (发布时间, ID) 小于游标
+     */
+    private boolean isAfter(Topic entry, FeedCursor cursor) {
+        int compared = entry.getPublishedAt().compareTo(cursor.getPublishedAt());
+        return compared < 0 || (compared == 0 && entry.getId() < cursor.getId());
+    }
+
+    /**
+     * 批量查询话题，只保留正常状态的；推送后被删除或改为草稿的话题在这里过滤
+     */
+    private Map<Long, Topic> loadVisibleTopics(List<Topic> candidates) {
+        if (candidates.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<Long> topicIds = candidates.stream().map(Topic::getId).collect(Collectors.toList());
+        Map<Long, Topic> topics = new HashMap<>();
+        for (Topic topic : topicMapper.selectSummariesByIds(topicIds)) {
+            if (Integer.valueOf(Topic.STATUS_NORMAL).equals(topic.getStatus())) {
+                topics.put(topic.getId(), topic);
+            }
+        }
+        return topics;
+    }
+
+    private Set<Long> loadBigFollowees(Long userId) {
+        Set<String> bigAuthors = redisTemplate.opsForSet().members(BIG_AUTHORS_KEY);
+        if (CollectionUtils.isEmpty(bigAuthors)) {
+            return Collections.emptySet();
+        }
+        Collection<Long> candidates = bigAuthors.stream().map(Long::valueOf).collect(Collectors.toList());
+        return new HashSet<>(followMapper.selectFolloweeIdsIn(userId, candidates));
+    }
+
+    private boolean isBigAuthor(Long authorId) {
+        return Boolean.TRUE.equals(redisTemplate.opsForSet().isMember(BIG_AUTHORS_KEY, authorId.toString()));
+    }
+
+    private String inboxKey(Long userId) {
+        return INBOX_KEY_PREFIX + userId;
+    }
+}
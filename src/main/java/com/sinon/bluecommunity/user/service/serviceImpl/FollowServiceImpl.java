@@ -4,6 +4,7 @@ import com.sinon.bluecommunity.common.entity.Follow;
 import com.sinon.bluecommunity.common.exception.BusinessException;
 import com.sinon.bluecommunity.common.vo.PageVO;
 import com.sinon.bluecommunity.user.mapper.FollowMapper;
+import com.sinon.bluecommunity.user.service.FeedService;
 import com.sinon.bluecommunity.user.service.FollowService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -22,6 +23,9 @@ public class FollowServiceImpl implements FollowService {
     @Autowired
     private FollowMapper followMapper;
 
+    @Autowired
+    private FeedService feedService;
+
     @Override
     @Transactional
     public void follow(Long followerId, Long followeeId) {
@@ -38,6 +42,7 @@ public class FollowServiceImpl implements FollowService {
         // 创建关注关系
         Follow follow = Follow.create(followerId, followeeId);
         followMapper.insert(follow);
+        feedService.onFollow(followerId, followeeId);
     }
 
     @Override
@@ -50,6 +55,7 @@ public class FollowServiceImpl implements FollowService {
 
         // 删除关注关系
         followMapper.deleteByFollowerAndFollowee(followerId, followeeId);
+        feedService.onUnfollow(followerId, followeeId);
     }
 
     @Override
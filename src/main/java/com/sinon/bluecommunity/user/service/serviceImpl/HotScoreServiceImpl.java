@@ -0,0 +1,110 @@
+package com.sinon.bluecommunity.user.service.serviceImpl;
+
+import com.sinon.bluecommunity.common.entity.Topic;
+import com.sinon.bluecommunity.user.service.HotScoreService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * 话题热度计算服务实现类
+ * 综合热度 = (浏览量×0.2 + 点赞数×0.4 + 评论数×0.4) × 0.5^(话题年龄/半衰期)
+ *
+ * 话题年龄按基准时间计算，所有话题的分数随时间按同一比例衰减，
+ * 因此只要同一批分数使用相同的基准时间，排序就与按当前时间计算的结果一致；
+ * 新增的浏览、点赞、评论也按基准时间折算后累加
+ */
+@Service
+public class HotScoreServiceImpl implements HotScoreService {
+
+    // 热度类型
+    public static final String TYPE_COMPREHENSIVE = "comprehensive";
+    public static final String TYPE_VIEWS = "views";
+    public static final String TYPE_LIKES = "likes";
+    public static final String TYPE_COMMENTS = "comments";
+    private static final List<String> HOT_TYPES = List.of(TYPE_COMPREHENSIVE, TYPE_VIEWS, TYPE_LIKES, TYPE_COMMENTS);
+
+    // 综合热度权重：浏览量×0.2 + 点赞数×0.4 + 评论数×0.4
+    private static final double VIEW_WEIGHT = 0.2;
+    private static final double LIKE_WEIGHT = 0.4;
+    private static final double COMMENT_WEIGHT = 0.4;
+
+    private static final double SECONDS_PER_HOUR = 3600.0;
+
+    /**
+     * 综合热度半衰期（小时），小于等于0表示不衰减
+     */
+    @Value("${bluecommunity.hot-topic.half-life-hours:24}")
+    private double halfLifeHours;
+
+    @Override
+    public List<String> getHotTypes() {
+        return HOT_TYPES;
+    }
+
+    @Override
+    public double score(String hotType, Topic topic, long referenceTime) {
+        int views = topic.getViews() == null ? 0 : topic.getViews();
+        int likes = topic.getLikes() == null ? 0 : topic.getLikes();
+        int comments = topic.getComments() == null ? 0 : topic.getComments();
+        switch (hotType) {
+            case TYPE_VIEWS:
+                return views;
+            case TYPE_LIKES:
+                return likes;
+            case TYPE_COMMENTS:
+                return comments;
+            default:
+                double raw = views * VIEW_WEIGHT + likes * LIKE_WEIGHT + comments * COMMENT_WEIGHT;
+                return raw * decay(epochSecond(topic.getCreatedAt()), referenceTime);
+        }
+    }
+
+    @Override
+    public double increment(String hotType, String counter, int delta, long createdAt, long referenceTime) {
+        if (hotType.equals(counter)) {
+            return delta;
+        }
+        if (!TYPE_COMPREHENSIVE.equals(hotType)) {
+            return 0;
+        }
+        return delta * weight(counter) * decay(createdAt, referenceTime);
+    }
+
+    @Override
+    public double getHalfLifeHours() {
+        return halfLifeHours;
+    }
+
+    /**
+     * 衰减系数：话题每经过一个半衰期，分数减半
+     * 基准时间早于创建时间时系数大于1，保证与已有分数处于同一尺度
+     */
+    private double decay(long createdAt, long referenceTime) {
+        if (halfLifeHours <= 0) {
+            return 1;
+        }
+        double ageHours = (referenceTime - createdAt) / SECONDS_PER_HOUR;
+        return Math.pow(0.5, ageHours / halfLifeHours);
+    }
+
+    private double weight(String counter) {
+        switch (counter) {
+            case TYPE_VIEWS:
+                return VIEW_WEIGHT;
+            case TYPE_LIKES:
+                return LIKE_WEIGHT;
+            case TYPE_COMMENTS:
+                return COMMENT_WEIGHT;
+            default:
+                return 0;
+        }
+    }
+
+    private long epochSecond(LocalDateTime time) {
+        return time == null ? 0 : time.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+}
@@ -0,0 +1,336 @@
+package com.sinon.bluecommunity.user.service.serviceImpl;
+
+import com.sinon.bluecommunity.common.entity.Topic;
+import com.sinon.bluecommunity.common.utils.TransactionUtils;
+import com.sinon.bluecommunity.user.mapper.TopicMapper;
+import com.sinon.bluecommunity.user.service.HotScoreService;
+import com.sinon.bluecommunity.user.service.HotTopicService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 热门话题排行服务实现类
+ * 每种热度类型在全站和每个分类下各维护一个有序集合，成员为话题ID，分数为热度；
+ * 分数由 HotScoreService 按上次重建的基准时间计算，定时重建时刷新基准时间
+ */
+@Slf4j
+@Service
+public class HotTopicServiceImpl implements HotTopicService {
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private TopicMapper topicMapper;
+
+    @Autowired
+    private HotScoreService hotScoreService;
+
+    /**
+     * 热榜维护的时间窗口（天）
+     */
+    @Value("${bluecommunity.hot-topic.window-days:7}")
+    private int windowDays;
+
+    // Redis key 前缀
+    private static final String RANK_KEY_PREFIX = "hot:topic:rank:";
+    private static final String CREATED_KEY = "hot:topic:created";
+    private static final String CATEGORY_KEY = "hot:topic:category";
+    private static final String RANK_KEYS_KEY = "hot:topic:keys";
+    private static final String REFERENCE_KEY = "hot:topic:reference";
+    private static final String REBUILD_LOCK_KEY = "hot:topic:rebuild:lock";
+    private static final String REBUILD_SUFFIX = ":rebuild";
+    private static final String SCOPE_ALL = "all";
+
+    // 计数类型
+    private static final String COUNTER_VIEWS = "views";
+    private static final String COUNTER_LIKES = "likes";
+    private static final String COUNTER_COMMENTS = "comments";
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+    private static final long REBUILD_LOCK_MINUTES = 5;
+
+    @Override
+    public boolean supports(Integer days) {
+        try {
+            return days != null && days == windowDays && Boolean.TRUE.equals(redisTemplate.hasKey(REFERENCE_KEY));
+        } catch (Exception e) {
+            log.warn("检查热榜状态失败，回退到数据库查询: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public List<Long> getHotTopicIds(Long categoryId, String hotType, int offset, int size) {
+        Set<String> members = redisTemplate.opsForZSet()
+                .reverseRange(rankKey(normalizeHotType(hotType), categoryId), offset, offset + size - 1L);
+        if (CollectionUtils.isEmpty(members)) {
+            return new ArrayList<>();
+        }
+        return members.stream().map(Long::valueOf).collect(Collectors.toList());
+    }
+
+    @Override
+    public long countHotTopics(Long categoryId) {
+        Long count = redisTemplate.opsForZSet().zCard(rankKey(defaultHotType(), categoryId));
+        return count == null ? 0 : count;
+    }
+
+    @Override
+    public void onView(Long topicId, int delta) {
+        increment(topicId, COUNTER_VIEWS, delta);
+    }
+
+    @Override
+    public void onLike(Long topicId, int delta) {
+        increment(topicId, COUNTER_LIKES, delta);
+    }
+
+    @Override
+    public void onComment(Long topicId, int delta) {
+        increment(topicId, COUNTER_COMMENTS, delta);
+    }
+
+    @Override
+    public void refresh(List<Long> topicIds) {
+        if (CollectionUtils.isEmpty(topicIds)) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            try {
+                List<Topic> topics = topicMapper.selectByIds(topicIds);
+                Map<Long, Topic> topicMap = topics.stream()
+                        .collect(Collectors.toMap(Topic::getId, topic -> topic, (a, b) -> a));
+                LocalDateTime windowStart = LocalDateTime.now().minusDays(windowDays);
+                long referenceTime = referenceTime();
+
+                for (Long topicId : topicIds) {
+                    removeFromRanks(topicId);
+                    Topic topic = topicMap.get(topicId);
+                    if (topic != null && topic.isNormal() && topic.getCreatedAt() != null
+                            && topic.getCreatedAt().isAfter(windowStart)) {
+                        addToRanks(topic, referenceTime);
+                    }
+                }
+            } catch (Exception e) {
+                log.warn("同步话题热榜失败: {}", topicIds, e);
+            }
+        });
+    }
+
+    /**
+     * 定时从数据库重建热榜
+     * 新数据先写入临时key再整体RENAME，重建期间读请求不会看到空榜；
+     * 多节点部署时通过分布式锁保证同一时间只有一个节点重建
+     */
+    @Override
+    @Scheduled(initialDelayString = "${bluecommunity.hot-topic.rebuild-initial-delay:60000}",
+            fixedDelayString = "${bluecommunity.hot-topic.rebuild-interval:600000}")
+    public void rebuild() {
+        try {
+            Boolean locked = redisTemplate.opsForValue()
+                    .setIfAbsent(REBUILD_LOCK_KEY, "1", REBUILD_LOCK_MINUTES, TimeUnit.MINUTES);
+            if (!Boolean.TRUE.equals(locked)) {
+                return;
+            }
+            try {
+                doRebuild();
+            } finally {
+                redisTemplate.delete(REBUILD_LOCK_KEY);
+            }
+        } catch (Exception e) {
+            log.error("重建热门话题排行失败", e);
+        }
+    }
+
+    private void doRebuild() {
+        long start = System.currentTimeMillis();
+        long referenceTime = start / 1000;
+        Map<String, Set<ZSetOperations.TypedTuple<String>>> ranks = new HashMap<>();
+        Set<ZSetOperations.TypedTuple<String>> created = new HashSet<>();
+        Map<String, String> categories = new HashMap<>();
+
+        long lastId = 0;
+        while (true) {
+            List<Topic> batch = topicMapper.selectRankingSource(windowDays, lastId, REBUILD_BATCH_SIZE);
+            if (CollectionUtils.isEmpty(batch)) {
+                break;
+            }
+            for (Topic topic : batch) {
+                String member = topic.getId().toString();
+                for (String hotType : hotScoreService.getHotTypes()) {
+                    double score = hotScoreService.score(hotType, topic, referenceTime);
+                    ranks.computeIfAbsent(rankKey(hotType, null), k -> new HashSet<>())
+                            .add(new DefaultTypedTuple<>(member, score));
+                    if (topic.getCategoryId() != null) {
+                        ranks.computeIfAbsent(rankKey(hotType, topic.getCategoryId()), k -> new HashSet<>())
+                                .add(new DefaultTypedTuple<>(member, score));
+                    }
+                }
+                created.add(new DefaultTypedTuple<>(member, (double) epochSecond(topic.getCreatedAt())));
+                if (topic.getCategoryId() != null) {
+                    categories.put(member, topic.getCategoryId().toString());
+                }
+            }
+            lastId = batch.get(batch.size() - 1).getId();
+            if (batch.size() < REBUILD_BATCH_SIZE) {
+                break;
+            }
+        }
+
+        // 写入临时key后原子替换
+        for (Map.Entry<String, Set<ZSetOperations.TypedTuple<String>>> entry : ranks.entrySet()) {
+            replaceZSet(entry.getKey(), entry.getValue());
+        }
+        replaceZSet(CREATED_KEY, created);
+        if (categories.isEmpty()) {
+            redisTemplate.delete(CATEGORY_KEY);
+        } else {
+            String tmpKey = CATEGORY_KEY + REBUILD_SUFFIX;
+            redisTemplate.delete(tmpKey);
+            redisTemplate.opsForHash().putAll(tmpKey, categories);
+            redisTemplate.rename(tmpKey, CATEGORY_KEY);
+        }
+
+        // 删除已经没有话题的分类热榜
+        Set<String> oldKeys = redisTemplate.opsForSet().members(RANK_KEYS_KEY);
+        if (!CollectionUtils.isEmpty(oldKeys)) {
+            List<String> staleKeys = oldKeys.stream()
+                    .filter(key -> !ranks.containsKey(key))
+                    .collect(Collectors.toList());
+            if (!staleKeys.isEmpty()) {
+                redisTemplate.delete(staleKeys);
+            }
+        }
+        redisTemplate.delete(RANK_KEYS_KEY);
+        if (!ranks.isEmpty()) {
+            redisTemplate.opsForSet().add(RANK_KEYS_KEY, ranks.keySet().toArray(new String[0]));
+        }
+        // 新的基准时间生效后，增量更新按新基准折算
+        redisTemplate.opsForValue().set(REFERENCE_KEY, String.valueOf(referenceTime));
+
+        log.info("重建热门话题排行完成: {} 个话题, {} 个榜单, 耗时 {} ms",
+                created.size(), ranks.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 增量更新热度
+     * 只更新仍在时间窗口内的话题，避免把旧话题重新加入热榜
+     */
+    private void increment(Long topicId, String counter, int delta) {
+        if (topicId == null || delta == 0) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            try {
+                String member = topicId.toString();
+                Double createdAt = redisTemplate.opsForZSet().score(CREATED_KEY, member);
+                if (createdAt == null) {
+                    return;
+                }
+                Object categoryId = redisTemplate.opsForHash().get(CATEGORY_KEY, member);
+                long referenceTime = referenceTime();
+                ZSetOperations<String, String> zSetOps = redisTemplate.opsForZSet();
+                for (String hotType : hotScoreService.getHotTypes()) {
+                    double increment = hotScoreService.increment(hotType, counter, delta,
+                            createdAt.longValue(), referenceTime);
+                    if (increment == 0) {
+                        continue;
+                    }
+                    zSetOps.incrementScore(rankKey(hotType, null), member, increment);
+                    if (categoryId != null) {
+                        zSetOps.incrementScore(rankKey(hotType, Long.valueOf(categoryId.toString())), member, increment);
+                    }
+                }
+            } catch (Exception e) {
+                log.warn("更新话题热度失败: topicId={}, counter={}", topicId, counter, e);
+            }
+        });
+    }
+
+    private void addToRanks(Topic topic, long referenceTime) {
+        String member = topic.getId().toString();
+        ZSetOperations<String, String> zSetOps = redisTemplate.opsForZSet();
+        for (String hotType : hotScoreService.getHotTypes()) {
+            double score = hotScoreService.score(hotType, topic, referenceTime);
+            zSetOps.add(rankKey(hotType, null), member, score);
+            if (topic.getCategoryId() != null) {
+                String key = rankKey(hotType, topic.getCategoryId());
+                zSetOps.add(key, member, score);
+                redisTemplate.opsForSet().add(RANK_KEYS_KEY, key);
+            }
+        }
+        zSetOps.add(CREATED_KEY, member, epochSecond(topic.getCreatedAt()));
+        if (topic.getCategoryId() != null) {
+            redisTemplate.opsForHash().put(CATEGORY_KEY, member, topic.getCategoryId().toString());
+        }
+    }
+
+    private void removeFromRanks(Long topicId) {
+        String member = topicId.toString();
+        Object categoryId = redisTemplate.opsForHash().get(CATEGORY_KEY, member);
+        ZSetOperations<String, String> zSetOps = redisTemplate.opsForZSet();
+        for (String hotType : hotScoreService.getHotTypes()) {
+            zSetOps.remove(rankKey(hotType, null), member);
+            if (categoryId != null) {
+                zSetOps.remove(rankKey(hotType, Long.valueOf(categoryId.toString())), member);
+            }
+        }
+        zSetOps.remove(CREATED_KEY, member);
+        redisTemplate.opsForHash().delete(CATEGORY_KEY, member);
+    }
+
+    private void replaceZSet(String key, Set<ZSetOperations.TypedTuple<String>> tuples) {
+        if (tuples.isEmpty()) {
+            redisTemplate.delete(key);
+            return;
+        }
+        String tmpKey = key + REBUILD_SUFFIX;
+        redisTemplate.delete(tmpKey);
+        redisTemplate.opsForZSet().add(tmpKey, tuples);
+        redisTemplate.rename(tmpKey, key);
+    }
+
+    /**
+     * 当前热榜分数的基准时间（epoch秒），热榜尚未重建时使用当前时间
+     */
+    private long referenceTime() {
+        String value = redisTemplate.opsForValue().get(REFERENCE_KEY);
+        return value == null ? System.currentTimeMillis() / 1000 : Long.parseLong(value);
+    }
+
+    private String normalizeHotType(String hotType) {
+        List<String> hotTypes = hotScoreService.getHotTypes();
+        return hotTypes.contains(hotType) ? hotType : defaultHotType();
+    }
+
+    private String defaultHotType() {
+        return hotScoreService.getHotTypes().get(0);
+    }
+
+    private String rankKey(String hotType, Long categoryId) {
+        return RANK_KEY_PREFIX + hotType + ":" + (categoryId == null ? SCOPE_ALL : categoryId.toString());
+    }
+
+    private long epochSecond(LocalDateTime time) {
+        return time == null ? 0 : time.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+}
@@ -0,0 +1,255 @@
+package com.sinon.bluecommunity.user.service.serviceImpl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sinon.bluecommunity.user.service.LikeIndexService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 点赞用户索引服务实现类
+ * 本地使用 Caffeine 缓存各目标的位图（按位图字节数限制总大小），未命中时由调用方从Redis点赞集合加载，
+ * 点赞集合包含尚未落库的变更，加载出的位图与点赞脚本的判断一致。
+ * 点赞脚本在变更点赞集合的同时发布变更通知，各节点按脚本执行的顺序收到通知并更新本地位图。
+ * 加载在缓存的计算锁之外执行，同一目标只有一个线程加载、其他线程等待结果；
+ * 加载期间到达的变更先暂存，加载完成后按顺序重放再放入缓存，不会被加载结果覆盖。
+ * 位图按无符号32位整数保存用户ID
+ */
+@Slf4j
+@Service
+public class LikeIndexServiceImpl implements LikeIndexService, MessageListener {
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 本地位图缓存的最大总字节数
+     */
+    @Value("${bluecommunity.like-index.local-max-bytes:67108864}")
+    private long localMaxBytes;
+
+    /**
+     * 本地位图缓存时间（分钟），兜底错过的变更通知
+     */
+    @Value("${bluecommunity.like-index.local-ttl-minutes:10}")
+    private long localTtlMinutes;
+
+    // 本地缓存key前缀
+    private static final String INDEX_KEY_PREFIX = "like:index:";
+
+    /**
+     * 目标 -> 点赞用户位图；位图本身不是线程安全的，读写时以位图对象加锁
+     */
+    private Cache<String, RoaringBitmap> localCache;
+
+    /**
+     * 正在加载的目标 -> 加载结果和加载期间到达的变更
+     */
+    private final ConcurrentHashMap<String, PendingLoad> loading = new ConcurrentHashMap<>();
+
+    /**
+     * 一次进行中的加载；changes 读写时以 changes 加锁
+     */
+    private static class PendingLoad {
+        final CompletableFuture<RoaringBitmap> result = new CompletableFuture<>();
+        final List<Change> changes = new ArrayList<>();
+    }
+
+    /**
+     * 一次点赞状态变化
+     */
+    private record Change(int userIndex, boolean liked) {
+    }
+
+    @PostConstruct
+    public void init() {
+        localCache = Caffeine.newBuilder()
+                .maximumWeight(localMaxBytes)
+                .weigher((String key, RoaringBitmap bitmap) -> (int) Math.min(bitmap.getLongSizeInBytes(), Integer.MAX_VALUE))
+                .expireAfterWrite(Duration.ofMinutes(localTtlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "like.index.cache");
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANGE_CHANNEL));
+    }
+
+    @Override
+    public boolean contains(String targetType, Long targetId, Long userId, Function<Long, Collection<Long>> loader) {
+        RoaringBitmap bitmap = getBitmap(indexKey(targetType, targetId), targetId, loader);
+        synchronized (bitmap) {
+            return bitmap.contains(toIndex(userId));
+        }
+    }
+
+    @Override
+    public Set<Long> filterLiked(String targetType, Collection<Long> targetIds, Long userId,
+                                 Function<Long, Collection<Long>> loader) {
+        Set<Long> liked = new HashSet<>();
+        if (CollectionUtils.isEmpty(targetIds)) {
+            return liked;
+        }
+        int index = toIndex(userId);
+        for (Long targetId : new HashSet<>(targetIds)) {
+            RoaringBitmap bitmap = getBitmap(indexKey(targetType, targetId), targetId, loader);
+            synchronized (bitmap) {
+                if (bitmap.contains(index)) {
+                    liked.add(targetId);
+                }
+            }
+        }
+        return liked;
+    }
+
+    @Override
+    public void onChanged(String targetType, Long targetId, Long userId, boolean liked) {
+        // 本节点的通知稍后也会到达，重复应用结果不变；其间更早的通知先到时，位图最终以最后一条通知为准
+        applyLocal(indexKey(targetType, targetId), new Change(toIndex(userId), liked));
+    }
+
+    /**
+     * 收到其他节点（也包括本节点）的变更通知，更新本地位图
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        // 格式：类型:目标ID:用户ID:状态
+        int stateIndex = body.lastIndexOf(':');
+        int userIndex = body.lastIndexOf(':', stateIndex - 1);
+        try {
+            applyLocal(INDEX_KEY_PREFIX + body.substring(0, userIndex),
+                    new Change(toIndex(Long.valueOf(body.substring(userIndex + 1, stateIndex))),
+                            "1".equals(body.substring(stateIndex + 1))));
+        } catch (RuntimeException e) {
+            log.warn("无效的点赞索引变更通知: {}", body);
+        }
+    }
+
+    /**
+     * 读取目标的位图，本地没有时加载
+     * 先登记进行中的加载再读取点赞集合：登记之前到达的变更已写入点赞集合，会被读到；
+     * 登记之后到达的变更暂存在登记中，放入缓存前重放
+     */
+    private RoaringBitmap getBitmap(String key, Long targetId, Function<Long, Collection<Long>> loader) {
+        RoaringBitmap cached = localCache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        PendingLoad pending = new PendingLoad();
+        PendingLoad existing = loading.putIfAbsent(key, pending);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            RoaringBitmap bitmap = load(targetId, loader);
+            synchronized (pending.changes) {
+                pending.changes.forEach(change -> apply(bitmap, change));
+                // 先放入缓存再移除登记，之后到达的变更直接应用到缓存中的位图
+                localCache.put(key, bitmap);
+                loading.remove(key);
+            }
+            pending.result.complete(bitmap);
+            return bitmap;
+        } catch (RuntimeException e) {
+            loading.remove(key, pending);
+            pending.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * 等待其他线程的加载结果，加载失败时抛出同样的异常
+     */
+    private RoaringBitmap await(PendingLoad pending) {
+        try {
+            return pending.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 由调用方提供的方法加载目标的全部点赞用户并生成位图
+     */
+    private RoaringBitmap load(Long targetId, Function<Long, Collection<Long>> loader) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (Long userId : loader.apply(targetId)) {
+            if (LikeIndexService.supports(userId)) {
+                bitmap.add(toIndex(userId));
+            }
+        }
+        bitmap.runOptimize();
+        return bitmap;
+    }
+
+    /**
+     * 把变更应用到本地位图：目标正在加载时暂存到加载登记中，本地没有该目标的位图时不处理
+     */
+    private void applyLocal(String key, Change change) {
+        PendingLoad pending = loading.get(key);
+        if (pending != null) {
+            synchronized (pending.changes) {
+                if (loading.get(key) == pending) {
+                    pending.changes.add(change);
+                    return;
+                }
+            }
+        }
+        RoaringBitmap bitmap = localCache.getIfPresent(key);
+        if (bitmap != null) {
+            apply(bitmap, change);
+        }
+    }
+
+    private void apply(RoaringBitmap bitmap, Change change) {
+        synchronized (bitmap) {
+            if (change.liked()) {
+                bitmap.add(change.userIndex());
+            } else {
+                bitmap.remove(change.userIndex());
+            }
+        }
+    }
+
+    /**
+     * 用户ID转换为位图中的无符号32位整数
+     */
+    private int toIndex(Long userId) {
+        if (!LikeIndexService.supports(userId)) {
+            throw new IllegalArgumentException("用户ID超出点赞索引范围: " + userId);
+        }
+        return (int) userId.longValue();
+    }
+
+    private String indexKey(String targetType, Long targetId) {
+        return INDEX_KEY_PREFIX + targetType + ":" + targetId;
+    }
+}
@@ -0,0 +1,276 @@
+package com.sinon.bluecommunity.user.service.serviceImpl;
+
+import com.sinon.bluecommunity.common.dto.LikeReconcileReport;
+import com.sinon.bluecommunity.common.dto.LikeTargetDTO;
+import com.sinon.bluecommunity.common.entity.Like;
+import com.sinon.bluecommunity.common.utils.RedisLockUtils;
+import com.sinon.bluecommunity.user.mapper.ActivityMapper;
+import com.sinon.bluecommunity.user.mapper.CommentMapper;
+import com.sinon.bluecommunity.user.mapper.LikeMapper;
+import com.sinon.bluecommunity.user.mapper.ResourceMapper;
+import com.sinon.bluecommunity.user.mapper.TopicMapper;
+import com.sinon.bluecommunity.user.service.ContentVersionService;
+import com.sinon.bluecommunity.user.service.LikeReconcileService;
+import com.sinon.bluecommunity.user.service.LikeService;
+import com.sinon.bluecommunity.user.service.LikeSyncService;
+import com.sinon.bluecommunity.user.service.TopicCacheService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 点赞数校对服务实现类
+ * 按ID顺序分批遍历各类目标，用一条分组SQL统计每批目标的实际点赞数，修正不一致的冗余点赞数字段和Redis计数。
+ * 每批在落库任务的锁内执行，期间点赞记录和冗余点赞数都不会变化；批与批之间释放锁并暂停，避免影响落库和线上查询。
+ * 资源和活动的历史点赞数不完全来自 likes 表（匿名点赞、尚未迁移的 resource_likes），默认不校对，回填完成后再开启
+ */
+@Slf4j
+@Service
+public class LikeReconcileServiceImpl implements LikeReconcileService {
+
+    @Autowired
+    private LikeMapper likeMapper;
+
+    @Autowired
+    private TopicMapper topicMapper;
+
+    @Autowired
+    private ResourceMapper resourceMapper;
+
+    @Autowired
+    private ActivityMapper activityMapper;
+
+    @Autowired
+    private CommentMapper commentMapper;
+
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    private TopicCacheService topicCacheService;
+
+    @Autowired
+    private ContentVersionService contentVersionService;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 每批校对的目标数
+     */
+    @Value("${bluecommunity.like-reconcile.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * 批与批之间的暂停时间（毫秒）
+     */
+    @Value("${bluecommunity.like-reconcile.pause-millis:100}")
+    private long pauseMillis;
+
+    /**
+     * 等待落库锁的最长时间（毫秒），超时则结束本次校对
+     */
+    @Value("${bluecommunity.like-reconcile.lock-wait-millis:30000}")
+    private long lockWaitMillis;
+
+    /**
+     * 是否校对资源和活动的点赞数
+     * 历史数据回填到 likes 表之前按点赞记录修正会把这些点赞数清零
+     */
+    @Value("${bluecommunity.like-reconcile.include-resource-activity:false}")
+    private boolean includeResourceActivity;
+
+    /**
+     * 每批持有锁的最长时间
+     */
+    private static final long BATCH_LOCK_SECONDS = 60;
+
+    /**
+     * 等待锁时的重试间隔（毫秒）
+     */
+    private static final long LOCK_RETRY_MILLIS = 50;
+
+    // 指标名
+    private static final String CHECKED_METRIC = "like.reconcile.checked";
+    private static final String REPAIRED_METRIC = "like.reconcile.repaired";
+    private static final String DURATION_METRIC = "like.reconcile.duration";
+
+    /**
+     * 点赞数字段的写入方法，点赞数已被修改时不写入
+     */
+    @FunctionalInterface
+    private interface ColumnWriter {
+        int set(Long id, Integer likes, Integer expected);
+    }
+
+    /**
+     * 一类需要校对的目标
+     *
+     * @param type 目标类型
+     * @param pageLoader 按ID顺序分批读取冗余点赞数 (上一批最后的ID, 批大小)
+     * @param counter 按点赞记录统计点赞数
+     * @param columnWriter 修正冗余点赞数
+     * @param onRepaired 冗余点赞数修正后的回调，可以为空
+     */
+    private record Source(String type,
+                          BiFunction<Long, Integer, List<LikeTargetDTO>> pageLoader,
+                          Function<List<Long>, List<LikeTargetDTO>> counter,
+                          ColumnWriter columnWriter,
+                          Consumer<Long> onRepaired) {
+    }
+
+    private final List<Source> sources = new ArrayList<>();
+
+    @PostConstruct
+    public void init() {
+        sources.add(new Source(Like.TARGET_TYPE_TOPIC, topicMapper::selectLikesAfterId,
+                ids -> likeMapper.countByTargets(Map.of(Like.TARGET_TYPE_TOPIC, ids)),
+                topicMapper::setLikes, topicId -> {
+                    topicCacheService.evict(topicId);
+                    contentVersionService.bump(ContentVersionService.topicScope(topicId));
+                }));
+        if (includeResourceActivity) {
+            sources.add(new Source(Like.TARGET_TYPE_RESOURCE, resourceMapper::selectLikesAfterId,
+                    ids -> likeMapper.countByTargets(Map.of(Like.TARGET_TYPE_RESOURCE, ids)),
+                    resourceMapper::setLikes, null));
+            sources.add(new Source(Like.TARGET_TYPE_ACTIVITY, activityMapper::selectLikesAfterId,
+                    ids -> likeMapper.countByTargets(Map.of(Like.TARGET_TYPE_ACTIVITY, ids)),
+                    activityMapper::setLikes, null));
+        }
+        sources.add(new Source(Like.TARGET_TYPE_COMMENT, commentMapper::selectLikesAfterId,
+                ids -> likeMapper.countByTargets(Map.of(Like.TARGET_TYPE_COMMENT, ids)),
+                commentMapper::setLikes, null));
+    }
+
+    @Override
+    @Scheduled(cron = "${bluecommunity.like-reconcile.cron:0 0 5 * * *}")
+    public synchronized LikeReconcileReport reconcile() {
+        LikeReconcileReport report = new LikeReconcileReport();
+        report.setStartedAt(LocalDateTime.now());
+        long start = System.nanoTime();
+        try {
+            boolean completed = true;
+            for (Source source : sources) {
+                LikeReconcileReport.TargetStats stats = new LikeReconcileReport.TargetStats();
+                report.getTargets().put(source.type(), stats);
+                if (!reconcile(source, stats)) {
+                    completed = false;
+                    break;
+                }
+            }
+            report.setCompleted(completed);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("点赞数校对被中断");
+        } catch (Exception e) {
+            log.error("点赞数校对失败", e);
+        }
+        long elapsed = System.nanoTime() - start;
+        report.setDurationMillis(TimeUnit.NANOSECONDS.toMillis(elapsed));
+        meterRegistry.timer(DURATION_METRIC, "completed", String.valueOf(report.isCompleted()))
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("点赞数校对完成: {}", report);
+        return report;
+    }
+
+    /**
+     * 校对一类目标
+     * @return 是否全部校对完成
+     */
+    private boolean reconcile(Source source, LikeReconcileReport.TargetStats stats) throws InterruptedException {
+        long lastId = 0;
+        while (true) {
+            String token = acquireLock();
+            if (token == null) {
+                log.warn("等待点赞落库锁超时，结束本次校对: {} 校对到ID {}", source.type(), lastId);
+                return false;
+            }
+            List<LikeTargetDTO> stored;
+            try {
+                stored = source.pageLoader().apply(lastId, batchSize);
+                if (!stored.isEmpty()) {
+                    repair(source, stored, stats);
+                }
+            } finally {
+                RedisLockUtils.unlock(redisTemplate, LikeSyncService.LOCK_KEY, token);
+            }
+            if (stored.size() < batchSize) {
+                return true;
+            }
+            lastId = stored.get(stored.size() - 1).getTargetId();
+            Thread.sleep(pauseMillis);
+        }
+    }
+
+    /**
+     * 校对一批目标
+     */
+    private void repair(Source source, List<LikeTargetDTO> stored, LikeReconcileReport.TargetStats stats) {
+        List<Long> ids = stored.stream().map(LikeTargetDTO::getTargetId).toList();
+        Map<Long, Integer> actual = new HashMap<>();
+        ids.forEach(id -> actual.put(id, 0));
+        for (LikeTargetDTO row : source.counter().apply(ids)) {
+            actual.put(row.getTargetId(), row.getCount());
+        }
+
+        int columnRepaired = 0;
+        for (LikeTargetDTO row : stored) {
+            Integer count = actual.get(row.getTargetId());
+            if (count.equals(row.getCount())) {
+                continue;
+            }
+            log.info("修正点赞数: {}:{} {} -> {}", source.type(), row.getTargetId(), row.getCount(), count);
+            if (source.columnWriter().set(row.getTargetId(), count, row.getCount()) > 0) {
+                columnRepaired++;
+                if (source.onRepaired() != null) {
+                    source.onRepaired().accept(row.getTargetId());
+                }
+            }
+        }
+        int counterRepaired = likeService.repairCounts(source.type(), actual);
+
+        stats.setChecked(stats.getChecked() + ids.size());
+        stats.setColumnRepaired(stats.getColumnRepaired() + columnRepaired);
+        stats.setCounterRepaired(stats.getCounterRepaired() + counterRepaired);
+        meterRegistry.counter(CHECKED_METRIC, "type", source.type()).increment(ids.size());
+        meterRegistry.counter(REPAIRED_METRIC, "type", source.type(), "store", "column").increment(columnRepaired);
+        meterRegistry.counter(REPAIRED_METRIC, "type", source.type(), "store", "redis").increment(counterRepaired);
+    }
+
+    /**
+     * 获取落库任务的锁，落库任务每次只短暂持有，等待一段时间后仍未获取到则放弃
+     * @return 锁的令牌，超时返回null
+     */
+    private String acquireLock() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + lockWaitMillis;
+        while (true) {
+            String token = RedisLockUtils.tryLock(redisTemplate, LikeSyncService.LOCK_KEY,
+                    BATCH_LOCK_SECONDS, TimeUnit.SECONDS);
+            if (token != null) {
+                return token;
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                return null;
+            }
+            Thread.sleep(LOCK_RETRY_MILLIS);
+        }
+    }
+}
@@ -1,21 +1,49 @@
 package com.sinon.bluecommunity.user.service.serviceImpl;
 
+import com.sinon.bluecommunity.common.dto.LikeTargetDTO;
 import com.sinon.bluecommunity.common.entity.Like;
 import com.sinon.bluecommunity.common.exception.BusinessException;
+import com.sinon.bluecommunity.common.vo.LikeStatusVO;
 import com.sinon.bluecommunity.user.mapper.LikeMapper;
-import com.sinon.bluecommunity.user.mapper.TopicMapper;
+import com.sinon.bluecommunity.user.service.CacheMaintenanceService;
+import com.sinon.bluecommunity.user.service.HotTopicService;
+import com.sinon.bluecommunity.user.service.LikeIndexService;
 import com.sinon.bluecommunity.user.service.LikeService;
+import com.sinon.bluecommunity.user.service.LikeSyncService;
+import com.sinon.bluecommunity.user.service.UserStatsService;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.CollectionUtils;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
 
 /**
  * 点赞服务实现类
+ * 每个目标在Redis中有一个点赞用户集合和一个计数，点赞/取消通过Lua脚本原子变更两者并把变更追加到落库队列，
+ * 不在请求线程中访问数据库；集合不存在时先从 likes 表回填。
+ * 集合中固定包含占位成员 "0"，用于区分"已回填但无人点赞"和"未回填"；
+ * 另外为每个用户维护点赞过的目标集合，作为反向索引用于删除用户的点赞。
+ * "是否已点赞"优先由本地的点赞用户位图索引回答，不访问Redis
  */
+@Slf4j
 @Service
 public class LikeServiceImpl implements LikeService {
 
@@ -26,132 +54,489 @@ public class LikeServiceImpl implements LikeService {
     private StringRedisTemplate redisTemplate;
 
     @Autowired
-    private TopicMapper topicMapper;
+    private HotTopicService hotTopicService;
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Autowired
+    private LikeIndexService likeIndexService;
+
+    @Autowired
+    private CacheMaintenanceService cacheMaintenanceService;
+
+    @Autowired
+    private LikeSyncService likeSyncService;
+
+    /**
+     * 点赞集合和计数的缓存时间（小时），每次变更时续期
+     */
+    @Value("${bluecommunity.like.cache-ttl-hours:168}")
+    private long cacheTtlHours;
+
+    /**
+     * 回填时每次写入Redis的用户数
+     */
+    @Value("${bluecommunity.like.seed-chunk-size:1000}")
+    private int seedChunkSize;
 
     // Redis key 前缀
+    private static final String LIKE_SET_KEY = "like:set:";
     private static final String LIKE_COUNT_KEY = "like:count:";
-    private static final String USER_LIKE_KEY = "like:user:";
-    private static final long CACHE_EXPIRE_TIME = 24; // 缓存过期时间（小时）
+
+    /**
+     * 集合占位成员，用户ID从1开始，不会与真实用户冲突
+     */
+    private static final String PLACEHOLDER = "0";
+
+    /**
+     * 集合未回填时脚本的返回值
+     */
+    private static final long NOT_LOADED = -1;
+
+    /**
+     * 回填后仍然未命中时的最大重试次数（集合恰好在两次调用之间过期）
+     */
+    private static final int MAX_SEED_ATTEMPTS = 3;
+
+    /**
+     * 变更点赞状态并返回变更后的状态和点赞数；状态变化时追加落库记录并发布索引变更通知，
+     * 通知在脚本内发布，各节点收到通知的顺序与变更的顺序一致
+     * KEYS: 集合, 计数, 落库队列；
+     * ARGV: 用户ID, 目标状态(1 点赞/0 取消/t 切换), 过期秒数, 队列记录前缀, 变更通知频道
+     * 返回 {结果, 变更后是否点赞, 点赞数}，结果 -1 集合未回填，0 状态未变化，1 已变更
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SET_STATE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return {-1, 0, 0} end " +
+            "local state = ARGV[2] " +
+            "if state == 't' then state = redis.call('SISMEMBER', KEYS[1], ARGV[1]) == 1 and '0' or '1' end " +
+            "local changed " +
+            "if state == '1' then changed = redis.call('SADD', KEYS[1], ARGV[1]) " +
+            "else changed = redis.call('SREM', KEYS[1], ARGV[1]) end " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[3]) " +
+            "local count = redis.call('GET', KEYS[2]) " +
+            "if changed == 1 and count then count = redis.call('INCRBY', KEYS[2], state == '1' and 1 or -1) " +
+            "elseif count then count = tonumber(count) " +
+            "else " +
+            "  count = redis.call('SCARD', KEYS[1]) - 1 " +
+            "  redis.call('SET', KEYS[2], count) " +
+            "end " +
+            "redis.call('EXPIRE', KEYS[2], ARGV[3]) " +
+            "if changed == 1 then " +
+            "  redis.call('RPUSH', KEYS[3], ARGV[4] .. state) " +
+            "  redis.call('PUBLISH', ARGV[5], ARGV[4] .. state) " +
+            "end " +
+            "return {changed, tonumber(state), count}", List.class);
+
+    // SET_STATE_SCRIPT 的目标状态
+    private static final String STATE_LIKE = "1";
+    private static final String STATE_UNLIKE = "0";
+    private static final String STATE_TOGGLE = "t";
+
+    /**
+     * 一次状态变更的结果
+     *
+     * @param changed 状态是否发生变化
+     * @param liked 变更后是否为点赞状态
+     * @param count 变更后的点赞数
+     */
+    private record StateChange(boolean changed, boolean liked, int count) {
+    }
+
+    /**
+     * 把临时集合替换为正式集合；正式集合已被其他请求回填时丢弃临时集合
+     * KEYS: 正式集合, 计数, 临时集合；ARGV: 过期秒数
+     */
+    private static final RedisScript<Long> SEED_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then redis.call('DEL', KEYS[3]) return 0 end " +
+            "redis.call('SADD', KEYS[3], '0') " +
+            "redis.call('RENAME', KEYS[3], KEYS[1]) " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[1]) " +
+            "redis.call('SET', KEYS[2], redis.call('SCARD', KEYS[1]) - 1, 'EX', ARGV[1]) " +
+            "return 1", Long.class);
+
+    /**
+     * 读取计数，计数被淘汰而集合仍在时由集合大小恢复
+     * KEYS: 集合, 计数；ARGV: 过期秒数；集合未回填时返回 -1
+     */
+    private static final RedisScript<Long> COUNT_SCRIPT = new DefaultRedisScript<>(
+            "local count = redis.call('GET', KEYS[2]) " +
+            "if count then return tonumber(count) end " +
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end " +
+            "count = redis.call('SCARD', KEYS[1]) - 1 " +
+            "redis.call('SET', KEYS[2], count, 'EX', ARGV[1]) " +
+            "return count", Long.class);
+
+    /**
+     * 批量读取计数，逐个目标按 COUNT_SCRIPT 的规则处理
+     * KEYS: 集合1, 计数1, 集合2, 计数2, ...；ARGV: 过期秒数；按目标顺序返回计数，未回填的返回 -1
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> BATCH_COUNT_SCRIPT = new DefaultRedisScript<>(
+            "local result = {} " +
+            "for i = 1, #KEYS, 2 do " +
+            "  local count = redis.call('GET', KEYS[i + 1]) " +
+            "  if count then count = tonumber(count) " +
+            "  elseif redis.call('EXISTS', KEYS[i]) == 1 then " +
+            "    count = redis.call('SCARD', KEYS[i]) - 1 " +
+            "    redis.call('SET', KEYS[i + 1], count, 'EX', ARGV[1]) " +
+            "  else count = -1 end " +
+            "  result[#result + 1] = count " +
+            "end " +
+            "return result", List.class);
+
+    /**
+     * 校对计数，集合存在时以集合大小为准，否则以数据库统计为准；计数不存在的不处理
+     * KEYS: 集合1, 计数1, 集合2, 计数2, ...；ARGV: 过期秒数, 数据库点赞数1, 数据库点赞数2, ...
+     * 返回修正的计数个数
+     */
+    private static final RedisScript<Long> REPAIR_SCRIPT = new DefaultRedisScript<>(
+            "local repaired = 0 " +
+            "for i = 1, #KEYS, 2 do " +
+            "  local count = redis.call('GET', KEYS[i + 1]) " +
+            "  if count then " +
+            "    local expected " +
+            "    if redis.call('EXISTS', KEYS[i]) == 1 then expected = redis.call('SCARD', KEYS[i]) - 1 " +
+            "    else expected = tonumber(ARGV[(i + 1) / 2 + 1]) end " +
+            "    if tonumber(count) ~= expected then " +
+            "      redis.call('SET', KEYS[i + 1], expected, 'EX', ARGV[1]) " +
+            "      repaired = repaired + 1 " +
+            "    end " +
+            "  end " +
+            "end " +
+            "return repaired", Long.class);
+
+    /**
+     * 批量查询一次最多的目标数
+     */
+    private static final int MAX_BATCH_TARGETS = 200;
 
     @Override
-    @Transactional
     public void like(Long userId, Long targetId, String targetType) {
-        // 验证目标类型
-        Like like = new Like();
-        like.setTargetType(targetType);
-        if (!like.isValidTargetType()) {
-            throw new IllegalArgumentException("无效的目标类型: " + targetType);
-        }
-
-        // 检查是否已点赞
-        if (hasLiked(userId, targetId, targetType)) {
+        validateTargetType(targetType);
+        if (!setState(userId, targetId, targetType, STATE_LIKE).changed()) {
             throw new BusinessException("已经点赞过了");
         }
+    }
 
-        // 添加点赞记录
-        likeMapper.insert(userId, targetId, targetType);
-
-        // 同步进主帖子数据库
-        topicMapper.updateLikes(targetId, 1);
+    @Override
+    public boolean unlike(Long userId, Long targetId, String targetType) {
+        validateTargetType(targetType);
+        return setState(userId, targetId, targetType, STATE_UNLIKE).changed();
+    }
 
+    @Override
+    public LikeStatusVO toggle(Long userId, Long targetId, String targetType) {
+        validateTargetType(targetType);
+        StateChange change = setState(userId, targetId, targetType, STATE_TOGGLE);
+        return new LikeStatusVO(targetType, targetId, change.liked(), change.count());
+    }
 
-        // 更新缓存
-        String countKey = LIKE_COUNT_KEY + targetType + ":" + targetId;
-        String userKey = USER_LIKE_KEY + userId + ":" + targetType + ":" + targetId;
-        redisTemplate.opsForValue().increment(countKey);
-        redisTemplate.opsForValue().set(userKey, "1", CACHE_EXPIRE_TIME, TimeUnit.HOURS);
+    @Override
+    public boolean hasLiked(Long userId, Long targetId, String targetType) {
+        if (LikeIndexService.supports(userId)) {
+            return likeIndexService.contains(targetType, targetId, userId, id -> loadLikerIds(targetType, id));
+        }
+        String setKey = setKey(targetType, targetId);
+        for (int attempt = 0; attempt < MAX_SEED_ATTEMPTS; attempt++) {
+            // 一次 SMISMEMBER 同时判断集合是否已回填和用户是否在集合中
+            Map<Object, Boolean> members = redisTemplate.opsForSet()
+                    .isMember(setKey, PLACEHOLDER, userId.toString());
+            if (Boolean.TRUE.equals(members.get(PLACEHOLDER))) {
+                return Boolean.TRUE.equals(members.get(userId.toString()));
+            }
+            seed(targetId, targetType);
+        }
+        throw new BusinessException("读取点赞状态失败，请稍后重试");
     }
 
     @Override
-    @Transactional
-    public void unlike(Long userId, Long targetId, String targetType) {
-        // 检查是否已点赞
-        if (!hasLiked(userId, targetId, targetType)) {
-            return; // 如果没有点赞，直接返回
+    public int getLikeCount(Long targetId, String targetType) {
+        List<String> keys = Arrays.asList(setKey(targetType, targetId), countKey(targetType, targetId));
+        for (int attempt = 0; attempt < MAX_SEED_ATTEMPTS; attempt++) {
+            Long count = redisTemplate.execute(COUNT_SCRIPT, keys, ttlSeconds());
+            if (count != null && count != NOT_LOADED) {
+                return count.intValue();
+            }
+            seed(targetId, targetType);
         }
+        throw new BusinessException("读取点赞数失败，请稍后重试");
+    }
 
-        // 删除点赞记录
-        likeMapper.delete(userId, targetId, targetType);
+    @Override
+    public Map<Long, Integer> getLikeCounts(Collection<Long> targetIds, String targetType) {
+        validateTargetType(targetType);
+        Map<Long, Integer> counts = new HashMap<>();
+        if (CollectionUtils.isEmpty(targetIds)) {
+            return counts;
+        }
+        List<LikeTargetDTO> targets = targetIds.stream()
+                .distinct()
+                .map(targetId -> new LikeTargetDTO(targetType, targetId))
+                .toList();
+        loadCounts(targets).forEach((target, count) -> counts.put(target.getTargetId(), count));
+        return counts;
+    }
 
-        // 更新缓存
-        String countKey = LIKE_COUNT_KEY + targetType + ":" + targetId;
-        String userKey = USER_LIKE_KEY + userId + ":" + targetType + ":" + targetId;
-        redisTemplate.opsForValue().decrement(countKey);
-        redisTemplate.delete(userKey);
+    @Override
+    public Set<Long> filterLiked(Long userId, Collection<Long> targetIds, String targetType) {
+        validateTargetType(targetType);
+        if (userId == null || CollectionUtils.isEmpty(targetIds)) {
+            return new HashSet<>();
+        }
+        if (LikeIndexService.supports(userId)) {
+            return likeIndexService.filterLiked(targetType, targetIds, userId, id -> loadLikerIds(targetType, id));
+        }
+        return targetIds.stream()
+                .filter(targetId -> hasLiked(userId, targetId, targetType))
+                .collect(Collectors.toSet());
     }
 
     @Override
-    public boolean hasLiked(Long userId, Long targetId, String targetType) {
-        // 先查缓存
-        String userKey = USER_LIKE_KEY + userId + ":" + targetType + ":" + targetId;
-        String cached = redisTemplate.opsForValue().get(userKey);
-        if (cached != null) {
-            return "1".equals(cached);
+    public List<LikeStatusVO> getLikeStatuses(Long userId, List<LikeTargetDTO> targets) {
+        if (CollectionUtils.isEmpty(targets)) {
+            return new ArrayList<>();
+        }
+        if (targets.size() > MAX_BATCH_TARGETS) {
+            throw new BusinessException("一次最多查询" + MAX_BATCH_TARGETS + "个目标");
         }
+        List<LikeTargetDTO> distinct = targets.stream()
+                .map(target -> new LikeTargetDTO(target.getTargetType(), target.getTargetId()))
+                .distinct()
+                .toList();
+        distinct.forEach(target -> {
+            if (target.getTargetId() == null) {
+                throw new IllegalArgumentException("目标ID不能为空");
+            }
+            validateTargetType(target.getTargetType());
+        });
+
+        Map<LikeTargetDTO, Integer> counts = loadCounts(distinct);
+        Map<String, Set<Long>> liked = new HashMap<>();
+        distinct.stream()
+                .collect(Collectors.groupingBy(LikeTargetDTO::getTargetType,
+                        Collectors.mapping(LikeTargetDTO::getTargetId, Collectors.toList())))
+                .forEach((type, ids) -> liked.put(type, filterLiked(userId, ids, type)));
 
-        // 缓存未命中，查数据库
-        boolean hasLiked = likeMapper.exists(userId, targetId, targetType);
-        
-        // 写入缓存
-        redisTemplate.opsForValue().set(userKey, hasLiked ? "1" : "0", CACHE_EXPIRE_TIME, TimeUnit.HOURS);
-        
-        return hasLiked;
+        return targets.stream().map(target -> {
+            LikeTargetDTO key = new LikeTargetDTO(target.getTargetType(), target.getTargetId());
+            return new LikeStatusVO(key.getTargetType(), key.getTargetId(),
+                    liked.get(key.getTargetType()).contains(key.getTargetId()),
+                    counts.getOrDefault(key, 0));
+        }).collect(Collectors.toList());
     }
 
     @Override
-    public int getLikeCount(Long targetId, String targetType) {
-        // 先查缓存
-        String countKey = LIKE_COUNT_KEY + targetType + ":" + targetId;
-        String cached = redisTemplate.opsForValue().get(countKey);
-        if (cached != null) {
-            return Integer.parseInt(cached);
-        }
-
-        // 缓存未命中，查数据库
-        int count = likeMapper.countByTarget(targetId, targetType);
-        
-        // 写入缓存
-        redisTemplate.opsForValue().set(countKey, String.valueOf(count), CACHE_EXPIRE_TIME, TimeUnit.HOURS);
-        
-        return count;
+    public int repairCounts(String targetType, Map<Long, Integer> persistedCounts) {
+        validateTargetType(targetType);
+        if (CollectionUtils.isEmpty(persistedCounts)) {
+            return 0;
+        }
+        List<String> keys = new ArrayList<>(persistedCounts.size() * 2);
+        List<String> args = new ArrayList<>(persistedCounts.size() + 1);
+        args.add(ttlSeconds());
+        persistedCounts.forEach((targetId, count) -> {
+            keys.add(setKey(targetType, targetId));
+            keys.add(countKey(targetType, targetId));
+            args.add(String.valueOf(count));
+        });
+        Long repaired = redisTemplate.execute(REPAIR_SCRIPT, keys, args.toArray());
+        return repaired == null ? 0 : repaired.intValue();
     }
 
     @Override
     public List<Like> getUserLikes(Long userId, String targetType, Integer page, Integer size) {
         // 计算偏移量
         int offset = (page - 1) * size;
-        
+
         // 这里需要在XML中实现分页查询
         // TODO: 实现分页查询
         return null;
     }
 
     @Override
-    @Transactional
     public int deleteTargetLikes(Long targetId, String targetType) {
-        // 删除数据库记录
-        int count = likeMapper.deleteByTarget(targetId, targetType);
-        
-        // 删除缓存
-        String countKey = LIKE_COUNT_KEY + targetType + ":" + targetId;
-        redisTemplate.delete(countKey);
-        
-        // 注意：这里可能需要删除相关的用户点赞缓存，但是因为涉及多个用户，
-        // 可以选择让这些缓存自然过期，或者通过其他方式批量删除
-        
+        validateTargetType(targetType);
+        // 点赞集合包含尚未落库的点赞，以集合为准，集合不存在时先从 likes 表回填
+        Collection<Long> userIds = loadLikerIds(targetType, targetId);
+
+        // 逐个取消点赞，由落库任务删除记录并同步冗余计数。
+        // 集合和计数保留（只剩占位成员、计数为0），不能删除：落库前的读取会从 likes 表中尚未删除的记录重新回填
+        int count = 0;
+        for (Long userId : userIds) {
+            if (unlike(userId, targetId, targetType)) {
+                count++;
+            }
+        }
         return count;
     }
 
     @Override
-    @Transactional
     public int deleteUserLikes(Long userId) {
-        // 删除数据库记录
-        int count = likeMapper.deleteByUser(userId);
-        
-        // 删除用户相关的所有缓存
-        String userPattern = USER_LIKE_KEY + userId + ":*";
-        redisTemplate.delete(redisTemplate.keys(userPattern));
-        
+        // 先把队列中的变更落库，使 likes 表包含该用户尚未落库的点赞；落库任务正在其他节点执行时由其完成
+        likeSyncService.flush();
+
+        // 逐个取消点赞，由落库任务删除记录并同步冗余计数
+        int count = 0;
+        for (Like like : likeMapper.selectByUser(userId)) {
+            if (unlike(userId, like.getTargetId(), like.getTargetType())) {
+                count++;
+            }
+        }
         return count;
     }
+
+    /**
+     * 批量读取点赞数
+     * 所有目标用一次脚本调用读取，计数和集合都不存在的目标用一条SQL统计并写回计数
+     */
+    @SuppressWarnings("unchecked")
+    private Map<LikeTargetDTO, Integer> loadCounts(List<LikeTargetDTO> targets) {
+        List<String> keys = new ArrayList<>(targets.size() * 2);
+        for (LikeTargetDTO target : targets) {
+            keys.add(setKey(target.getTargetType(), target.getTargetId()));
+            keys.add(countKey(target.getTargetType(), target.getTargetId()));
+        }
+        List<Long> cached = redisTemplate.execute(BATCH_COUNT_SCRIPT, keys, ttlSeconds());
+
+        Map<LikeTargetDTO, Integer> counts = new HashMap<>();
+        Map<String, List<Long>> misses = new HashMap<>();
+        for (int i = 0; i < targets.size(); i++) {
+            LikeTargetDTO target = targets.get(i);
+            Long count = cached == null ? null : cached.get(i);
+            if (count != null && count != NOT_LOADED) {
+                counts.put(target, count.intValue());
+            } else {
+                misses.computeIfAbsent(target.getTargetType(), type -> new ArrayList<>()).add(target.getTargetId());
+            }
+        }
+        if (misses.isEmpty()) {
+            return counts;
+        }
+
+        Map<LikeTargetDTO, Integer> loaded = new HashMap<>();
+        misses.forEach((type, ids) -> ids.forEach(id -> loaded.put(new LikeTargetDTO(type, id), 0)));
+        for (LikeTargetDTO row : likeMapper.countByTargets(misses)) {
+            loaded.put(new LikeTargetDTO(row.getTargetType(), row.getTargetId()), row.getCount());
+        }
+        counts.putAll(loaded);
+
+        // 写回计数；集合不存在说明没有未落库的变更，统计结果与Redis一致。已有计数的不覆盖
+        Duration ttl = Duration.ofHours(cacheTtlHours);
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public Object execute(RedisOperations operations) {
+                loaded.forEach((target, count) -> operations.opsForValue().setIfAbsent(
+                        countKey(target.getTargetType(), target.getTargetId()), String.valueOf(count), ttl));
+                return null;
+            }
+        });
+        return counts;
+    }
+
+    /**
+     * 原子变更点赞状态，检查、变更、计数和入队在一次脚本调用中完成；集合未回填时先回填再重试。
+     * 状态发生变化时执行后续的副作用
+     */
+    @SuppressWarnings("unchecked")
+    private StateChange setState(Long userId, Long targetId, String targetType, String state) {
+        List<String> keys = Arrays.asList(setKey(targetType, targetId), countKey(targetType, targetId),
+                LikeSyncService.QUEUE_KEY);
+        String entryPrefix = LikeSyncService.entryPrefix(targetType, targetId, userId);
+        for (int attempt = 0; attempt < MAX_SEED_ATTEMPTS; attempt++) {
+            List<Long> result = redisTemplate.execute(SET_STATE_SCRIPT, keys,
+                    userId.toString(), state, ttlSeconds(), entryPrefix, LikeIndexService.CHANGE_CHANNEL);
+            if (result != null && result.size() == 3 && result.get(0) != NOT_LOADED) {
+                StateChange change = new StateChange(result.get(0) == 1, result.get(1) == 1,
+                        result.get(2).intValue());
+                if (change.changed()) {
+                    likeIndexService.onChanged(targetType, targetId, userId, change.liked());
+                    onChanged(userId, targetId, targetType, change.liked() ? 1 : -1);
+                }
+                return change;
+            }
+            seed(targetId, targetType);
+        }
+        throw new BusinessException("点赞操作失败，请稍后重试");
+    }
+
+    /**
+     * 读取目标的全部点赞用户，用于生成点赞索引
+     * 以Redis中的集合为准，其中包含尚未落库的变更；用 SSCAN 分批读取，点赞很多的目标也不会长时间阻塞Redis
+     */
+    private Collection<Long> loadLikerIds(String targetType, Long targetId) {
+        String setKey = setKey(targetType, targetId);
+        for (int attempt = 0; attempt < MAX_SEED_ATTEMPTS; attempt++) {
+            Set<Long> userIds = new HashSet<>();
+            AtomicBoolean seeded = new AtomicBoolean();
+            cacheMaintenanceService.scanMembers(setKey, members -> members.forEach(member -> {
+                if (PLACEHOLDER.equals(member)) {
+                    seeded.set(true);
+                } else {
+                    userIds.add(Long.valueOf(member));
+                }
+            }));
+            if (seeded.get()) {
+                return userIds;
+            }
+            seed(targetId, targetType);
+        }
+        throw new BusinessException("读取点赞状态失败，请稍后重试");
+    }
+
+    /**
+     * 从 likes 表回填点赞集合
+     * 先分批写入临时集合，再由脚本整体替换，回填期间其他请求看到的仍是"未回填"
+     */
+    private void seed(Long targetId, String targetType) {
+        List<Long> userIds = likeMapper.selectUserIdsByTarget(targetId, targetType);
+        String tempKey = setKey(targetType, targetId) + ":loading:" + UUID.randomUUID();
+        try {
+            for (int from = 0; from < userIds.size(); from += seedChunkSize) {
+                String[] members = userIds.subList(from, Math.min(from + seedChunkSize, userIds.size())).stream()
+                        .map(String::valueOf)
+                        .toArray(String[]::new);
+                redisTemplate.opsForSet().add(tempKey, members);
+            }
+            // 临时集合设置过期时间，进程在替换前退出时自动清理
+            redisTemplate.expire(tempKey, Duration.ofMinutes(10));
+            redisTemplate.execute(SEED_SCRIPT,
+                    Arrays.asList(setKey(targetType, targetId), countKey(targetType, targetId), tempKey),
+                    ttlSeconds());
+        } catch (RuntimeException e) {
+            redisTemplate.delete(tempKey);
+            throw e;
+        }
+    }
+
+    /**
+     * 点赞状态变化后的即时副作用；话题缓存和版本号在落库后更新
+     */
+    private void onChanged(Long userId, Long targetId, String targetType, int delta) {
+        userStatsService.increment(userId, UserStatsService.TYPE_LIKE, delta);
+        if (Like.TARGET_TYPE_TOPIC.equals(targetType)) {
+            hotTopicService.onLike(targetId, delta);
+        }
+    }
+
+    private void validateTargetType(String targetType) {
+        Like like = new Like();
+        like.setTargetType(targetType);
+        if (!like.isValidTargetType()) {
+            throw new IllegalArgumentException("无效的目标类型: " + targetType);
+        }
+    }
+
+    private String ttlSeconds() {
+        return String.valueOf(Duration.ofHours(cacheTtlHours).toSeconds());
+    }
+
+    private String setKey(String targetType, Long targetId) {
+        return LIKE_SET_KEY + targetType + ":" + targetId;
+    }
+
+    private String countKey(String targetType, Long targetId) {
+        return LIKE_COUNT_KEY + targetType + ":" + targetId;
+    }
 }
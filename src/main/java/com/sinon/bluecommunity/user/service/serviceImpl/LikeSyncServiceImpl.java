@@ -0,0 +1,251 @@
+package com.sinon.bluecommunity.user.service.serviceImpl;
+
+import com.sinon.bluecommunity.common.entity.Like;
+import com.sinon.bluecommunity.common.utils.RedisLockUtils;
+import com.sinon.bluecommunity.user.mapper.ActivityMapper;
+import com.sinon.bluecommunity.user.mapper.CommentMapper;
+import com.sinon.bluecommunity.user.mapper.LikeMapper;
+import com.sinon.bluecommunity.user.mapper.ResourceMapper;
+import com.sinon.bluecommunity.user.mapper.TopicMapper;
+import com.sinon.bluecommunity.user.service.ContentVersionService;
+import com.sinon.bluecommunity.user.service.LikeSyncService;
+import com.sinon.bluecommunity.user.service.TopicCacheService;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.CollectionUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * 点赞落库服务实现类
+ * 每批记录先由脚本从队列原子地转移到处理中列表，写库事务提交后再删除处理中列表；
+ * 进程在两者之间退出时，下次执行先重放处理中列表。写入按最终状态 INSERT IGNORE / DELETE，
+ * 冗余的点赞数按实际影响的行数增减，所以重放不会重复计数。
+ * 同一批连续重放失败达到上限后改为逐条写入，仍然失败的记录移入死信列表，不再阻塞后续的落库。
+ * 多节点部署时通过分布式锁保证同一时间只有一个节点在写
+ */
+@Slf4j
+@Service
+public class LikeSyncServiceImpl implements LikeSyncService {
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private LikeMapper likeMapper;
+
+    @Autowired
+    private TopicMapper topicMapper;
+
+    @Autowired
+    private ResourceMapper resourceMapper;
+
+    @Autowired
+    private ActivityMapper activityMapper;
+
+    @Autowired
+    private CommentMapper commentMapper;
+
+    @Autowired
+    private TopicCacheService topicCacheService;
+
+    @Autowired
+    private ContentVersionService contentVersionService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * 每批处理的记录数
+     */
+    @Value("${bluecommunity.like.flush-batch-size:500}")
+    private int flushBatchSize;
+
+    /**
+     * 每次执行最多处理的批数，积压较多时留给下次执行
+     */
+    @Value("${bluecommunity.like.max-batches-per-flush:20}")
+    private int maxBatchesPerFlush;
+
+    /**
+     * 处理中列表最多整批重放的次数，超过后逐条写入
+     */
+    @Value("${bluecommunity.like.max-replay-attempts:3}")
+    private int maxReplayAttempts;
+
+    // Redis key
+    private static final String PROCESSING_KEY = "like:queue:processing";
+    private static final String REPLAY_ATTEMPTS_KEY = "like:queue:processing:attempts";
+    private static final String DEAD_LETTER_KEY = "like:queue:dead";
+    private static final long FLUSH_LOCK_MINUTES = 5;
+
+    /**
+     * 从队列头部取出一批记录追加到处理中列表
+     * KEYS: 队列, 处理中列表；ARGV: 批大小
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> MOVE_SCRIPT = new DefaultRedisScript<>(
+            "local items = redis.call('LRANGE', KEYS[1], 0, tonumber(ARGV[1]) - 1) " +
+            "if #items == 0 then return items end " +
+            "for i = 1, #items, 1000 do " +
+            "  redis.call('RPUSH', KEYS[2], unpack(items, i, math.min(i + 999, #items))) " +
+            "end " +
+            "redis.call('LTRIM', KEYS[1], #items, -1) " +
+            "return items", List.class);
+
+    /**
+     * 目标类型 -> 冗余点赞数的更新方法 (ID, 增量)
+     */
+    private final Map<String, BiFunction<Long, Integer, Integer>> counterWriters = new HashMap<>();
+
+    /**
+     * 点赞目标
+     */
+    private record Target(String type, Long id) {
+    }
+
+    @PostConstruct
+    public void init() {
+        counterWriters.put(Like.TARGET_TYPE_TOPIC, topicMapper::updateLikes);
+        counterWriters.put(Like.TARGET_TYPE_RESOURCE, resourceMapper::updateLikes);
+        counterWriters.put(Like.TARGET_TYPE_ACTIVITY, activityMapper::updateLikes);
+        counterWriters.put(Like.TARGET_TYPE_COMMENT, commentMapper::updateLikes);
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${bluecommunity.like.flush-interval:2000}",
+            fixedDelayString = "${bluecommunity.like.flush-interval:2000}")
+    public synchronized void flush() {
+        try {
+            String token = RedisLockUtils.tryLock(redisTemplate, LOCK_KEY, FLUSH_LOCK_MINUTES, TimeUnit.MINUTES);
+            if (token == null) {
+                return;
+            }
+            try {
+                doFlush();
+            } finally {
+                RedisLockUtils.unlock(redisTemplate, LOCK_KEY, token);
+            }
+        } catch (Exception e) {
+            // 未确认的记录保留在处理中列表，下次执行时重放
+            log.error("点赞变更落库失败", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void doFlush() {
+        List<String> unacked = redisTemplate.opsForList().range(PROCESSING_KEY, 0, -1);
+        if (!CollectionUtils.isEmpty(unacked)) {
+            replay(unacked);
+        }
+
+        for (int i = 0; i < maxBatchesPerFlush; i++) {
+            List<String> batch = redisTemplate.execute(MOVE_SCRIPT,
+                    Arrays.asList(QUEUE_KEY, PROCESSING_KEY), String.valueOf(flushBatchSize));
+            if (CollectionUtils.isEmpty(batch)) {
+                return;
+            }
+            persist(batch);
+            redisTemplate.delete(PROCESSING_KEY);
+            if (batch.size() < flushBatchSize) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 重放上次未确认的批次
+     * 前几次整批重放；次数达到上限说明批内有无法写入的记录，改为逐条写入，失败的记录移入死信列表
+     */
+    private void replay(List<String> unacked) {
+        Long attempts = redisTemplate.opsForValue().increment(REPLAY_ATTEMPTS_KEY);
+        if (attempts == null || attempts <= maxReplayAttempts) {
+            log.info("重放上次未确认的点赞变更: {} 条，第 {} 次", unacked.size(), attempts);
+            persist(unacked);
+        } else {
+            log.warn("点赞变更已重放 {} 次仍失败，改为逐条写入: {} 条", attempts - 1, unacked.size());
+            List<String> failed = new ArrayList<>();
+            for (String entry : unacked) {
+                try {
+                    persist(Collections.singletonList(entry));
+                } catch (Exception e) {
+                    log.error("点赞变更写入失败，移入死信列表 {}: {}", DEAD_LETTER_KEY, entry, e);
+                    failed.add(entry);
+                }
+            }
+            if (!failed.isEmpty()) {
+                redisTemplate.opsForList().rightPushAll(DEAD_LETTER_KEY, failed);
+            }
+        }
+        redisTemplate.delete(Arrays.asList(PROCESSING_KEY, REPLAY_ATTEMPTS_KEY));
+    }
+
+    /**
+     * 写入一批变更，同一 (目标, 用户) 只保留最后一次的状态
+     */
+    private void persist(List<String> entries) {
+        Map<Target, Map<Long, Boolean>> states = new LinkedHashMap<>();
+        for (String entry : entries) {
+            String[] parts = entry.split(":");
+            if (parts.length != 4) {
+                log.warn("忽略无效的点赞变更记录: {}", entry);
+                continue;
+            }
+            try {
+                Target target = new Target(parts[0], Long.valueOf(parts[1]));
+                states.computeIfAbsent(target, key -> new LinkedHashMap<>())
+                        .put(Long.valueOf(parts[2]), "1".equals(parts[3]));
+            } catch (NumberFormatException e) {
+                log.warn("忽略无效的点赞变更记录: {}", entry);
+            }
+        }
+        if (states.isEmpty()) {
+            return;
+        }
+
+        Map<Target, Integer> deltas = transactionTemplate.execute(status -> {
+            Map<Target, Integer> applied = new HashMap<>();
+            states.forEach((target, users) -> {
+                List<Long> liked = new ArrayList<>();
+                List<Long> unliked = new ArrayList<>();
+                users.forEach((userId, state) -> (state ? liked : unliked).add(userId));
+                int inserted = liked.isEmpty() ? 0 : likeMapper.batchInsertIgnore(target.id(), target.type(), liked);
+                int deleted = unliked.isEmpty() ? 0
+                        : likeMapper.deleteByTargetAndUsers(target.id(), target.type(), unliked);
+                int delta = inserted - deleted;
+                BiFunction<Long, Integer, Integer> writer = counterWriters.get(target.type());
+                if (delta != 0 && writer != null) {
+                    writer.apply(target.id(), delta);
+                    applied.put(target, delta);
+                }
+            });
+            return applied;
+        });
+
+        // 数据库中的点赞数已变化，清除话题详情缓存
+        if (deltas != null) {
+            deltas.keySet().stream()
+                    .filter(target -> Like.TARGET_TYPE_TOPIC.equals(target.type()))
+                    .forEach(target -> {
+                        topicCacheService.evict(target.id());
+                        contentVersionService.bump(ContentVersionService.topicScope(target.id()));
+                    });
+        }
+    }
+}
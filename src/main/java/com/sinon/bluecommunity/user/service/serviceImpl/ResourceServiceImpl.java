@@ -2,20 +2,21 @@ package com.sinon.bluecommunity.user.service.serviceImpl;
 
 import com.sinon.bluecommunity.common.dto.ResourceCreateDTO;
 import com.sinon.bluecommunity.common.dto.ResourceTypeCountDTO;
+import com.sinon.bluecommunity.common.dto.TotalCount;
+import com.sinon.bluecommunity.common.entity.Like;
 import com.sinon.bluecommunity.common.entity.Resource;
 import com.sinon.bluecommunity.common.entity.ResourceDownload;
-import com.sinon.bluecommunity.common.entity.ResourceLike;
 import com.sinon.bluecommunity.common.entity.ResourceReview;
-import com.sinon.bluecommunity.common.entity.Tag;
 import com.sinon.bluecommunity.common.exception.BusinessException;
 import com.sinon.bluecommunity.common.vo.PageVO;
 import com.sinon.bluecommunity.user.mapper.ResourceDownloadMapper;
-import com.sinon.bluecommunity.user.mapper.ResourceLikeMapper;
 import com.sinon.bluecommunity.user.mapper.ResourceMapper;
 import com.sinon.bluecommunity.user.mapper.ResourceReviewMapper;
-import com.sinon.bluecommunity.user.mapper.TagMapper;
-import com.sinon.bluecommunity.user.mapper.TagRelationMapper;
+import com.sinon.bluecommunity.user.service.LikeService;
 import com.sinon.bluecommunity.user.service.ResourceService;
+import com.sinon.bluecommunity.user.service.TagService;
+import com.sinon.bluecommunity.user.service.TotalCountService;
+import com.sinon.bluecommunity.user.service.ViewCounterService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -31,11 +32,12 @@ import java.util.List;
 public class ResourceServiceImpl implements ResourceService {
 
     private final ResourceMapper resourceMapper;
-    private final ResourceLikeMapper resourceLikeMapper;
     private final ResourceDownloadMapper resourceDownloadMapper;
     private final ResourceReviewMapper resourceReviewMapper;
-    private final TagMapper tagMapper;
-    private final TagRelationMapper tagRelationMapper;
+    private final TagService tagService;
+    private final ViewCounterService viewCounterService;
+    private final TotalCountService totalCountService;
+    private final LikeService likeService;
 
     @Override
     @Transactional
@@ -60,27 +62,10 @@ public class ResourceServiceImpl implements ResourceService {
 
         // 插入资源
         resourceMapper.insert(resource);
+        totalCountService.invalidate(TotalCountService.TYPE_RESOURCE);
 
         // 处理标签
-        if (dto.getTags() != null && !dto.getTags().isEmpty()) {
-            for (String tagName : dto.getTags()) {
-                // 获取或创建标签
-                Tag tag = tagMapper.selectByName(tagName);
-                if (tag == null) {
-                    tag = new Tag();
-                    tag.setName(tagName);
-                    tag.setStatus(1);
-                    tag.setUsageCount(0);
-                    tagMapper.insert(tag);
-                }
-                
-                // 创建标签关联
-                tagRelationMapper.insertSimple(tag.getId(), resource.getId(), "resource");
-                
-                // 更新标签使用次数
-                tagMapper.incrementUsageCount(tag.getId());
-            }
-        }
+        tagService.attachTags(resource.getId(), "resource", dto.getTags());
 
         return resource;
     }
@@ -106,21 +91,26 @@ public class ResourceServiceImpl implements ResourceService {
 
         // 更新资源
         resourceMapper.update(resource);
+        totalCountService.invalidate(TotalCountService.TYPE_RESOURCE);
         return resourceMapper.selectById(resource.getId());
     }
 
     @Override
     @Transactional
     public boolean deleteResource(Long id, Long userId) {
-        return resourceMapper.delete(id, userId) > 0;
+        boolean deleted = resourceMapper.delete(id, userId) > 0;
+        totalCountService.invalidate(TotalCountService.TYPE_RESOURCE);
+        return deleted;
     }
 
     @Override
     public Resource getResourceById(Long id, Long currentUserId) {
         Resource resource = resourceMapper.selectById(id);
         if (resource != null) {
-            // 增加浏览次数
+            // 增加浏览次数，并加上尚未写回数据库的部分
             incrementViews(id);
+            long pendingViews = viewCounterService.getPending(ViewCounterService.TYPE_RESOURCE, id);
+            resource.setViews((int) ((resource.getViews() == null ? 0 : resource.getViews()) + pendingViews));
             // 设置当前用户是否已点赞/下载
             setUserOperationStatus(resource, currentUserId);
         }
@@ -161,11 +151,13 @@ public class ResourceServiceImpl implements ResourceService {
         // 设置用户操作状态
         resources.forEach(resource -> setUserOperationStatus(resource, currentUserId));
 
-        // 查询总数
-        int total = resourceMapper.countResources(userId, type, status, keyword);
+        // 查询总数（带缓存）
+        TotalCount total = totalCountService.count(TotalCountService.TYPE_RESOURCE,
+                () -> (long) resourceMapper.countResources(userId, type, status, keyword),
+                userId, type, status, keyword);
 
         // 创建分页对象
-        PageVO<Resource> pageVO = new PageVO<>(resources, (long) total);
+        PageVO<Resource> pageVO = PageVO.of(resources, total);
         pageVO.setHasMore(size, page);
         
         return pageVO;
@@ -200,36 +192,18 @@ public class ResourceServiceImpl implements ResourceService {
     }
 
     @Override
-    @Transactional
     public boolean likeResource(Long id, Long userId) {
-        // 检查是否已点赞
-        if (resourceLikeMapper.exists(id, userId)) {
-            throw new BusinessException("已经点赞过了");
-        }
-
-        // 添加点赞记录
-        ResourceLike like = new ResourceLike();
-        like.setResourceId(id);
-        like.setUserId(userId);
-        resourceLikeMapper.insert(like);
-
-        // 更新资源点赞数
-        return resourceMapper.incrementLikes(id) > 0;
+        // 点赞记录和资源点赞数由点赞服务维护
+        likeService.like(userId, id, Like.TARGET_TYPE_RESOURCE);
+        return true;
     }
 
     @Override
-    @Transactional
     public boolean unlikeResource(Long id, Long userId) {
-        // 检查是否已点赞
-        if (!resourceLikeMapper.exists(id, userId)) {
+        if (!likeService.unlike(userId, id, Like.TARGET_TYPE_RESOURCE)) {
             throw new BusinessException("还没有点赞过");
         }
-
-        // 删除点赞记录
-        resourceLikeMapper.delete(id, userId);
-
-        // 更新资源点赞数
-        return resourceMapper.decrementLikes(id) > 0;
+        return true;
     }
 
     @Override
@@ -262,18 +236,23 @@ public class ResourceServiceImpl implements ResourceService {
         resourceReviewMapper.insert(review);
 
         // 更新资源状态
-        return resourceMapper.updateStatus(id, status) > 0;
+        boolean updated = resourceMapper.updateStatus(id, status) > 0;
+        totalCountService.invalidate(TotalCountService.TYPE_RESOURCE);
+        return updated;
     }
 
     @Override
     public boolean incrementViews(Long id) {
-        return resourceMapper.incrementViews(id) > 0;
+        viewCounterService.increment(ViewCounterService.TYPE_RESOURCE, id);
+        return true;
     }
 
     @Override
     @Transactional
     public boolean batchUpdateStatus(List<Long> ids, Integer status) {
-        return resourceMapper.batchUpdateStatus(ids, status) > 0;
+        boolean updated = resourceMapper.batchUpdateStatus(ids, status) > 0;
+        totalCountService.invalidate(TotalCountService.TYPE_RESOURCE);
+        return updated;
     }
 
     /**
@@ -281,7 +260,7 @@ public class ResourceServiceImpl implements ResourceService {
      */
     private void setUserOperationStatus(Resource resource, Long currentUserId) {
         if (currentUserId != null) {
-            resource.setLiked(resourceLikeMapper.exists(resource.getId(), currentUserId));
+            resource.setLiked(likeService.hasLiked(currentUserId, resource.getId(), Like.TARGET_TYPE_RESOURCE));
             resource.setDownloaded(resourceDownloadMapper.exists(resource.getId(), currentUserId));
         }
     }
@@ -0,0 +1,83 @@
+package com.sinon.bluecommunity.user.service.serviceImpl;
+
+import com.sinon.bluecommunity.common.entity.Tag;
+import com.sinon.bluecommunity.user.mapper.TagMapper;
+import com.sinon.bluecommunity.user.mapper.TagRelationMapper;
+import com.sinon.bluecommunity.user.service.TagService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 标签服务实现类
+ */
+@Slf4j
+@Service
+public class TagServiceImpl implements TagService {
+
+    @Autowired
+    private TagMapper tagMapper;
+
+    @Autowired
+    private TagRelationMapper tagRelationMapper;
+
+    @Override
+    @Transactional
+    public List<Long> attachTags(Long targetId, String targetType, Collection<String> tagNames) {
+        List<String> names = normalizeNames(tagNames);
+        if (names.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // 1. 一次查询解析已有标签
+        List<Tag> tags = new ArrayList<>(tagMapper.selectByNames(names));
+
+        // 2. 批量创建缺失标签，并发创建的同名标签由唯一索引兜底
+        Set<String> existing = tags.stream().map(Tag::getName).collect(Collectors.toSet());
+        List<String> missing = names.stream().filter(name -> !existing.contains(name)).toList();
+        if (!missing.isEmpty()) {
+            tagMapper.batchInsertIgnore(missing);
+            tags.addAll(tagMapper.selectByNames(missing));
+        }
+
+        // 大小写不敏感的排序规则下，不同写法可能解析到同一标签
+        List<Long> tagIds = new ArrayList<>(tags.stream()
+                .map(Tag::getId)
+                .collect(Collectors.toCollection(LinkedHashSet::new)));
+        if (tagIds.isEmpty()) {
+            return tagIds;
+        }
+
+        // 3. 批量写入关联关系并更新使用次数
+        tagRelationMapper.batchInsert(tagIds, targetId, targetType);
+        tagMapper.batchIncrementUsageCount(tagIds);
+        log.debug("绑定标签完成: targetType={}, targetId={}, tagIds={}", targetType, targetId, tagIds);
+        return tagIds;
+    }
+
+    /**
+     * 去除空白并去重，保持原有顺序
+     */
+    private List<String> normalizeNames(Collection<String> tagNames) {
+        if (tagNames == null || tagNames.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : tagNames) {
+            if (StringUtils.hasText(name)) {
+                names.add(name.trim());
+            }
+        }
+        return new ArrayList<>(names);
+    }
+}
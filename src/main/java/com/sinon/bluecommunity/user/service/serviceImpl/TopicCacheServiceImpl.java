@@ -0,0 +1,165 @@
+package com.sinon.bluecommunity.user.service.serviceImpl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sinon.bluecommunity.common.utils.TransactionUtils;
+import com.sinon.bluecommunity.common.vo.TopicVO;
+import com.sinon.bluecommunity.user.service.TopicCacheService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * 话题详情缓存服务实现类
+ * 一级缓存使用 Caffeine，二级缓存以JSON保存在Redis；
+ * 命中率等统计通过 Micrometer 暴露：topic.detail.cache.l1（Caffeine统计）、topic.detail.cache.l2（Redis命中/未命中）
+ */
+@Slf4j
+@Service
+public class TopicCacheServiceImpl implements TopicCacheService, MessageListener {
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${bluecommunity.topic-cache.local-max-size:10000}")
+    private long localMaxSize;
+
+    @Value("${bluecommunity.topic-cache.local-ttl-seconds:30}")
+    private long localTtlSeconds;
+
+    @Value("${bluecommunity.topic-cache.redis-ttl-seconds:300}")
+    private long redisTtlSeconds;
+
+    // Redis key 前缀和失效消息频道
+    private static final String DETAIL_KEY_PREFIX = "topic:detail:";
+    private static final String INVALIDATE_CHANNEL = "topic:detail:invalidate";
+
+    private Cache<Long, TopicVO> localCache;
+    private Counter redisHits;
+    private Counter redisMisses;
+
+    @PostConstruct
+    public void init() {
+        localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(localTtlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "topic.detail.cache.l1");
+        redisHits = Counter.builder("topic.detail.cache.l2").tag("result", "hit").register(meterRegistry);
+        redisMisses = Counter.builder("topic.detail.cache.l2").tag("result", "miss").register(meterRegistry);
+
+        listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATE_CHANNEL));
+    }
+
+    @Override
+    public TopicVO get(Long topicId, Function<Long, TopicVO> loader) {
+        return localCache.get(topicId, id -> {
+            TopicVO cached = readRedis(id);
+            if (cached != null) {
+                redisHits.increment();
+                return cached;
+            }
+            redisMisses.increment();
+            TopicVO loaded = loader.apply(id);
+            if (loaded != null) {
+                writeRedis(id, loaded);
+            }
+            return loaded;
+        });
+    }
+
+    @Override
+    public void evict(Long topicId) {
+        if (topicId == null) {
+            return;
+        }
+        localCache.invalidate(topicId);
+        TransactionUtils.afterCommit(() -> {
+            // 提交后再清除一次本地缓存，避免事务期间被旧数据回填
+            localCache.invalidate(topicId);
+            try {
+                redisTemplate.delete(DETAIL_KEY_PREFIX + topicId);
+                redisTemplate.convertAndSend(INVALIDATE_CHANNEL, topicId.toString());
+            } catch (Exception e) {
+                log.warn("清除话题详情缓存失败: {}", topicId, e);
+            }
+        });
+    }
+
+    /**
+     * 启动失效消息的订阅，Redis不可用时定时重试
+     * 订阅建立之前其他节点的失效消息会丢失，此时只能依靠本地缓存的过期时间
+     */
+    @Scheduled(initialDelay = 5000, fixedDelay = 30000)
+    public void ensureSubscribed() {
+        if (listenerContainer.isListening()) {
+            return;
+        }
+        try {
+            listenerContainer.start();
+            log.info("已订阅话题详情缓存失效消息");
+        } catch (Exception e) {
+            log.warn("订阅话题详情缓存失效消息失败，稍后重试: {}", e.getMessage());
+            // 启动失败后容器仍标记为已启动，需要先停止才能再次启动
+            listenerContainer.stop();
+        }
+    }
+
+    /**
+     * 收到其他节点（也包括本节点）的失效消息，清除本地缓存
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            Long topicId = Long.valueOf(new String(message.getBody(), StandardCharsets.UTF_8));
+            localCache.invalidate(topicId);
+        } catch (NumberFormatException e) {
+            log.warn("无效的话题缓存失效消息: {}", message);
+        }
+    }
+
+    private TopicVO readRedis(Long topicId) {
+        try {
+            String json = redisTemplate.opsForValue().get(DETAIL_KEY_PREFIX + topicId);
+            return json == null ? null : objectMapper.readValue(json, TopicVO.class);
+        } catch (Exception e) {
+            log.warn("读取话题详情缓存失败: {}", topicId, e);
+            return null;
+        }
+    }
+
+    private void writeRedis(Long topicId, TopicVO vo) {
+        try {
+            redisTemplate.opsForValue().set(DETAIL_KEY_PREFIX + topicId, objectMapper.writeValueAsString(vo),
+                    Duration.ofSeconds(redisTtlSeconds));
+        } catch (Exception e) {
+            log.warn("写入话题详情缓存失败: {}", topicId, e);
+        }
+    }
+}
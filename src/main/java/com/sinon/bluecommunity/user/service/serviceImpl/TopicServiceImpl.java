@@ -1,30 +1,45 @@
 package com.sinon.bluecommunity.user.service.serviceImpl;
 
+import com.sinon.bluecommunity.common.constant.CommonConstants;
+import com.sinon.bluecommunity.common.dto.TopicCursor;
+import com.sinon.bluecommunity.common.dto.TotalCount;
+import com.sinon.bluecommunity.common.dto.UserStats;
+import com.sinon.bluecommunity.common.entity.Like;
 import com.sinon.bluecommunity.common.entity.Topic;
-import com.sinon.bluecommunity.common.entity.User;
-import com.sinon.bluecommunity.common.entity.Tag;
-import com.sinon.bluecommunity.common.entity.TagRelation;
 import com.sinon.bluecommunity.common.exception.BusinessException;
+import com.sinon.bluecommunity.common.utils.HtmlUtils;
+import com.sinon.bluecommunity.common.utils.PermissionUtils;
 import com.sinon.bluecommunity.common.vo.PageVO;
+import com.sinon.bluecommunity.common.vo.TopicSummaryVO;
 import com.sinon.bluecommunity.common.vo.TopicVO;
-import com.sinon.bluecommunity.common.vo.TagVO;
-import com.sinon.bluecommunity.user.mapper.LikeMapper;
+import com.sinon.bluecommunity.user.assembler.TopicAssembler;
 import com.sinon.bluecommunity.user.mapper.TopicMapper;
 import com.sinon.bluecommunity.user.mapper.UserMapper;
-import com.sinon.bluecommunity.user.mapper.TagMapper;
-import com.sinon.bluecommunity.user.mapper.TagRelationMapper;
+import com.sinon.bluecommunity.user.service.CategoryCounterService;
+import com.sinon.bluecommunity.user.service.ContentVersionService;
+import com.sinon.bluecommunity.user.service.FeedService;
+import com.sinon.bluecommunity.user.service.HotScoreService;
+import com.sinon.bluecommunity.user.service.HotTopicService;
+import com.sinon.bluecommunity.user.service.LikeService;
+import com.sinon.bluecommunity.user.service.TagService;
+import com.sinon.bluecommunity.user.service.TopicCacheService;
 import com.sinon.bluecommunity.user.service.TopicService;
+import com.sinon.bluecommunity.user.service.TotalCountService;
+import com.sinon.bluecommunity.user.service.UserStatsService;
+import com.sinon.bluecommunity.user.service.ViewCounterService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -38,6 +53,26 @@ import java.util.stream.Collectors;
 @Service
 public class TopicServiceImpl implements TopicService {
 
+    /**
+     * 按搜索相关度排序
+     */
+    private static final String ORDER_RELEVANCE = "relevance";
+
+    /**
+     * 列表摘要的最大字符数
+     */
+    private static final int EXCERPT_LENGTH = 120;
+
+    /**
+     * 回填历史摘要时每批处理的话题数
+     */
+    private static final int EXCERPT_BACKFILL_BATCH_SIZE = 200;
+
+    /**
+     * 历史摘要是否已全部回填，回填完成后定时任务不再访问数据库
+     */
+    private volatile boolean excerptBackfilled;
+
     /**
      * 话题数据访问接口
      */
@@ -51,22 +86,76 @@ public class TopicServiceImpl implements TopicService {
     private UserMapper userMapper;
 
     /**
-     * 点赞数据访问接口
+     * 点赞服务
+     */
+    @Autowired
+    private LikeService likeService;
+
+    /**
+     * 标签服务
+     */
+    @Autowired
+    private TagService tagService;
+
+    /**
+     * 话题VO组装器
+     */
+    @Autowired
+    private TopicAssembler topicAssembler;
+
+    /**
+     * 热门话题排行服务
+     */
+    @Autowired
+    private HotTopicService hotTopicService;
+
+    /**
+     * 话题热度计算服务
+     */
+    @Autowired
+    private HotScoreService hotScoreService;
+
+    /**
+     * 浏览量计数服务
+     */
+    @Autowired
+    private ViewCounterService viewCounterService;
+
+    /**
+     * 分页总数服务
      */
     @Autowired
-    private LikeMapper likeMapper;
+    private TotalCountService totalCountService;
 
     /**
-     * 标签数据访问接口
+     * 话题详情缓存服务
      */
     @Autowired
-    private TagMapper tagMapper;
+    private TopicCacheService topicCacheService;
 
     /**
-     * 标签关联数据访问接口
+     * 用户计数服务
      */
     @Autowired
-    private TagRelationMapper tagRelationMapper;
+    private UserStatsService userStatsService;
+
+    /**
+     * 分类话题计数服务
+     */
+    @Autowired
+    private CategoryCounterService categoryCounterService;
+
+    /**
+     * 关注流服务
+     */
+    @Autowired
+    private FeedService feedService;
+
+    /**
+     * 内容版本号服务
+     */
+    @Autowired
+    private ContentVersionService contentVersionService;
 
     /**
      * 创建话题
@@ -87,6 +176,9 @@ public class TopicServiceImpl implements TopicService {
         if (topic.getCoverUrl() == null || topic.getCoverUrl().trim().isEmpty()) {
             topic.setCoverUrl(null);  // 显式设置为null，表示无封面
         }
+        // 列表页只读取摘要，写入时生成；正文为空时存空串，NULL 只表示尚未回填的历史数据
+        String excerpt = HtmlUtils.excerpt(topic.getContent(), EXCERPT_LENGTH);
+        topic.setExcerpt(excerpt != null ? excerpt : "");
         System.out.println("-----默认值-----success");
         // 2. 保存话题基本信息
         try {
@@ -101,29 +193,16 @@ public class TopicServiceImpl implements TopicService {
         }
         
         // 3. 处理标签（如果有）
-        if (topic.getTags() != null && !topic.getTags().isEmpty()) {
-            for (String tagName : topic.getTags()) {
-                // 3.1 获取或创建标签
-                Tag tag = tagMapper.selectByName(tagName);
-                if (tag == null) {
-                    tag = new Tag();
-                    tag.setName(tagName);
-                    tag.setStatus(1);
-                    tag.setUsageCount(0);
-                    tagMapper.insert(tag);
-                }
-                System.out.println("Test--Tag-success");
-                
-                // 3.2 创建关联关系
-                TagRelation relation = new TagRelation();
-                relation.setTagId(tag.getId());
-                relation.setTargetId(topic.getId());
-                relation.setTargetType("topic");
-                tagRelationMapper.insert(relation);
-                
-                // 3.3 更新标签使用计数
-                tagMapper.incrementUsageCount(tag.getId());
-            }
+        tagService.attachTags(topic.getId(), "topic", topic.getTags());
+        
+        // 4. 加入热榜
+        hotTopicService.refresh(Collections.singletonList(topic.getId()));
+        totalCountService.invalidate(TotalCountService.TYPE_TOPIC);
+        contentVersionService.bump(ContentVersionService.SCOPE_TOPICS);
+        userStatsService.changeStatus(topic.getUserId(), UserStatsService.TYPE_TOPIC, null, topic.getStatus());
+        categoryCounterService.onTopicChanged(null, null, topic.getCategoryId(), topic.getStatus());
+        if (topic.isNormal()) {
+            feedService.publish(topic.getId(), topic.getUserId());
         }
         
         return topic.getId();
@@ -145,6 +224,11 @@ public class TopicServiceImpl implements TopicService {
         if (existingTopic == null) {
             throw new BusinessException("话题不存在");
         }
+        // 正文变化时重新生成摘要；正文为空白时写入空串，避免保留旧摘要
+        if (topic.getContent() != null) {
+            String excerpt = HtmlUtils.excerpt(topic.getContent(), EXCERPT_LENGTH);
+            topic.setExcerpt(excerpt != null ? excerpt : "");
+        }
         
         try {
             int rows = topicMapper.update(topic);
@@ -155,6 +239,23 @@ public class TopicServiceImpl implements TopicService {
             log.error("更新话题失败", e);
             throw new BusinessException("更新话题失败：" + e.getMessage());
         }
+        
+        // 分类或状态可能变化，同步热榜、分页总数和详情缓存
+        hotTopicService.refresh(Collections.singletonList(topic.getId()));
+        topicCacheService.evict(topic.getId());
+        totalCountService.invalidate(TotalCountService.TYPE_TOPIC);
+        contentVersionService.bump(ContentVersionService.SCOPE_TOPICS, ContentVersionService.topicScope(topic.getId()));
+        if (topic.getStatus() != null) {
+            userStatsService.changeStatus(existingTopic.getUserId(), UserStatsService.TYPE_TOPIC,
+                    existingTopic.getStatus(), topic.getStatus());
+        }
+        categoryCounterService.onTopicChanged(existingTopic.getCategoryId(), existingTopic.getStatus(),
+                topic.getCategoryId() != null ? topic.getCategoryId() : existingTopic.getCategoryId(),
+                topic.getStatus() != null ? topic.getStatus() : existingTopic.getStatus());
+        // 草稿发布后才进入关注流
+        if (!existingTopic.isNormal() && Integer.valueOf(Topic.STATUS_NORMAL).equals(topic.getStatus())) {
+            feedService.publish(existingTopic.getId(), existingTopic.getUserId());
+        }
     }
 
     /**
@@ -169,38 +270,20 @@ public class TopicServiceImpl implements TopicService {
         
         try {
 
-            // 增加一个浏览量
-            topicMapper.incrementViews(id);
+            // 读取话题详情（本地缓存 -> Redis -> 数据库）
+            TopicVO cached = topicCacheService.get(id, this::loadTopicDetail);
 
-            // 获取话题信息
-            Topic topic = topicMapper.selectById(id);
-            if (topic == null) {
-                throw new BusinessException("话题不存在");
-            }
-            
-            // 获取作者信息
-            User author = userMapper.selectById(topic.getUserId());
-            if (author == null) {
-                throw new BusinessException("话题作者不存在");
-            }
+            // 增加一个浏览量（内存累加，定时写回数据库并更新热榜，不在关键路径上）
+            topicAssembler.timed("views", () -> {
+                viewCounterService.increment(ViewCounterService.TYPE_TOPIC, id);
+                return null;
+            });
             
-            // 转换为VO对象
+            // 缓存中的对象是共享的，复制后再换成实时浏览量（缓存中的浏览量可能已过时）
             TopicVO vo = new TopicVO();
-            BeanUtils.copyProperties(topic, vo);
-            vo.setAuthor(author);
-            
-            // 查询话题的标签并转换为TagVO
-            List<Tag> tags = tagMapper.selectByTopicId(topic.getId());
-            if (!CollectionUtils.isEmpty(tags)) {
-                List<TagVO> tagVOs = tags.stream().map(tag -> {
-                    TagVO tagVO = new TagVO();
-                    BeanUtils.copyProperties(tag, tagVO);
-                    return tagVO;
-                }).collect(Collectors.toList());
-                vo.setTags(tagVOs);
-            } else {
-                vo.setTags(new ArrayList<>());
-            }
+            BeanUtils.copyProperties(cached, vo);
+            long cachedViews = vo.getViews() == null ? 0 : vo.getViews();
+            vo.setViews((int) viewCounterService.getViews(ViewCounterService.TYPE_TOPIC, id, cachedViews));
             
             return vo;
             
@@ -210,17 +293,39 @@ public class TopicServiceImpl implements TopicService {
         }
     }
 
+    /**
+     * 从数据库加载话题详情（缓存未命中时调用）
+     * 作者和标签并行查询
+     */
+    private TopicVO loadTopicDetail(Long id) {
+        Topic topic = topicAssembler.timed("topic", () -> topicMapper.selectById(id));
+        if (topic == null) {
+            throw new BusinessException("话题不存在");
+        }
+        
+        TopicVO vo = topicAssembler.toDetailVO(topic);
+        if (vo.getAuthor() == null) {
+            throw new BusinessException("话题作者不存在");
+        }
+        return vo;
+    }
+
     /**
      * 分页获取话题列表
      * 支持按用户、分类、状态、关键词搜索
      * 支持多种排序方式
      */
     @Override
-    public PageVO<TopicVO> getTopicList(Long userId, Long categoryId, Integer status,
-                                       String keyword, String orderBy, Integer page, Integer size) {
+    public PageVO<TopicSummaryVO> getTopicList(Long userId, Long categoryId, Integer status,
+                                              String keyword, String orderBy, Integer page, Integer size) {
         // 参数校验和默认值设置
         page = page == null || page < 1 ? 1 : page;
         size = size == null || size < 1 ? 10 : size;
+        keyword = normalizeKeyword(keyword);
+        // 搜索默认按相关度排序
+        if (keyword != null && (orderBy == null || orderBy.isEmpty())) {
+            orderBy = ORDER_RELEVANCE;
+        }
         
         try {
             // 计算分页偏移量
@@ -232,54 +337,55 @@ public class TopicServiceImpl implements TopicService {
                 return new PageVO<>(new ArrayList<>(), 0L);
             }
             
-            // 获取作者信息（批量查询优化）
-            final Map<Long, User> userMap;
-            List<Long> userIds = topics.stream()
-                .map(Topic::getUserId)
-                .distinct()  // 去重
-                .collect(Collectors.toList());
+            // 批量组装作者和标签信息
+            List<TopicSummaryVO> voList = topicAssembler.toSummaryList(topics);
             
-            if (!CollectionUtils.isEmpty(userIds)) {
-                List<User> users = userMapper.selectByIds(userIds);
-                userMap = users.stream()
-                    .collect(Collectors.toMap(
-                        User::getId,
-                        user -> user,
-                        (existing, replacement) -> existing,  // 如果有重复的key，保留第一个
-                        HashMap::new
-                    ));
-            } else {
-                userMap = new HashMap<>();
+            // 获取总数（带缓存）
+            String filterKeyword = keyword;
+            TotalCount total = totalCountService.count(TotalCountService.TYPE_TOPIC,
+                    () -> topicMapper.count(userId, categoryId, status, filterKeyword),
+                    userId, categoryId, status, keyword);
+            return PageVO.of(voList, total);
+            
+        } catch (Exception e) {
+            log.error("获取话题列表失败", e);
+            throw new BusinessException("获取话题列表失败：" + e.getMessage());
+        }
+    }
+
+    /**
+     * 游标分页获取话题列表
+     * 多查一条用于判断是否还有下一页，不执行 COUNT 查询
+     */
+    @Override
+    public PageVO<TopicSummaryVO> getTopicListByCursor(Long userId, Long categoryId, Integer status,
+                                                      String keyword, String orderBy, String cursor, Integer size) {
+        size = size == null || size < 1 ? 10 : Math.min(size, CommonConstants.MAX_PAGE_SIZE);
+        String normalizedOrderBy = TopicCursor.normalizeOrderBy(orderBy);
+        keyword = normalizeKeyword(keyword);
+        
+        // 解析游标（无效游标直接抛出参数错误）
+        TopicCursor current = TopicCursor.decode(cursor, normalizedOrderBy);
+        
+        try {
+            List<Topic> topics = topicMapper.selectListByCursor(userId, categoryId, status, keyword,
+                    normalizedOrderBy, current, size + 1);
+            if (CollectionUtils.isEmpty(topics)) {
+                return PageVO.ofCursor(new ArrayList<>(), null);
             }
             
-            // 转换为VO对象
-            List<TopicVO> voList = topics.stream().map(topic -> {
-                TopicVO vo = new TopicVO();
-                BeanUtils.copyProperties(topic, vo);
-                vo.setAuthor(userMap.get(topic.getUserId()));
-                
-                // 查询话题的标签并转换为TagVO
-                List<Tag> tags = tagMapper.selectByTopicId(topic.getId());
-                if (!CollectionUtils.isEmpty(tags)) {
-                    List<TagVO> tagVOs = tags.stream().map(tag -> {
-                        TagVO tagVO = new TagVO();
-                        BeanUtils.copyProperties(tag, tagVO);
-                        return tagVO;
-                    }).collect(Collectors.toList());
-                    vo.setTags(tagVOs);
-                } else {
-                    vo.setTags(new ArrayList<>());
-                }
-                
-                return vo;
-            }).collect(Collectors.toList());
+            // 多查出的一条说明还有下一页
+            String nextCursor = null;
+            if (topics.size() > size) {
+                topics = topics.subList(0, size);
+                nextCursor = TopicCursor.of(topics.get(topics.size() - 1), normalizedOrderBy).encode();
+            }
             
-            // 获取总数
-            long total = topicMapper.count(userId, categoryId, status, keyword);
-            return new PageVO<>(voList, total);
+            List<TopicSummaryVO> voList = topicAssembler.toSummaryList(topics);
+            return PageVO.ofCursor(voList, nextCursor);
             
         } catch (Exception e) {
-            log.error("获取话题列表失败", e);
+            log.error("游标获取话题列表失败", e);
             throw new BusinessException("获取话题列表失败：" + e.getMessage());
         }
     }
@@ -302,10 +408,19 @@ public class TopicServiceImpl implements TopicService {
             }
             
             // 更新状态为删除
+            Topic existingTopic = topicMapper.selectById(id);
             int rows = topicMapper.updateStatus(id, Topic.STATUS_DELETED);
             if (rows != 1) {
                 throw new BusinessException("删除话题失败");
             }
+            hotTopicService.refresh(Collections.singletonList(id));
+            topicCacheService.evict(id);
+            totalCountService.invalidate(TotalCountService.TYPE_TOPIC);
+            contentVersionService.bump(ContentVersionService.SCOPE_TOPICS, ContentVersionService.topicScope(id));
+            userStatsService.changeStatus(existingTopic.getUserId(), UserStatsService.TYPE_TOPIC,
+                    existingTopic.getStatus(), Topic.STATUS_DELETED);
+            categoryCounterService.onTopicChanged(existingTopic.getCategoryId(), existingTopic.getStatus(),
+                    existingTopic.getCategoryId(), Topic.STATUS_DELETED);
         } catch (BusinessException e) {
             throw e;
         } catch (Exception e) {
@@ -335,6 +450,9 @@ public class TopicServiceImpl implements TopicService {
             if (rows != 1) {
                 throw new BusinessException("更新置顶状态失败");
             }
+            topicCacheService.evict(id);
+            // 置顶影响列表排序
+            contentVersionService.bump(ContentVersionService.SCOPE_TOPICS, ContentVersionService.topicScope(id));
         } catch (BusinessException e) {
             throw e;
         } catch (Exception e) {
@@ -353,10 +471,7 @@ public class TopicServiceImpl implements TopicService {
         }
         
         try {
-            int rows = topicMapper.incrementViews(id);
-            if (rows != 1) {
-                throw new BusinessException("更新浏览量失败");
-            }
+            viewCounterService.increment(ViewCounterService.TYPE_TOPIC, id);
         } catch (Exception e) {
             log.error("更新浏览量失败", e);
             throw new BusinessException("更新浏览量失败：" + e.getMessage());
@@ -365,10 +480,9 @@ public class TopicServiceImpl implements TopicService {
 
     /**
      * 点赞话题
-     * 包含重复点赞检查
+     * 点赞状态在Redis中原子变更，点赞记录和话题点赞数由后台任务批量写入数据库
      */
     @Override
-    @Transactional
     public void likeTopic(Long topicId, Long userId) {
         if (topicId == null || userId == null) {
             throw new BusinessException("参数不能为空");
@@ -381,16 +495,8 @@ public class TopicServiceImpl implements TopicService {
                 throw new BusinessException("话题不存在");
             }
             
-            // 检查是否已点赞
-            if (likeMapper.exists(userId, topicId, "topic")) {
-                throw new BusinessException("已经点赞过了");
-            }
-            
-            // 添加点赞记录
-            likeMapper.insert(userId, topicId, "topic");
-            
-            // 更新话题点赞数
-            topicMapper.updateLikes(topicId, 1);
+            // 重复点赞时抛出"已经点赞过了"
+            likeService.like(userId, topicId, Like.TARGET_TYPE_TOPIC);
         } catch (BusinessException e) {
             throw e;
         } catch (Exception e) {
@@ -404,23 +510,15 @@ public class TopicServiceImpl implements TopicService {
      * 包含点赞记录检查
      */
     @Override
-    @Transactional
     public void unlikeTopic(Long topicId, Long userId) {
         if (topicId == null || userId == null) {
             throw new BusinessException("参数不能为空");
         }
         
         try {
-            // 检查是否已点赞
-            if (!likeMapper.exists(userId, topicId, "topic")) {
+            if (!likeService.unlike(userId, topicId, Like.TARGET_TYPE_TOPIC)) {
                 throw new BusinessException("还没有点赞过");
             }
-            
-            // 删除点赞记录
-            likeMapper.delete(userId, topicId, "topic");
-            
-            // 更新话题点赞数
-            topicMapper.updateLikes(topicId, -1);
         } catch (BusinessException e) {
             throw e;
         } catch (Exception e) {
@@ -464,10 +562,11 @@ public class TopicServiceImpl implements TopicService {
         }
         
         try {
+            UserStats userStats = userStatsService.getStats(userId);
             TopicVO.UserTopicStats stats = new TopicVO.UserTopicStats();
-            stats.setTotalCount(topicMapper.countByUser(userId, null));
-            stats.setPublishedCount(topicMapper.countByUser(userId, Topic.STATUS_NORMAL));
-            stats.setDraftCount(topicMapper.countByUser(userId, Topic.STATUS_DRAFT));
+            stats.setTotalCount((int) userStats.topicCount(null));
+            stats.setPublishedCount((int) userStats.topicCount(Topic.STATUS_NORMAL));
+            stats.setDraftCount((int) userStats.topicCount(Topic.STATUS_DRAFT));
             
             return stats;
         } catch (Exception e) {
@@ -489,16 +588,30 @@ public class TopicServiceImpl implements TopicService {
         
         try {
             // 检查权限
-            for (Long id : ids) {
-                if (!checkPermission(operatorId, id)) {
-                    throw new BusinessException("无权限操作部分话题");
-                }
-            }
+            PermissionUtils.requireOwned(ids, batch -> topicMapper.selectOwnedIds(batch, operatorId),
+                    "无权限操作部分话题");
             
+            List<Topic> existingTopics = topicMapper.selectByIds(ids);
             int rows = topicMapper.batchUpdateStatus(ids, status);
             if (rows != ids.size()) {
                 throw new BusinessException("批量更新状态失败");
             }
+            for (Topic existingTopic : existingTopics) {
+                userStatsService.changeStatus(existingTopic.getUserId(), UserStatsService.TYPE_TOPIC,
+                        existingTopic.getStatus(), status);
+                categoryCounterService.onTopicChanged(existingTopic.getCategoryId(), existingTopic.getStatus(),
+                        existingTopic.getCategoryId(), status);
+                if (!existingTopic.isNormal() && status == Topic.STATUS_NORMAL) {
+                    feedService.publish(existingTopic.getId(), existingTopic.getUserId());
+                }
+            }
+            hotTopicService.refresh(ids);
+            ids.forEach(topicCacheService::evict);
+            totalCountService.invalidate(TotalCountService.TYPE_TOPIC);
+            List<String> scopes = new ArrayList<>(ids.size() + 1);
+            scopes.add(ContentVersionService.SCOPE_TOPICS);
+            ids.forEach(id -> scopes.add(ContentVersionService.topicScope(id)));
+            contentVersionService.bump(scopes.toArray(new String[0]));
         } catch (BusinessException e) {
             throw e;
         } catch (Exception e) {
@@ -518,9 +631,10 @@ public class TopicServiceImpl implements TopicService {
         }
         
         try {
+            Map<Integer, Long> counts = categoryCounterService.getCounts(categoryId);
             TopicVO.CategoryTopicStats stats = new TopicVO.CategoryTopicStats();
-            stats.setTotalCount(topicMapper.countByCategory(categoryId, null));
-            stats.setNormalCount(topicMapper.countByCategory(categoryId, Topic.STATUS_NORMAL));
+            stats.setTotalCount((int) counts.values().stream().mapToLong(Long::longValue).sum());
+            stats.setNormalCount(counts.getOrDefault(Topic.STATUS_NORMAL, 0L).intValue());
             
             return stats;
         } catch (Exception e) {
@@ -534,7 +648,7 @@ public class TopicServiceImpl implements TopicService {
      * 支持按分类筛选、时间范围限定以及多种热度类型
      */
     @Override
-    public PageVO<TopicVO> getHotTopics(Long categoryId, Integer days, String hotType, Integer page, Integer size) {
+    public PageVO<TopicSummaryVO> getHotTopics(Long categoryId, Integer days, String hotType, Integer page, Integer size) {
         // 默认值处理
         if (page == null || page < 1) {
             page = 1;
@@ -553,6 +667,11 @@ public class TopicServiceImpl implements TopicService {
             // 计算偏移量
             int offset = (page - 1) * size;
 
+            // 热榜窗口内的查询直接读取Redis排行
+            if (hotTopicService.supports(days)) {
+                return getHotTopicsFromRank(categoryId, hotType, page, size, offset);
+            }
+
             long total = 0;
 
             if (categoryId == null) {
@@ -569,63 +688,14 @@ public class TopicServiceImpl implements TopicService {
             }
             
             // 从数据库获取热门话题
-            List<Topic> topics = topicMapper.selectHotTopics(categoryId, days, hotType, offset, size);
+            List<Topic> topics = topicMapper.selectHotTopics(categoryId, days, hotType,
+                    hotScoreService.getHalfLifeHours(), offset, size);
             
-            // 转换为VO对象
-            List<TopicVO> topicVOList = new ArrayList<>();
-            if (!CollectionUtils.isEmpty(topics)) {
-                // 收集所有作者ID
-                List<Long> userIds = topics.stream()
-                    .map(Topic::getUserId)
-                    .distinct()
-                    .collect(Collectors.toList());
-                
-                // 创建用户ID和用户信息的映射
-                Map<Long, User> userMap = new HashMap<>();
-                
-                // 只有当有用户ID时才执行批量查询
-                if (!CollectionUtils.isEmpty(userIds)) {
-                    try {
-                        // 批量查询作者信息
-                        List<User> users = userMapper.selectByIds(userIds);
-                        if (!CollectionUtils.isEmpty(users)) {
-                            userMap = users.stream()
-                                .collect(Collectors.toMap(
-                                    User::getId, 
-                                    user -> user, 
-                                    (existing, replacement) -> existing
-                                ));
-                        }
-                    } catch (Exception e) {
-                        log.error("批量查询用户信息失败", e);
-                        // 这里只记录日志，不抛出异常，避免因为用户信息查询失败影响整个热门话题列表
-                    }
-                }
-                
-                // 构建VO对象
-                for (Topic topic : topics) {
-                    TopicVO vo = new TopicVO();
-                    BeanUtils.copyProperties(topic, vo);
-                    
-                    // 设置作者信息
-                    User author = userMap.get(topic.getUserId());
-                    if (author != null) {
-                        vo.setAuthor(author);
-                    } else {
-                        // 如果没有找到作者信息，设置默认值
-                        User unknownUser = new User();
-                        unknownUser.setId(topic.getUserId());
-                        unknownUser.setUsername("unknown");
-                        unknownUser.setNickname("未知用户");
-                        vo.setAuthor(unknownUser);
-                    }
-                    
-                    topicVOList.add(vo);
-                }
-            }
+            // 批量组装作者和标签信息
+            List<TopicSummaryVO> topicVOList = topicAssembler.toSummaryList(topics);
             
             // 封装分页数据
-            PageVO<TopicVO> pageVO = new PageVO<>(topicVOList, total);
+            PageVO<TopicSummaryVO> pageVO = new PageVO<>(topicVOList, total);
             // 设置是否有更多数据
             pageVO.setHasMore(size, page);
             
@@ -635,4 +705,83 @@ public class TopicServiceImpl implements TopicService {
             throw new BusinessException("获取热门话题列表失败：" + e.getMessage());
         }
     }
+
+    /**
+     * 回填历史话题的摘要
+     * 按ID分批读取 excerpt 为空的话题，用与发帖时相同的方法从正文生成摘要；
+     * 只更新仍为空的行，不会覆盖回填期间用户编辑生成的摘要，多个节点同时执行也没有影响
+     */
+    @Override
+    @Scheduled(initialDelayString = "${bluecommunity.topic-excerpt.backfill-initial-delay:60000}",
+            fixedDelayString = "${bluecommunity.topic-excerpt.backfill-interval:3600000}")
+    public void backfillExcerpts() {
+        if (excerptBackfilled) {
+            return;
+        }
+        try {
+            long lastId = 0;
+            int filled = 0;
+            while (true) {
+                List<Topic> topics = topicMapper.selectMissingExcerptAfterId(lastId, EXCERPT_BACKFILL_BATCH_SIZE);
+                if (CollectionUtils.isEmpty(topics)) {
+                    break;
+                }
+                for (Topic topic : topics) {
+                    String excerpt = HtmlUtils.excerpt(topic.getContent(), EXCERPT_LENGTH);
+                    filled += topicMapper.fillExcerpt(topic.getId(), excerpt != null ? excerpt : "");
+                }
+                lastId = topics.get(topics.size() - 1).getId();
+                if (topics.size() < EXCERPT_BACKFILL_BATCH_SIZE) {
+                    break;
+                }
+            }
+            excerptBackfilled = true;
+            if (filled > 0) {
+                log.info("历史话题摘要回填完成，共 {} 条", filled);
+            }
+        } catch (Exception e) {
+            // 下次定时任务从头继续，已回填的行不会再被读到
+            log.error("回填历史话题摘要失败", e);
+        }
+    }
+
+    /**
+     * 规范化搜索关键词，空白关键词视为不搜索
+     */
+    private String normalizeKeyword(String keyword) {
+        if (keyword == null) {
+            return null;
+        }
+        keyword = keyword.trim();
+        return keyword.isEmpty() ? null : keyword;
+    }
+
+    /**
+     * 从Redis热榜读取热门话题
+     * 按排行中的ID顺序批量加载话题，已被删除的话题直接跳过
+     */
+    private PageVO<TopicSummaryVO> getHotTopicsFromRank(Long categoryId, String hotType, int page, int size, int offset) {
+        long total = hotTopicService.countHotTopics(categoryId);
+        if (total == 0) {
+            return new PageVO<>(new ArrayList<>(), 0L);
+        }
+
+        List<Long> ids = hotTopicService.getHotTopicIds(categoryId, hotType, offset, size);
+        if (ids.isEmpty()) {
+            PageVO<TopicSummaryVO> pageVO = new PageVO<>(new ArrayList<>(), total);
+            pageVO.setHasMore(size, page);
+            return pageVO;
+        }
+
+        Map<Long, Topic> topicMap = topicMapper.selectSummariesByIds(ids).stream()
+                .collect(Collectors.toMap(Topic::getId, Function.identity(), (a, b) -> a));
+        List<Topic> topics = ids.stream()
+                .map(topicMap::get)
+                .filter(topic -> topic != null && topic.isNormal())
+                .collect(Collectors.toList());
+
+        PageVO<TopicSummaryVO> pageVO = new PageVO<>(topicAssembler.toSummaryList(topics), total);
+        pageVO.setHasMore(size, page);
+        return pageVO;
+    }
 }
@@ -0,0 +1,143 @@
+package com.sinon.bluecommunity.user.service.serviceImpl;
+
+import com.sinon.bluecommunity.common.dto.TotalCount;
+import com.sinon.bluecommunity.common.utils.TransactionUtils;
+import com.sinon.bluecommunity.user.mapper.TableStatsMapper;
+import com.sinon.bluecommunity.user.service.TotalCountService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 分页总数服务实现类
+ * 缓存key中带有对象类型的版本号，写操作只需要递增版本号，旧版本的缓存自然过期
+ */
+@Slf4j
+@Service
+public class TotalCountServiceImpl implements TotalCountService {
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private TableStatsMapper tableStatsMapper;
+
+    /**
+     * 缓存时间（秒）
+     */
+    @Value("${bluecommunity.page-total.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    /**
+     * 没有筛选条件时是否使用估算值
+     */
+    @Value("${bluecommunity.page-total.approximate-unfiltered:false}")
+    private boolean approximateUnfiltered;
+
+    /**
+     * 估算行数达到该值才使用估算值，小表的 COUNT 足够快
+     */
+    @Value("${bluecommunity.page-total.approximate-threshold:100000}")
+    private long approximateThreshold;
+
+    // Redis key 前缀
+    private static final String COUNT_KEY_PREFIX = "count:";
+    private static final String VERSION_SUFFIX = ":version";
+
+    /**
+     * 对象类型 -> 表名
+     */
+    private static final Map<String, String> TABLES = Map.of(
+            TYPE_TOPIC, "topics",
+            TYPE_RESOURCE, "resources",
+            TYPE_ACTIVITY, "activities",
+            TYPE_USER, "user"
+    );
+
+    @Override
+    public TotalCount count(String entityType, Supplier<Long> counter, Object... filters) {
+        if (approximateUnfiltered && isUnfiltered(filters)) {
+            Long estimate = estimate(entityType);
+            if (estimate != null && estimate >= approximateThreshold) {
+                return TotalCount.approximate(estimate);
+            }
+        }
+
+        // 先读版本号再查询，查询期间发生的写操作会使这次的结果落在旧版本上，不会被读到
+        String key = null;
+        try {
+            key = cacheKey(entityType, filters);
+            String cached = redisTemplate.opsForValue().get(key);
+            if (cached != null) {
+                return TotalCount.exact(Long.parseLong(cached));
+            }
+        } catch (Exception e) {
+            log.warn("读取分页总数缓存失败: {}", e.getMessage());
+        }
+
+        long total = counter.get();
+        if (key != null) {
+            try {
+                redisTemplate.opsForValue().set(key, String.valueOf(total), ttlSeconds, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                log.warn("写入分页总数缓存失败: {}", e.getMessage());
+            }
+        }
+        return TotalCount.exact(total);
+    }
+
+    @Override
+    public void invalidate(String entityType) {
+        TransactionUtils.afterCommit(() -> {
+            try {
+                redisTemplate.opsForValue().increment(versionKey(entityType));
+            } catch (Exception e) {
+                log.warn("清除分页总数缓存失败: {}", entityType, e);
+            }
+        });
+    }
+
+    private String cacheKey(String entityType, Object... filters) {
+        String version = redisTemplate.opsForValue().get(versionKey(entityType));
+        StringBuilder filterKey = new StringBuilder();
+        for (Object filter : filters) {
+            filterKey.append(filter == null ? "" : filter.toString()).append('\u0001');
+        }
+        return COUNT_KEY_PREFIX + entityType + ":" + (version == null ? "0" : version)
+                + ":" + DigestUtils.md5DigestAsHex(filterKey.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String versionKey(String entityType) {
+        return COUNT_KEY_PREFIX + entityType + VERSION_SUFFIX;
+    }
+
+    private boolean isUnfiltered(Object... filters) {
+        for (Object filter : filters) {
+            if (filter != null && !"".equals(filter)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Long estimate(String entityType) {
+        String table = TABLES.get(entityType);
+        if (table == null) {
+            return null;
+        }
+        try {
+            return tableStatsMapper.estimateRows(table);
+        } catch (Exception e) {
+            log.warn("读取表统计信息失败: {}", table, e);
+            return null;
+        }
+    }
+}
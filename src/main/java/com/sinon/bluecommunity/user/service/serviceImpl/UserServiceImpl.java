@@ -1,6 +1,8 @@
 package com.sinon.bluecommunity.user.service.serviceImpl;
 
+import com.sinon.bluecommunity.common.dto.TotalCount;
 import com.sinon.bluecommunity.common.dto.UserProfileDTO;
+import com.sinon.bluecommunity.common.dto.UserStats;
 import com.sinon.bluecommunity.common.entity.User;
 import com.sinon.bluecommunity.common.exception.BusinessException;
 import com.sinon.bluecommunity.common.utils.ThreadLocalUtil;
@@ -8,10 +10,10 @@ import com.sinon.bluecommunity.common.vo.PageResult;
 import com.sinon.bluecommunity.common.enums.ResultCode;
 import com.sinon.bluecommunity.user.mapper.ActivityMapper;
 import com.sinon.bluecommunity.user.mapper.CommentMapper;
-import com.sinon.bluecommunity.user.mapper.LikeMapper;
-import com.sinon.bluecommunity.user.mapper.TopicMapper;
 import com.sinon.bluecommunity.user.mapper.UserMapper;
+import com.sinon.bluecommunity.user.service.TotalCountService;
 import com.sinon.bluecommunity.user.service.UserService;
+import com.sinon.bluecommunity.user.service.UserStatsService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -41,13 +43,13 @@ public class UserServiceImpl implements UserService {
     private CommentMapper commentMapper;
 
     @Autowired
-    private LikeMapper likeMapper;
+    private ActivityMapper activityMapper;
 
     @Autowired
-    private ActivityMapper activityMapper;
+    private TotalCountService totalCountService;
 
     @Autowired
-    private TopicMapper topicMapper;
+    private UserStatsService userStatsService;
 
     @Override
     public User register(String username, String password, String email) {
@@ -71,6 +73,7 @@ public class UserServiceImpl implements UserService {
         user.setLevel(1); // 默认等级为1
 
         userMapper.insert(user);
+        totalCountService.invalidate(TotalCountService.TYPE_USER);
         log.info("用户注册成功: {}", username);
         return user;
     }
@@ -133,6 +136,7 @@ public class UserServiceImpl implements UserService {
         }
 
         userMapper.updateBasicInfo(user);
+        totalCountService.invalidate(TotalCountService.TYPE_USER);
         return userMapper.selectById(user.getId());
     }
 
@@ -178,20 +182,24 @@ public class UserServiceImpl implements UserService {
         }
 
         userMapper.updateLevel(id, level);
+        totalCountService.invalidate(TotalCountService.TYPE_USER);
         return userMapper.selectById(id);
     }
 
     @Override
     public int batchUpdateLevel(List<Long> ids, Integer level) {
         log.info("批量更新用户等级: {} -> {}", ids, level);
-        return userMapper.batchUpdateLevel(ids, level);
+        int rows = userMapper.batchUpdateLevel(ids, level);
+        totalCountService.invalidate(TotalCountService.TYPE_USER);
+        return rows;
     }
 
     @Override
     public PageResult<User> findPage(int page, int size, String username, String email, Integer level) {
         int offset = (page - 1) * size;
         List<User> users = userMapper.selectByCondition(level, email, username, offset, size);
-        long total = userMapper.count(level, email, username);
+        TotalCount total = totalCountService.count(TotalCountService.TYPE_USER,
+                () -> userMapper.count(level, email, username), level, email, username);
         return new PageResult<>(users, page, size, total);
     }
 
@@ -227,22 +235,19 @@ public class UserServiceImpl implements UserService {
     @Override
     public UserProfileDTO getUserProfile(Long userId) {
         UserProfileDTO profile = new UserProfileDTO();
+        UserStats stats = userStatsService.getStats(userId);
         
-        // 获取用户话题数
-        Integer topicCount = topicMapper.countByUserId(userId);
-        profile.setTopicCount(topicCount);
+        // 获取用户话题数（不含状态为-1的话题）
+        profile.setTopicCount((int) stats.topicCountExcluding(-1));
         
         // 获取用户评论数
-        Integer commentCount = commentMapper.countByUserId(userId);
-        profile.setCommentCount(commentCount);
+        profile.setCommentCount((int) stats.getCommentCount());
         
         // 获取用户点赞数
-        Integer likeCount = likeMapper.countByUserId(userId);
-        profile.setLikeCount(likeCount);
+        profile.setLikeCount((int) stats.getLikeCount());
         
-        // 获取用户活动数
-        Integer activityCount = activityMapper.countByUserId(userId);
-        profile.setActivityCount(activityCount);
+        // 获取用户活动数（不含状态为-1的活动）
+        profile.setActivityCount((int) stats.activityCountExcluding(-1));
         
         // 暂时不获取最近活动、最近发帖和最近评论，可以后续添加
         
@@ -256,18 +261,16 @@ public class UserServiceImpl implements UserService {
         Long userId = Long.valueOf(map.get("userId").toString());
 
         UserProfileDTO profileDTO = new UserProfileDTO();
+        UserStats stats = userStatsService.getStats(userId);
 
         // 获取评论数
-        int commentCount = commentMapper.countByUser(userId);
-        profileDTO.setCommentCount(commentCount);
+        profileDTO.setCommentCount((int) stats.getCommentCount());
 
-        // 获取点赞数（收到的点赞）
-        int likeCount = likeMapper.countByUser(userId, null);
-        profileDTO.setLikeCount(likeCount);
+        // 获取点赞数
+        profileDTO.setLikeCount((int) stats.getLikeCount());
 
         // 获取活动数
-        int activityCount = activityMapper.countByUser(userId);
-        profileDTO.setActivityCount(activityCount);
+        profileDTO.setActivityCount((int) stats.activityCount(null));
 
         // 获取最近的活动列表（默认3条）
         List<Map<String, Object>> recentActivities = activityMapper.getRecentActivities(userId, 3);
@@ -0,0 +1,251 @@
+package com.sinon.bluecommunity.user.service.serviceImpl;
+
+import com.sinon.bluecommunity.common.dto.UserStatCountDTO;
+import com.sinon.bluecommunity.common.dto.UserStats;
+import com.sinon.bluecommunity.common.utils.TransactionUtils;
+import com.sinon.bluecommunity.user.mapper.UserStatsMapper;
+import com.sinon.bluecommunity.user.service.UserStatsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户计数服务实现类
+ * 计数保存在Redis hash中，写操作在事务提交后增量更新；
+ * 缓存不存在时不做增量，由下次读取从数据库整体回填，避免出现只有部分字段的hash
+ */
+@Slf4j
+@Service
+public class UserStatsServiceImpl implements UserStatsService {
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private UserStatsMapper userStatsMapper;
+
+    /**
+     * 计数缓存时间（小时），过期后从数据库重新回填
+     */
+    @Value("${bluecommunity.user-stats.ttl-hours:24}")
+    private long ttlHours;
+
+    /**
+     * 每次校准的用户数
+     */
+    @Value("${bluecommunity.user-stats.reconcile-batch-size:200}")
+    private int reconcileBatchSize;
+
+    // Redis key
+    private static final String STATS_KEY_PREFIX = "user:stats:";
+    private static final String DIRTY_KEY = "user:stats:dirty";
+
+    /**
+     * 回填标记字段，保证没有任何数据的用户也有缓存
+     */
+    private static final String LOADED_FIELD = "loaded";
+
+    /**
+     * 只在hash已存在时累加，参数为 field1, delta1, field2, delta2 ...
+     */
+    private static final RedisScript<Long> INCREMENT_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end " +
+            "for i = 1, #ARGV, 2 do redis.call('HINCRBY', KEYS[1], ARGV[i], ARGV[i + 1]) end " +
+            "return 1", Long.class);
+
+    @Override
+    public UserStats getStats(Long userId) {
+        String key = statsKey(userId);
+        try {
+            Map<Object, Object> entries = redisTemplate.opsForHash().entries(key);
+            if (!entries.isEmpty()) {
+                return parse(entries);
+            }
+        } catch (Exception e) {
+            log.warn("读取用户计数缓存失败，直接查询数据库: userId={}", userId, e);
+            return load(userId);
+        }
+
+        UserStats stats = load(userId);
+        save(userId, stats);
+        return stats;
+    }
+
+    @Override
+    public void increment(Long userId, String type, long delta) {
+        if (userId == null || delta == 0) {
+            return;
+        }
+        apply(userId, Collections.singletonMap(type, delta));
+    }
+
+    @Override
+    public void changeStatus(Long userId, String type, Integer fromStatus, Integer toStatus) {
+        if (userId == null || Objects.equals(fromStatus, toStatus)) {
+            return;
+        }
+        Map<String, Long> deltas = new LinkedHashMap<>();
+        if (fromStatus != null) {
+            deltas.put(statusField(type, fromStatus), -1L);
+        }
+        if (toStatus != null) {
+            deltas.put(statusField(type, toStatus), 1L);
+        }
+        apply(userId, deltas);
+    }
+
+    @Override
+    public void invalidate(Collection<Long> userIds) {
+        if (CollectionUtils.isEmpty(userIds)) {
+            return;
+        }
+        List<String> keys = userIds.stream().filter(Objects::nonNull).distinct().map(this::statsKey).toList();
+        TransactionUtils.afterCommit(() -> {
+            try {
+                redisTemplate.delete(keys);
+            } catch (Exception e) {
+                log.warn("删除用户计数缓存失败: keys={}", keys, e);
+            }
+        });
+    }
+
+    /**
+     * 定时校准：增量落在不存在的缓存上时，可能与并发的回填交错，
+     * 这些用户被记入待核对集合，由这里用数据库结果整体覆盖；缓存过期兜底其他偏差
+     */
+    @Override
+    @Scheduled(initialDelayString = "${bluecommunity.user-stats.reconcile-interval:60000}",
+            fixedDelayString = "${bluecommunity.user-stats.reconcile-interval:60000}")
+    public void reconcile() {
+        try {
+            List<String> userIds = redisTemplate.opsForSet().pop(DIRTY_KEY, reconcileBatchSize);
+            if (CollectionUtils.isEmpty(userIds)) {
+                return;
+            }
+            int reconciled = 0;
+            for (String value : userIds) {
+                Long userId = Long.valueOf(value);
+                // 没有缓存的用户下次读取时自然回填
+                if (Boolean.TRUE.equals(redisTemplate.hasKey(statsKey(userId)))) {
+                    save(userId, load(userId));
+                    reconciled++;
+                }
+            }
+            log.debug("校准用户计数完成: 待核对 {} 个, 覆盖 {} 个", userIds.size(), reconciled);
+        } catch (Exception e) {
+            log.error("校准用户计数失败", e);
+        }
+    }
+
+    private void apply(Long userId, Map<String, Long> deltas) {
+        String key = statsKey(userId);
+        List<String> args = new ArrayList<>(deltas.size() * 2);
+        deltas.forEach((field, delta) -> {
+            args.add(field);
+            args.add(String.valueOf(delta));
+        });
+        TransactionUtils.afterCommit(() -> {
+            try {
+                Long applied = redisTemplate.execute(INCREMENT_SCRIPT, Collections.singletonList(key), args.toArray());
+                if (applied == null || applied == 0) {
+                    redisTemplate.opsForSet().add(DIRTY_KEY, userId.toString());
+                }
+            } catch (Exception e) {
+                log.warn("更新用户计数缓存失败: userId={}, deltas={}", userId, deltas, e);
+            }
+        });
+    }
+
+    private UserStats load(Long userId) {
+        UserStats stats = new UserStats();
+        for (UserStatCountDTO row : userStatsMapper.countByUser(userId)) {
+            long count = row.getCount() == null ? 0 : row.getCount();
+            switch (row.getType()) {
+                case TYPE_TOPIC -> stats.getTopicCounts().put(row.getStatus(), count);
+                case TYPE_ACTIVITY -> stats.getActivityCounts().put(row.getStatus(), count);
+                case TYPE_COMMENT -> stats.setCommentCount(count);
+                case TYPE_LIKE -> stats.setLikeCount(count);
+                default -> log.warn("未知的用户计数类型: {}", row.getType());
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * 写入临时key后整体RENAME，不会与旧缓存的字段混在一起
+     */
+    private void save(Long userId, UserStats stats) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put(LOADED_FIELD, "1");
+        fields.put(TYPE_COMMENT, String.valueOf(stats.getCommentCount()));
+        fields.put(TYPE_LIKE, String.valueOf(stats.getLikeCount()));
+        stats.getTopicCounts().forEach((status, count) ->
+                fields.put(statusField(TYPE_TOPIC, status), String.valueOf(count)));
+        stats.getActivityCounts().forEach((status, count) ->
+                fields.put(statusField(TYPE_ACTIVITY, status), String.valueOf(count)));
+
+        String key = statsKey(userId);
+        String tmpKey = key + ":tmp:" + UUID.randomUUID();
+        try {
+            redisTemplate.opsForHash().putAll(tmpKey, fields);
+            redisTemplate.expire(tmpKey, ttlHours, TimeUnit.HOURS);
+            redisTemplate.rename(tmpKey, key);
+        } catch (Exception e) {
+            log.warn("写入用户计数缓存失败: userId={}", userId, e);
+        }
+    }
+
+    private UserStats parse(Map<Object, Object> entries) {
+        UserStats stats = new UserStats();
+        for (Map.Entry<Object, Object> entry : entries.entrySet()) {
+            String field = entry.getKey().toString();
+            if (LOADED_FIELD.equals(field)) {
+                continue;
+            }
+            // 增量与校准交错时可能短暂为负
+            long count = Math.max(0, Long.parseLong(entry.getValue().toString()));
+            int separator = field.indexOf(':');
+            if (separator < 0) {
+                if (TYPE_COMMENT.equals(field)) {
+                    stats.setCommentCount(count);
+                } else if (TYPE_LIKE.equals(field)) {
+                    stats.setLikeCount(count);
+                }
+                continue;
+            }
+            String type = field.substring(0, separator);
+            Integer status = Integer.valueOf(field.substring(separator + 1));
+            if (TYPE_TOPIC.equals(type)) {
+                stats.getTopicCounts().put(status, count);
+            } else if (TYPE_ACTIVITY.equals(type)) {
+                stats.getActivityCounts().put(status, count);
+            }
+        }
+        return stats;
+    }
+
+    private String statsKey(Long userId) {
+        return STATS_KEY_PREFIX + userId;
+    }
+
+    private String statusField(String type, Integer status) {
+        return type + ":" + status;
+    }
+}
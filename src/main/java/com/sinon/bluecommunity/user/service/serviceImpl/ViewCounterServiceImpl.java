@@ -0,0 +1,316 @@
+package com.sinon.bluecommunity.user.service.serviceImpl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sinon.bluecommunity.common.entity.Topic;
+import com.sinon.bluecommunity.user.mapper.ActivityMapper;
+import com.sinon.bluecommunity.user.mapper.ResourceMapper;
+import com.sinon.bluecommunity.user.mapper.TopicMapper;
+import com.sinon.bluecommunity.user.service.HotTopicService;
+import com.sinon.bluecommunity.user.service.ViewCounterService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 浏览量计数服务实现类
+ * 每个 (对象类型, ID) 对应一个计数单元，浏览时只累加 LongAdder，
+ * 定时任务把增量按对象类型合并成多行UPDATE写回数据库，应用关闭前再写回一次；
+ * 话题的浏览量写回后再批量计入热榜，浏览请求本身不访问Redis。
+ * 话题详情缓存中的浏览量会过时，详情页的浏览量取本地缓存的数据库浏览量加上未写回的部分：
+ * 本节点写回后立即重新读取这些话题的数据库浏览量，写回不会使显示的浏览量倒退，也不需要清除详情缓存
+ */
+@Slf4j
+@Service
+public class ViewCounterServiceImpl implements ViewCounterService {
+
+    @Autowired
+    private TopicMapper topicMapper;
+
+    @Autowired
+    private ResourceMapper resourceMapper;
+
+    @Autowired
+    private ActivityMapper activityMapper;
+
+    @Autowired
+    private HotTopicService hotTopicService;
+
+    /**
+     * 数据库浏览量的本地缓存时间（秒），其他节点写回的浏览量最多滞后这么久
+     */
+    @Value("${bluecommunity.view-counter.base-ttl-seconds:60}")
+    private long baseTtlSeconds;
+
+    /**
+     * 数据库浏览量的本地缓存最大条数
+     */
+    @Value("${bluecommunity.view-counter.base-max-size:10000}")
+    private long baseMaxSize;
+
+    /**
+     * 每条UPDATE最多包含的行数
+     */
+    private static final int FLUSH_BATCH_SIZE = 500;
+
+    /**
+     * 计数单元连续多少次写回都没有新增浏览后移除
+     */
+    private static final int IDLE_FLUSHES_BEFORE_EVICT = 2;
+
+    /**
+     * 对象类型 -> (ID -> 计数单元)
+     */
+    private final Map<String, ConcurrentHashMap<Long, Cell>> counters = new ConcurrentHashMap<>();
+
+    /**
+     * 对象类型 -> 批量写回方法
+     */
+    private final Map<String, Function<Map<Long, Long>, Integer>> writers = new HashMap<>();
+
+    /**
+     * 对象类型 -> 批量读取数据库浏览量的方法，只有详情页使用缓存的对象类型需要
+     */
+    private final Map<String, Function<Collection<Long>, Map<Long, Long>>> baseReaders = new HashMap<>();
+
+    /**
+     * 对象类型 -> (ID -> 数据库浏览量)
+     */
+    private final Map<String, Cache<Long, Long>> bases = new HashMap<>();
+
+    /**
+     * 计数单元
+     * total 只增不减，已写回的部分记录在 flushed 中，写回失败时不会丢失增量；
+     * 空闲的计数单元被移除时标记为 retired，之后落在它上面的浏览由 drain 转移到新的计数单元
+     */
+    private static class Cell {
+        private final LongAdder total = new LongAdder();
+        /** 已写回或已转移的数量 */
+        private final AtomicLong flushed = new AtomicLong();
+        /** 是否已从映射中移除 */
+        private volatile boolean retired;
+        /** 连续没有新增浏览的写回次数，只由写回线程修改 */
+        private int idleFlushes;
+
+        long pending() {
+            return total.sum() - flushed.get();
+        }
+
+        /**
+         * 取走全部未写回的数量，CAS 保证同一部分只会被取走一次
+         */
+        long drain() {
+            while (true) {
+                long done = flushed.get();
+                long sum = total.sum();
+                if (sum <= done) {
+                    return 0;
+                }
+                if (flushed.compareAndSet(done, sum)) {
+                    return sum - done;
+                }
+            }
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        writers.put(TYPE_TOPIC, topicMapper::batchIncrementViews);
+        writers.put(TYPE_RESOURCE, resourceMapper::batchIncrementViews);
+        writers.put(TYPE_ACTIVITY, activityMapper::batchIncrementViews);
+        writers.keySet().forEach(type -> counters.put(type, new ConcurrentHashMap<>()));
+
+        baseReaders.put(TYPE_TOPIC, this::readTopicViews);
+        baseReaders.keySet().forEach(type -> bases.put(type, Caffeine.newBuilder()
+                .maximumSize(baseMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(baseTtlSeconds))
+                .build()));
+    }
+
+    @Override
+    public void increment(String entityType, Long id) {
+        if (id == null) {
+            return;
+        }
+        ConcurrentHashMap<Long, Cell> cells = counters.get(entityType);
+        if (cells == null) {
+            throw new IllegalArgumentException("不支持的浏览计数类型: " + entityType);
+        }
+        add(cells, id, 1);
+    }
+
+    /**
+     * 累加到计数单元，已存在时不加锁，只在首次浏览时创建
+     * 累加后发现计数单元已被移除，就把其中未写回的部分转移到新的计数单元
+     */
+    private void add(ConcurrentHashMap<Long, Cell> cells, Long id, long amount) {
+        while (amount > 0) {
+            Cell cell = cells.get(id);
+            if (cell == null) {
+                cell = cells.computeIfAbsent(id, key -> new Cell());
+            }
+            cell.total.add(amount);
+            if (!cell.retired) {
+                return;
+            }
+            amount = cell.drain();
+        }
+    }
+
+    @Override
+    public long getPending(String entityType, Long id) {
+        ConcurrentHashMap<Long, Cell> cells = counters.get(entityType);
+        if (cells == null || id == null) {
+            return 0;
+        }
+        Cell cell = cells.get(id);
+        return cell == null ? 0 : Math.max(cell.pending(), 0);
+    }
+
+    @Override
+    public long getViews(String entityType, Long id, long fallback) {
+        long base = fallback;
+        Cache<Long, Long> cache = bases.get(entityType);
+        if (cache != null && id != null) {
+            try {
+                Long loaded = cache.get(id, key -> baseReaders.get(entityType)
+                        .apply(Collections.singletonList(key)).get(key));
+                if (loaded != null) {
+                    base = loaded;
+                }
+            } catch (Exception e) {
+                log.warn("读取浏览量失败，使用缓存中的浏览量: {}:{}", entityType, id, e);
+            }
+        }
+        return base + getPending(entityType, id);
+    }
+
+    /**
+     * 定时写回，同一时间只会有一个写回在执行
+     */
+    @Override
+    @Scheduled(initialDelayString = "${bluecommunity.view-counter.flush-interval:5000}",
+            fixedDelayString = "${bluecommunity.view-counter.flush-interval:5000}")
+    public synchronized void flush() {
+        for (Map.Entry<String, ConcurrentHashMap<Long, Cell>> entry : counters.entrySet()) {
+            try {
+                flushType(entry.getKey(), entry.getValue());
+            } catch (Exception e) {
+                // 写回失败的增量保留在内存中，下次继续写回
+                log.error("写回浏览量失败: {}", entry.getKey(), e);
+            }
+        }
+    }
+
+    /**
+     * 应用关闭前写回所有未写回的浏览量
+     */
+    @PreDestroy
+    public void shutdown() {
+        log.info("应用关闭，写回内存中的浏览量");
+        flush();
+    }
+
+    private void flushType(String entityType, ConcurrentHashMap<Long, Cell> cells) {
+        Function<Map<Long, Long>, Integer> writer = writers.get(entityType);
+        Map<Long, Long> batch = new HashMap<>();
+        Map<Long, Cell> batchCells = new HashMap<>();
+
+        for (Map.Entry<Long, Cell> entry : cells.entrySet()) {
+            Long id = entry.getKey();
+            Cell cell = entry.getValue();
+            long total = cell.total.sum();
+            long delta = total - cell.flushed.get();
+            if (delta <= 0) {
+                evictIfIdle(cells, id, cell);
+                continue;
+            }
+            cell.idleFlushes = 0;
+            batch.put(id, delta);
+            batchCells.put(id, cell);
+            if (batch.size() >= FLUSH_BATCH_SIZE) {
+                write(entityType, writer, batch, batchCells);
+                batch = new HashMap<>();
+                batchCells = new HashMap<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(entityType, writer, batch, batchCells);
+        }
+    }
+
+    /**
+     * 写回一批增量，成功后再推进各计数单元的已写回数量
+     * 先重新读取已缓存的数据库浏览量，再减少未写回的部分，显示的浏览量不会倒退；话题的增量随后计入热榜
+     */
+    private void write(String entityType, Function<Map<Long, Long>, Integer> writer,
+                       Map<Long, Long> batch, Map<Long, Cell> batchCells) {
+        writer.apply(batch);
+        refreshBases(entityType, batch.keySet());
+        batch.forEach((id, delta) -> batchCells.get(id).flushed.addAndGet(delta));
+        if (TYPE_TOPIC.equals(entityType)) {
+            batch.forEach((id, delta) -> hotTopicService.onView(id, delta.intValue()));
+        }
+    }
+
+    /**
+     * 写回后用一条SQL重新读取这批对象的数据库浏览量
+     * 正在加载的条目会等加载完成后再被覆盖，不会留下写回前读到的旧值
+     */
+    private void refreshBases(String entityType, Collection<Long> ids) {
+        Cache<Long, Long> cache = bases.get(entityType);
+        if (cache == null) {
+            return;
+        }
+        try {
+            cache.putAll(baseReaders.get(entityType).apply(ids));
+        } catch (Exception e) {
+            // 读取失败时丢弃这些条目，下次读取时重新加载
+            log.warn("重新读取浏览量失败: {}", entityType, e);
+            cache.invalidateAll(ids);
+        }
+    }
+
+    private Map<Long, Long> readTopicViews(Collection<Long> ids) {
+        Map<Long, Long> views = new HashMap<>();
+        for (Topic topic : topicMapper.selectViewsByIds(ids)) {
+            views.put(topic.getId(), topic.getViews() == null ? 0L : topic.getViews().longValue());
+        }
+        return views;
+    }
+
+    /**
+     * 移除长时间没有浏览的计数单元，防止内存无限增长
+     * 在映射的锁内确认没有未写回的浏览后标记为已移除；标记前后并发落在它上面的浏览，
+     * 由这里或累加的线程取走并转移到新的计数单元，两边取走的部分不会重复
+     */
+    private void evictIfIdle(ConcurrentHashMap<Long, Cell> cells, Long id, Cell cell) {
+        if (++cell.idleFlushes < IDLE_FLUSHES_BEFORE_EVICT) {
+            return;
+        }
+        cells.computeIfPresent(id, (key, current) -> {
+            if (current != cell || current.pending() > 0) {
+                return current;
+            }
+            current.retired = true;
+            return null;
+        });
+        if (cell.retired) {
+            add(cells, id, cell.drain());
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.sinon.bluecommunity.user.service.serviceImpl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sinon.bluecommunity.common.entity.Comment;
+import com.sinon.bluecommunity.common.vo.CommentVO;
+import com.sinon.bluecommunity.user.mapper.CommentMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 评论区首页缓存的增量更新测试
+ * 覆盖缓存条数溢出、一级评论是否完整的切换、回复预览溢出，以及重复收到同一变更；不需要Redis服务
+ */
+class CommentThreadCacheServiceImplTest {
+
+    private static final String TARGET_TYPE = Comment.TARGET_TYPE_TOPIC;
+    private static final Long TARGET_ID = 42L;
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private CommentMapper commentMapper;
+    private StringRedisTemplate redisTemplate;
+    private CommentThreadCacheServiceImpl cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        commentMapper = mock(CommentMapper.class);
+        redisTemplate = mock(StringRedisTemplate.class);
+
+        cache = new CommentThreadCacheServiceImpl();
+        ReflectionTestUtils.setField(cache, "commentMapper", commentMapper);
+        ReflectionTestUtils.setField(cache, "redisTemplate", redisTemplate);
+        ReflectionTestUtils.setField(cache, "listenerContainer", mock(RedisMessageListenerContainer.class));
+        ReflectionTestUtils.setField(cache, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "windowSize", 3);
+        ReflectionTestUtils.setField(cache, "maxComments", 1000L);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 300L);
+        ReflectionTestUtils.setField(cache, "replyPreviewSize", 2);
+        cache.init();
+    }
+
+    @Test
+    void windowOverflowDropsOldestRootAndMarksIncomplete() {
+        IntFunction<List<CommentVO>> loader = loader(() -> Arrays.asList(
+                vo(root(3L, 3)), vo(root(2L, 2)), vo(root(1L, 1))));
+        assertEquals(List.of(3L, 2L, 1L), ids(cache.getRoots(TARGET_TYPE, TARGET_ID, 0, 3, loader)));
+        // 全部一级评论都在缓存中，超出缓存范围的分页也由缓存返回
+        assertEquals(List.of(3L, 2L, 1L), ids(cache.getRoots(TARGET_TYPE, TARGET_ID, 0, 5, loader)));
+
+        add(root(4L, 4));
+
+        assertEquals(List.of(4L, 3L, 2L), ids(cache.getRoots(TARGET_TYPE, TARGET_ID, 0, 3, loader)));
+        assertNull(cache.getRoots(TARGET_TYPE, TARGET_ID, 0, 5, loader));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void olderRootIsKeptOnlyWhileThreadIsComplete() {
+        IntFunction<List<CommentVO>> loader = loader(() -> Arrays.asList(vo(root(3L, 3)), vo(root(2L, 2))));
+        cache.getRoots(TARGET_TYPE, TARGET_ID, 0, 3, loader);
+
+        // 缓存包含全部一级评论，更旧的评论也在缓存范围内
+        add(root(1L, 1));
+        assertEquals(List.of(3L, 2L, 1L), ids(cache.getRoots(TARGET_TYPE, TARGET_ID, 0, 3, loader)));
+
+        add(root(5L, 5));
+        assertEquals(List.of(5L, 3L, 2L), ids(cache.getRoots(TARGET_TYPE, TARGET_ID, 0, 3, loader)));
+
+        // 溢出后不再完整，比缓存中都旧的评论不加入缓存
+        add(root(6L, 0));
+        assertEquals(List.of(5L, 3L, 2L), ids(cache.getRoots(TARGET_TYPE, TARGET_ID, 0, 3, loader)));
+        assertNull(cache.getRoots(TARGET_TYPE, TARGET_ID, 2, 2, loader));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void repeatedEventsAreAppliedOnce() {
+        IntFunction<List<CommentVO>> loader = loader(() -> List.of(vo(root(1L, 1))));
+        cache.getRoots(TARGET_TYPE, TARGET_ID, 0, 3, loader);
+
+        Comment newRoot = root(2L, 2);
+        add(newRoot);
+        add(newRoot);
+        assertEquals(List.of(2L, 1L), ids(cache.getRoots(TARGET_TYPE, TARGET_ID, 0, 3, loader)));
+
+        Comment reply = reply(10L, 1L, 5);
+        add(reply);
+        add(reply);
+        CommentVO parent = cache.getRoots(TARGET_TYPE, TARGET_ID, 1, 1, loader).get(0);
+        assertEquals(1L, parent.getReplyCount());
+        assertEquals(List.of(10L), replyIds(parent));
+
+        cache.onRemoved(List.of(reply));
+        cache.onRemoved(List.of(reply));
+        parent = cache.getRoots(TARGET_TYPE, TARGET_ID, 1, 1, loader).get(0);
+        assertEquals(0L, parent.getReplyCount());
+        assertTrue(parent.getReplies().isEmpty());
+
+        cache.onRemoved(List.of(newRoot));
+        cache.onRemoved(List.of(newRoot));
+        assertEquals(List.of(1L), ids(cache.getRoots(TARGET_TYPE, TARGET_ID, 0, 3, loader)));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void replyPreviewOverflowKeepsCountAndInvalidatesOnRemoval() {
+        IntFunction<List<CommentVO>> loader = loader(() -> List.of(vo(root(1L, 1))));
+        cache.getRoots(TARGET_TYPE, TARGET_ID, 0, 3, loader);
+
+        add(reply(10L, 1L, 2));
+        add(reply(11L, 1L, 3));
+        CommentVO parent = cache.getRoots(TARGET_TYPE, TARGET_ID, 0, 1, loader).get(0);
+        assertNull(parent.getNextReplyCursor());
+
+        add(reply(12L, 1L, 4));
+        parent = cache.getRoots(TARGET_TYPE, TARGET_ID, 0, 1, loader).get(0);
+        assertEquals(3L, parent.getReplyCount());
+        assertEquals(List.of(12L, 11L), replyIds(parent));
+        assertNotNull(parent.getNextReplyCursor());
+
+        // 预览之外还有回复，移除后无法补齐预览，评论区重新加载
+        cache.onRemoved(List.of(reply(12L, 1L, 4)));
+        cache.getRoots(TARGET_TYPE, TARGET_ID, 0, 1, loader);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void readFailureResetsAllNodes() {
+        IntFunction<List<CommentVO>> loader = loader(() -> List.of(vo(root(1L, 1))));
+        cache.getRoots(TARGET_TYPE, TARGET_ID, 0, 3, loader);
+        when(commentMapper.getById(99L)).thenThrow(new IllegalStateException("db down"));
+
+        cache.onAdded(99L);
+
+        verify(redisTemplate).convertAndSend(eq("comment:thread:changed"),
+                argThat((String message) -> message.contains("\"reset\"")));
+        cache.getRoots(TARGET_TYPE, TARGET_ID, 0, 3, loader);
+        assertEquals(2, loads.get());
+    }
+
+    /**
+     * 发布评论：读取评论返回该评论，在没有事务时立即发送变更
+     */
+    private void add(Comment comment) {
+        when(commentMapper.getById(comment.getId())).thenReturn(comment);
+        cache.onAdded(comment.getId());
+    }
+
+    /**
+     * 每次加载都生成新的对象，与从数据库读取一致
+     */
+    private IntFunction<List<CommentVO>> loader(Supplier<List<CommentVO>> roots) {
+        return limit -> {
+            loads.incrementAndGet();
+            return roots.get().stream().limit(limit).collect(Collectors.toList());
+        };
+    }
+
+    private static Comment root(Long id, int minute) {
+        Comment comment = new Comment();
+        comment.setId(id);
+        comment.setTargetType(TARGET_TYPE);
+        comment.setTargetId(TARGET_ID);
+        comment.setLevel(1);
+        comment.setContent("评论" + id);
+        comment.setCreatedAt(BASE_TIME.plusMinutes(minute));
+        return comment;
+    }
+
+    private static Comment reply(Long id, Long parentId, int minute) {
+        Comment comment = root(id, minute);
+        comment.setParentId(parentId);
+        comment.setLevel(2);
+        return comment;
+    }
+
+    private static CommentVO vo(Comment comment) {
+        CommentVO vo = CommentVO.fromComment(comment);
+        vo.setReplies(new ArrayList<>());
+        vo.setReplyCount(0L);
+        return vo;
+    }
+
+    private static List<Long> ids(List<CommentVO> roots) {
+        return roots.stream().map(CommentVO::getId).collect(Collectors.toList());
+    }
+
+    private static List<Long> replyIds(CommentVO root) {
+        return root.getReplies().stream().map(Comment::getId).collect(Collectors.toList());
+    }
+}
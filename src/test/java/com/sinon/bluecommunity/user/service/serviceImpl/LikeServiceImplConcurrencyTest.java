@@ -0,0 +1,377 @@
+package com.sinon.bluecommunity.user.service.serviceImpl;
+
+import com.sinon.bluecommunity.common.entity.Like;
+import com.sinon.bluecommunity.common.exception.BusinessException;
+import com.sinon.bluecommunity.common.vo.LikeStatusVO;
+import com.sinon.bluecommunity.user.mapper.LikeMapper;
+import com.sinon.bluecommunity.user.service.CacheMaintenanceService;
+import com.sinon.bluecommunity.user.service.HotTopicService;
+import com.sinon.bluecommunity.user.service.LikeIndexService;
+import com.sinon.bluecommunity.user.service.LikeSyncService;
+import com.sinon.bluecommunity.user.service.UserStatsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.luaj.vm2.Globals;
+import org.luaj.vm2.LuaTable;
+import org.luaj.vm2.LuaValue;
+import org.luaj.vm2.Varargs;
+import org.luaj.vm2.lib.VarArgFunction;
+import org.luaj.vm2.lib.jse.JsePlatform;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 点赞并发压力测试
+ * 用 LuaJ 在内存中执行点赞服务的真实Lua脚本，脚本之间串行执行（与Redis一致），不需要Redis服务
+ */
+class LikeServiceImplConcurrencyTest {
+
+    private static final Long TOPIC_ID = 42L;
+    private static final String SET_KEY = "like:set:topic:42";
+    private static final String COUNT_KEY = "like:count:topic:42";
+
+    private InMemoryRedis redis;
+    private LikeMapper likeMapper;
+    private UserStatsService userStatsService;
+    private LikeServiceImpl likeService;
+    private ExecutorService executor;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redis = new InMemoryRedis();
+        likeMapper = mock(LikeMapper.class);
+        userStatsService = mock(UserStatsService.class);
+
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenAnswer(invocation -> {
+            RedisScript<?> script = invocation.getArgument(0);
+            List<String> keys = invocation.getArgument(1);
+            Object[] args = (Object[]) invocation.getRawArguments()[2];
+            return redis.eval(script.getScriptAsString(), keys, args);
+        });
+        SetOperations<String, String> setOps = mock(SetOperations.class);
+        when(setOps.add(anyString(), any(String[].class))).thenAnswer(invocation -> {
+            Object[] members = (Object[]) invocation.getRawArguments()[1];
+            return redis.call("SADD", invocation.getArgument(0), members);
+        });
+        when(redisTemplate.opsForSet()).thenReturn(setOps);
+        when(redisTemplate.expire(anyString(), any(Duration.class))).thenReturn(true);
+
+        likeService = new LikeServiceImpl();
+        ReflectionTestUtils.setField(likeService, "likeMapper", likeMapper);
+        ReflectionTestUtils.setField(likeService, "redisTemplate", redisTemplate);
+        ReflectionTestUtils.setField(likeService, "hotTopicService", mock(HotTopicService.class));
+        ReflectionTestUtils.setField(likeService, "userStatsService", userStatsService);
+        ReflectionTestUtils.setField(likeService, "likeIndexService", mock(LikeIndexService.class));
+        ReflectionTestUtils.setField(likeService, "cacheMaintenanceService", mock(CacheMaintenanceService.class));
+        ReflectionTestUtils.setField(likeService, "cacheTtlHours", 168L);
+        ReflectionTestUtils.setField(likeService, "seedChunkSize", 1000);
+
+        executor = Executors.newFixedThreadPool(16);
+    }
+
+    @Test
+    void concurrentDoubleTapsAreCountedOnce() throws Exception {
+        when(likeMapper.selectUserIdsByTarget(TOPIC_ID, Like.TARGET_TYPE_TOPIC)).thenReturn(Collections.emptyList());
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(64, i -> () -> {
+            try {
+                likeService.like(7L, TOPIC_ID, Like.TARGET_TYPE_TOPIC);
+                succeeded.incrementAndGet();
+            } catch (BusinessException e) {
+                rejected.incrementAndGet();
+            }
+            return null;
+        });
+
+        assertEquals(1, succeeded.get());
+        assertEquals(63, rejected.get());
+        assertEquals("1", redis.get(COUNT_KEY));
+        assertEquals(List.of("topic:42:7:1"), redis.list(LikeSyncService.QUEUE_KEY));
+        assertEquals(List.of("topic:42:7:1"), redis.list(LikeIndexService.CHANGE_CHANNEL));
+        verify(userStatsService, times(1)).increment(7L, UserStatsService.TYPE_LIKE, 1L);
+    }
+
+    @Test
+    void concurrentTogglesKeepCountEqualToLikers() throws Exception {
+        when(likeMapper.selectUserIdsByTarget(TOPIC_ID, Like.TARGET_TYPE_TOPIC)).thenReturn(Collections.emptyList());
+        int users = 20;
+        int togglesPerUser = 25;
+        List<Long> order = new ArrayList<>();
+        for (long userId = 1; userId <= users; userId++) {
+            for (int i = 0; i < togglesPerUser; i++) {
+                order.add(userId);
+            }
+        }
+        Collections.shuffle(order);
+
+        List<LikeStatusVO> results = runConcurrently(order.size(),
+                i -> () -> likeService.toggle(order.get(i), TOPIC_ID, Like.TARGET_TYPE_TOPIC));
+
+        // 每个用户切换了奇数次，最终都是点赞状态
+        Set<String> members = redis.set(SET_KEY);
+        assertEquals(users + 1, members.size());
+        assertEquals(String.valueOf(users), redis.get(COUNT_KEY));
+        for (LikeStatusVO result : results) {
+            assertTrue(result.getCount() >= 0 && result.getCount() <= users, "点赞数越界: " + result.getCount());
+        }
+        long likedResults = results.stream().filter(LikeStatusVO::getLiked).count();
+        assertEquals(users, likedResults - (results.size() - likedResults));
+
+        // 每次切换都入队一条记录，每个用户的最后一条记录是点赞
+        List<String> queue = redis.list(LikeSyncService.QUEUE_KEY);
+        assertEquals(order.size(), queue.size());
+        Map<String, String> lastState = new HashMap<>();
+        for (String entry : queue) {
+            int separator = entry.lastIndexOf(':');
+            lastState.put(entry.substring(0, separator), entry.substring(separator + 1));
+        }
+        assertEquals(users, lastState.size());
+        assertTrue(lastState.values().stream().allMatch("1"::equals));
+    }
+
+    @Test
+    void concurrentFirstLikesSeedFromDatabaseOnce() throws Exception {
+        List<Long> existing = Arrays.asList(101L, 102L, 103L, 104L, 105L);
+        when(likeMapper.selectUserIdsByTarget(TOPIC_ID, Like.TARGET_TYPE_TOPIC)).thenReturn(existing);
+        int newUsers = 30;
+
+        List<LikeStatusVO> results = runConcurrently(newUsers,
+                i -> () -> likeService.toggle((long) i + 1, TOPIC_ID, Like.TARGET_TYPE_TOPIC));
+
+        assertTrue(results.stream().allMatch(LikeStatusVO::getLiked));
+        assertEquals(existing.size() + newUsers + 1, redis.set(SET_KEY).size());
+        assertEquals(String.valueOf(existing.size() + newUsers), redis.get(COUNT_KEY));
+        assertEquals(newUsers, redis.list(LikeSyncService.QUEUE_KEY).size());
+        verify(userStatsService, times(newUsers)).increment(any(), eq(UserStatsService.TYPE_LIKE), eq(1L));
+    }
+
+    /**
+     * 所有任务就绪后同时开始执行
+     */
+    private <T> List<T> runConcurrently(int count, TaskFactory<T> factory) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Callable<T> task = factory.create(i);
+            futures.add(executor.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        start.countDown();
+        List<T> results = new ArrayList<>();
+        for (Future<T> future : futures) {
+            results.add(future.get(30, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        return results;
+    }
+
+    @FunctionalInterface
+    private interface TaskFactory<T> {
+        Callable<T> create(int index);
+    }
+
+    /**
+     * 内存中的Redis，只实现点赞脚本用到的命令；脚本和命令都加锁串行执行
+     */
+    private static class InMemoryRedis {
+
+        private final Map<String, Object> data = new HashMap<>();
+        private final Map<String, LuaValue> chunks = new HashMap<>();
+        private final Globals globals = JsePlatform.standardGlobals();
+
+        InMemoryRedis() {
+            LuaTable redisTable = new LuaTable();
+            redisTable.set("call", new VarArgFunction() {
+                @Override
+                public Varargs invoke(Varargs args) {
+                    Object[] rest = new Object[args.narg() - 2];
+                    for (int i = 0; i < rest.length; i++) {
+                        rest[i] = str(args.arg(i + 3));
+                    }
+                    return toLua(InMemoryRedis.this.call(args.arg(1).tojstring(), str(args.arg(2)), rest));
+                }
+            });
+            globals.set("redis", redisTable);
+        }
+
+        synchronized Object eval(String script, List<String> keys, Object[] args) {
+            LuaValue chunk = chunks.computeIfAbsent(script, text -> globals.load(text));
+            LuaTable keyTable = new LuaTable();
+            for (int i = 0; i < keys.size(); i++) {
+                keyTable.set(i + 1, LuaValue.valueOf(keys.get(i)));
+            }
+            LuaTable argTable = new LuaTable();
+            for (int i = 0; i < args.length; i++) {
+                argTable.set(i + 1, LuaValue.valueOf(String.valueOf(args[i])));
+            }
+            globals.set("KEYS", keyTable);
+            globals.set("ARGV", argTable);
+            return toJava(chunk.call());
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized Object call(String command, String key, Object[] args) {
+            switch (command.toUpperCase()) {
+                case "EXISTS":
+                    return data.containsKey(key) ? 1L : 0L;
+                case "DEL":
+                    return data.remove(key) != null ? 1L : 0L;
+                case "EXPIRE":
+                    return data.containsKey(key) ? 1L : 0L;
+                case "RENAME":
+                    data.put(String.valueOf(args[0]), data.remove(key));
+                    return "OK";
+                case "GET":
+                    return data.get(key);
+                case "SET":
+                    data.put(key, String.valueOf(args[0]));
+                    return "OK";
+                case "INCRBY": {
+                    long value = Long.parseLong((String) data.getOrDefault(key, "0")) + Long.parseLong((String) args[0]);
+                    data.put(key, String.valueOf(value));
+                    return value;
+                }
+                case "SADD": {
+                    Set<String> set = (Set<String>) data.computeIfAbsent(key, k -> new LinkedHashSet<String>());
+                    long added = 0;
+                    for (Object member : args) {
+                        if (set.add(String.valueOf(member))) {
+                            added++;
+                        }
+                    }
+                    return added;
+                }
+                case "SREM": {
+                    Set<String> set = (Set<String>) data.get(key);
+                    long removed = 0;
+                    if (set != null) {
+                        for (Object member : args) {
+                            if (set.remove(String.valueOf(member))) {
+                                removed++;
+                            }
+                        }
+                        if (set.isEmpty()) {
+                            data.remove(key);
+                        }
+                    }
+                    return removed;
+                }
+                case "SISMEMBER": {
+                    Set<String> set = (Set<String>) data.get(key);
+                    return set != null && set.contains(String.valueOf(args[0])) ? 1L : 0L;
+                }
+                case "SCARD": {
+                    Set<String> set = (Set<String>) data.get(key);
+                    return set == null ? 0L : (long) set.size();
+                }
+                case "PUBLISH":
+                    // 记录发布的消息，频道作为列表key
+                    ((List<String>) data.computeIfAbsent(key, k -> new ArrayList<String>())).add(String.valueOf(args[0]));
+                    return 0L;
+                case "RPUSH": {
+                    List<String> list = (List<String>) data.computeIfAbsent(key, k -> new ArrayList<String>());
+                    for (Object value : args) {
+                        list.add(String.valueOf(value));
+                    }
+                    return (long) list.size();
+                }
+                default:
+                    throw new UnsupportedOperationException(command);
+            }
+        }
+
+        synchronized String get(String key) {
+            return (String) data.get(key);
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized Set<String> set(String key) {
+            return new HashSet<>((Set<String>) data.getOrDefault(key, Collections.emptySet()));
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized List<String> list(String key) {
+            return new ArrayList<>((List<String>) data.getOrDefault(key, Collections.emptyList()));
+        }
+
+        /**
+         * 与Redis一致：整数形式的数字参数按整数转换为字符串
+         */
+        private static String str(LuaValue value) {
+            if (value.type() == LuaValue.TNUMBER) {
+                double number = value.todouble();
+                if (number == Math.rint(number)) {
+                    return String.valueOf((long) number);
+                }
+            }
+            return value.tojstring();
+        }
+
+        private static LuaValue toLua(Object value) {
+            if (value == null) {
+                return LuaValue.FALSE;
+            }
+            if (value instanceof Long) {
+                return LuaValue.valueOf((Long) value);
+            }
+            return LuaValue.valueOf(String.valueOf(value));
+        }
+
+        /**
+         * 与Redis一致：数字转换为整数，表转换为列表，nil/false 转换为 null
+         */
+        private static Object toJava(LuaValue value) {
+            if (value.istable()) {
+                List<Object> list = new ArrayList<>();
+                for (int i = 1; i <= value.length(); i++) {
+                    list.add(toJava(value.get(i)));
+                }
+                return list;
+            }
+            if (value.type() == LuaValue.TNUMBER) {
+                return (long) value.todouble();
+            }
+            if (value.isnil() || value.type() == LuaValue.TBOOLEAN && !value.toboolean()) {
+                return null;
+            }
+            return value.tojstring();
+        }
+    }
+}